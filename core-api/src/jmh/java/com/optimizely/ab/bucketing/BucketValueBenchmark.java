@@ -0,0 +1,66 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.bucketing;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the integer {@link Bucketer#generateBucketValue(int)} with the floating point mapping it
+ * replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class BucketValueBenchmark {
+
+    private static final int NUM_HASH_CODES = 1024;
+
+    private final Bucketer bucketer = new Bucketer();
+    private int[] hashCodes;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        hashCodes = new int[NUM_HASH_CODES];
+        for (int i = 0; i < NUM_HASH_CODES; i++) {
+            hashCodes[i] = random.nextInt();
+        }
+    }
+
+    @Benchmark
+    public int measureFloatingPointBucketValue() {
+        double ratio = (double) (nextHashCode() & 0xFFFFFFFFL) / Math.pow(2, 32);
+        return (int) Math.floor(Bucketer.MAX_TRAFFIC_VALUE * ratio);
+    }
+
+    @Benchmark
+    public int measureIntegerBucketValue() {
+        return bucketer.generateBucketValue(nextHashCode());
+    }
+
+    private int nextHashCode() {
+        index = (index + 1) & (NUM_HASH_CODES - 1);
+        return hashCodes[index];
+    }
+}
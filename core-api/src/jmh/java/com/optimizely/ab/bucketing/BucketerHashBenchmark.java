@@ -0,0 +1,85 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.bucketing;
+
+import com.optimizely.ab.bucketing.internal.MurmurHash3;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the bucketing hash over a concatenated bucket key with the two-segment
+ * {@link MurmurHash3#murmurhash3_x86_32(CharSequence, CharSequence, int)} used by {@link Bucketer}.
+ * <p>
+ * {@link #setUp()} fails the run if any generated bucketing id lands in a different bucket under the two approaches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class BucketerHashBenchmark {
+
+    private static final int MURMUR_HASH_SEED = 1;
+    private static final int NUM_IDS = 1024;
+
+    private final Bucketer bucketer = new Bucketer();
+    private final String experimentId = "1886780721";
+    private String[] bucketingIds;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        bucketingIds = new String[NUM_IDS];
+        for (int i = 0; i < NUM_IDS; i++) {
+            bucketingIds[i] = "optimizely_user" + random.nextInt();
+        }
+
+        for (String bucketingId : bucketingIds) {
+            String combinedBucketId = bucketingId + experimentId;
+            int expected = bucketer.generateBucketValue(
+                MurmurHash3.murmurhash3_x86_32(combinedBucketId, 0, combinedBucketId.length(), MURMUR_HASH_SEED));
+            int actual = bucketer.generateBucketValue(
+                MurmurHash3.murmurhash3_x86_32(bucketingId, experimentId, MURMUR_HASH_SEED));
+            if (expected != actual) {
+                throw new IllegalStateException("Bucket mismatch for bucketing id \"" + bucketingId + "\": " +
+                    expected + " != " + actual);
+            }
+        }
+    }
+
+    @Benchmark
+    public int measureConcatenatedBucketKey() {
+        String combinedBucketId = nextBucketingId() + experimentId;
+        return bucketer.generateBucketValue(
+            MurmurHash3.murmurhash3_x86_32(combinedBucketId, 0, combinedBucketId.length(), MURMUR_HASH_SEED));
+    }
+
+    @Benchmark
+    public int measureSegmentedBucketKey() {
+        return bucketer.generateBucketValue(
+            MurmurHash3.murmurhash3_x86_32(nextBucketingId(), experimentId, MURMUR_HASH_SEED));
+    }
+
+    private String nextBucketingId() {
+        index = (index + 1) & (NUM_IDS - 1);
+        return bucketingIds[index];
+    }
+}
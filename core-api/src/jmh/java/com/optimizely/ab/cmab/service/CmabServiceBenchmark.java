@@ -0,0 +1,115 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.cmab.service;
+
+import com.optimizely.ab.Optimizely;
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.bucketing.internal.MurmurHash3;
+import com.optimizely.ab.config.DatafileProjectConfig;
+import com.optimizely.ab.config.ProjectConfig;
+import com.optimizely.ab.internal.ConcurrentLRUCache;
+import com.optimizely.ab.optimizelydecision.OptimizelyDecideOption;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.optimizely.ab.config.DatafileProjectConfigTestUtils.validConfigJsonCMAB;
+
+/**
+ * JMH benchmark of {@link DefaultCmabService#getDecision} on a cache hit and on a refetch with a stub client, next to
+ * the TreeMap and string based attribute hash it used before.
+ * <p>
+ * Run with {@code -prof gc} to see the bytes allocated per decision ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class CmabServiceBenchmark {
+
+    private static final String CMAB_RULE_ID = "10390977673";
+
+    private final List<OptimizelyDecideOption> noOptions = Collections.emptyList();
+    private final List<OptimizelyDecideOption> invalidateOptions =
+        Collections.singletonList(OptimizelyDecideOption.INVALIDATE_USER_CMAB_CACHE);
+
+    private ProjectConfig projectConfig;
+    private DefaultCmabService cmabService;
+    private OptimizelyUserContext userContext;
+    private Map<String, Object> cmabAttributes;
+
+    @Setup
+    public void setUp() throws Exception {
+        projectConfig = new DatafileProjectConfig.Builder().withDatafile(validConfigJsonCMAB()).build();
+        cmabService = new DefaultCmabService(
+            (ruleId, userId, attributes, cmabUuid) -> "10389729780",
+            new ConcurrentLRUCache<>(1000, DefaultCmabService.DEFAULT_CMAB_CACHE_TIMEOUT_SECS));
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("gender", "f");
+        attributes.put("age", 32);
+        attributes.put("browser", "chrome");
+        userContext = new OptimizelyUserContext(Optimizely.builder().build(), "optimizely_user_1", attributes);
+
+        cmabAttributes = new HashMap<>();
+        cmabAttributes.put("gender", "f");
+        cmabAttributes.put("age", 32);
+
+        cmabService.getDecision(projectConfig, userContext, CMAB_RULE_ID, noOptions);
+    }
+
+    @Benchmark
+    public CmabDecision measureCachedDecision() {
+        return cmabService.getDecision(projectConfig, userContext, CMAB_RULE_ID, noOptions);
+    }
+
+    @Benchmark
+    public CmabDecision measureRefetchedDecision() {
+        return cmabService.getDecision(projectConfig, userContext, CMAB_RULE_ID, invalidateOptions);
+    }
+
+    @Benchmark
+    public String measureLegacyAttributesHash() {
+        TreeMap<String, Object> sortedAttributes = new TreeMap<>(cmabAttributes);
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : sortedAttributes.entrySet()) {
+            if (!first) {
+                sb.append(",");
+            }
+            sb.append("\"").append(entry.getKey()).append("\":");
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                sb.append("\"").append(value).append("\"");
+            } else {
+                sb.append(value);
+            }
+            first = false;
+        }
+        sb.append("}");
+        String attributesString = sb.toString();
+        return Integer.toHexString(MurmurHash3.murmurhash3_x86_32(attributesString, 0, attributesString.length(), 0));
+    }
+}
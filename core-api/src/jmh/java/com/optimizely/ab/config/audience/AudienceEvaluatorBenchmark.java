@@ -0,0 +1,196 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.config.audience;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.optimizely.ab.BenchmarkUtils;
+import com.optimizely.ab.Optimizely;
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.config.DatafileProjectConfig;
+import com.optimizely.ab.config.Experiment;
+import com.optimizely.ab.config.ProjectConfig;
+import com.optimizely.ab.config.Variation;
+import com.optimizely.ab.config.parser.ConfigParseException;
+import com.optimizely.ab.event.ForwardingEventProcessor;
+import com.optimizely.ab.event.NoopEventHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of audience-heavy decisions over the profiling datafiles, comparing compiled audience conditions,
+ * whose numeric leaves compare primitives, with evaluating the condition trees.
+ * <p>
+ * The profiling datafiles only target string attributes, so every experiment additionally targets a set of numeric
+ * typed audiences on integer, long and double attributes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class AudienceEvaluatorBenchmark {
+
+    // all but the last are required together, the last one qualifies on its own
+    private static final String[][] NUMERIC_CONDITIONS = {
+        {"age", "ge", "18"}, {"age", "lt", "65"}, {"score", "gt", "50.5"}, {"score", "le", "99.9"},
+        {"sessions", "ge", "2"}, {"age", "exact", "16"}
+    };
+
+    @Param({"10", "25", "50"})
+    private int numExperiments;
+
+    private Optimizely optimizely;
+    private ProjectConfig projectConfig;
+    private List<Experiment> experiments;
+    private OptimizelyUserContext[] users;
+    private int index;
+
+    @Setup
+    public void setup() throws IOException, ConfigParseException {
+        String datafile = BenchmarkUtils.getProfilingDatafile(
+            String.format("config/profiling-test-data-%d-experiments.json", numExperiments));
+        String numericDatafile = withNumericAudiences(datafile);
+
+        optimizely = Optimizely.builder().withDatafile(numericDatafile).withEventProcessor(new ForwardingEventProcessor(new NoopEventHandler(), null)).build();
+        projectConfig = new DatafileProjectConfig.Builder().withDatafile(numericDatafile).build();
+        experiments = projectConfig.getExperiments();
+
+        users = new OptimizelyUserContext[4];
+        for (int i = 0; i < users.length; i++) {
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put("browser_type", i % 2 == 0 ? "chrome" : "firefox");
+            attributes.put("age", 16 + i * 15);
+            attributes.put("score", 45.0 + i * 10.25);
+            attributes.put("sessions", (long) i * 2);
+            users[i] = optimizely.createUserContext("user" + i, attributes);
+        }
+    }
+
+    @Benchmark
+    public int measureCompiledAudiences() {
+        OptimizelyUserContext user = nextUser();
+        int qualified = 0;
+        for (Experiment experiment : experiments) {
+            if (Boolean.TRUE.equals(projectConfig.getAudienceEvaluator(experiment).evaluate(user))) {
+                qualified++;
+            }
+        }
+        return qualified;
+    }
+
+    @Benchmark
+    public int measureConditionTrees() {
+        OptimizelyUserContext user = nextUser();
+        int qualified = 0;
+        for (Experiment experiment : experiments) {
+            if (Boolean.TRUE.equals(experiment.getAudienceConditions().evaluate(projectConfig, user))) {
+                qualified++;
+            }
+        }
+        return qualified;
+    }
+
+    @Benchmark
+    public int measureGetVariationForAllExperiments() {
+        OptimizelyUserContext user = nextUser();
+        int bucketed = 0;
+        for (Experiment experiment : experiments) {
+            Variation variation = optimizely.getVariation(experiment.getKey(), user.getUserId(), user.getAttributes());
+            if (variation != null) {
+                bucketed++;
+            }
+        }
+        return bucketed;
+    }
+
+    private OptimizelyUserContext nextUser() {
+        index = (index + 1) & (users.length - 1);
+        return users[index];
+    }
+
+    /**
+     * Add a typed audience and attribute per numeric condition, and make every experiment target them along with its
+     * own audiences.
+     */
+    private static String withNumericAudiences(String datafile) {
+        JsonObject json = JsonParser.parseString(datafile).getAsJsonObject();
+        // the profiling datafiles predate the oldest datafile version this SDK parses, and read the same as version 2
+        json.addProperty("version", "2");
+
+        JsonArray typedAudiences = new JsonArray();
+        JsonArray numericAudienceIds = new JsonArray();
+        for (int i = 0; i < NUMERIC_CONDITIONS.length; i++) {
+            JsonObject condition = new JsonObject();
+            condition.addProperty("name", NUMERIC_CONDITIONS[i][0]);
+            condition.addProperty("type", "custom_attribute");
+            condition.addProperty("match", NUMERIC_CONDITIONS[i][1]);
+            condition.addProperty("value", Double.parseDouble(NUMERIC_CONDITIONS[i][2]));
+            JsonArray conditions = new JsonArray();
+            conditions.add("and");
+            conditions.add(condition);
+
+            JsonObject audience = new JsonObject();
+            audience.addProperty("id", "numeric" + i);
+            audience.addProperty("name", "numeric audience " + i);
+            audience.add("conditions", conditions);
+            typedAudiences.add(audience);
+            numericAudienceIds.add("numeric" + i);
+        }
+        json.add("typedAudiences", typedAudiences);
+
+        JsonArray attributes = json.has("attributes") ? json.getAsJsonArray("attributes") : new JsonArray();
+        for (String key : new String[]{"age", "score", "sessions"}) {
+            JsonObject attribute = new JsonObject();
+            attribute.addProperty("id", "attribute_" + key);
+            attribute.addProperty("key", key);
+            attributes.add(attribute);
+        }
+        json.add("attributes", attributes);
+
+        addNumericAudiences(json.getAsJsonArray("experiments"), numericAudienceIds);
+        for (JsonElement group : json.getAsJsonArray("groups")) {
+            addNumericAudiences(group.getAsJsonObject().getAsJsonArray("experiments"), numericAudienceIds);
+        }
+        return json.toString();
+    }
+
+    private static void addNumericAudiences(JsonArray experiments, JsonArray numericAudienceIds) {
+        for (JsonElement experiment : experiments) {
+            JsonObject experimentJson = experiment.getAsJsonObject();
+            JsonArray numeric = new JsonArray();
+            numeric.add("and");
+            for (int i = 0; i < numericAudienceIds.size() - 1; i++) {
+                numeric.add(numericAudienceIds.get(i));
+            }
+            JsonArray audienceConditions = new JsonArray();
+            audienceConditions.add("or");
+            audienceConditions.add(numeric);
+            audienceConditions.add(numericAudienceIds.get(numericAudienceIds.size() - 1));
+            audienceConditions.addAll(experimentJson.getAsJsonArray("audienceIds"));
+            experimentJson.add("audienceConditions", audienceConditions);
+        }
+    }
+}
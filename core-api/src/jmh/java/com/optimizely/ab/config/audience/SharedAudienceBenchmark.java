@@ -0,0 +1,132 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.config.audience;
+
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.config.DatafileProjectConfigTestUtils;
+import com.optimizely.ab.config.ExperimentCore;
+import com.optimizely.ab.config.ProjectConfig;
+import com.optimizely.ab.config.Rollout;
+import com.optimizely.ab.testutils.OTUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of concurrent evaluations of the same audiences, on one thread and on every available core. The
+ * audience conditions of the experiments and rollout rules are shared by all threads, each thread evaluating them
+ * for its own user, so the scaling from one thread to many shows any writes to shared state on the evaluation path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SharedAudienceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedAudiences {
+        ProjectConfig projectConfig;
+        Condition<?>[] conditionTrees;
+        AudienceEvaluator[] audienceEvaluators;
+
+        @Setup
+        public void setup() {
+            projectConfig = DatafileProjectConfigTestUtils.validProjectConfigV4();
+
+            List<ExperimentCore> experiments = new ArrayList<ExperimentCore>(projectConfig.getExperiments());
+            for (Rollout rollout : projectConfig.getRollouts()) {
+                experiments.addAll(rollout.getExperiments());
+            }
+
+            List<Condition<?>> conditions = new ArrayList<>();
+            List<AudienceEvaluator> evaluators = new ArrayList<>();
+            for (ExperimentCore experiment : experiments) {
+                if (experiment.getAudienceConditions() != null) {
+                    conditions.add(experiment.getAudienceConditions());
+                    evaluators.add(projectConfig.getAudienceEvaluator(experiment));
+                }
+            }
+            conditionTrees = conditions.toArray(new Condition<?>[0]);
+            audienceEvaluators = evaluators.toArray(new AudienceEvaluator[0]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadUser {
+        OptimizelyUserContext user;
+
+        @Setup
+        public void setup() {
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put("house", "Gryffindor");
+            attributes.put("nationality", "English");
+            attributes.put("integerKey", 1);
+            attributes.put("doubleKey", 2.5);
+            attributes.put("booleanKey", true);
+            user = OTUtils.user(Thread.currentThread().getName(), attributes);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int measureConditionTreesOneThread(SharedAudiences audiences, ThreadUser threadUser) {
+        return evaluateConditionTrees(audiences, threadUser.user);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int measureConditionTreesAllThreads(SharedAudiences audiences, ThreadUser threadUser) {
+        return evaluateConditionTrees(audiences, threadUser.user);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int measureCompiledAudiencesOneThread(SharedAudiences audiences, ThreadUser threadUser) {
+        return evaluateCompiledAudiences(audiences, threadUser.user);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int measureCompiledAudiencesAllThreads(SharedAudiences audiences, ThreadUser threadUser) {
+        return evaluateCompiledAudiences(audiences, threadUser.user);
+    }
+
+    private static int evaluateConditionTrees(SharedAudiences audiences, OptimizelyUserContext user) {
+        int qualified = 0;
+        for (Condition<?> condition : audiences.conditionTrees) {
+            if (Boolean.TRUE.equals(condition.evaluate(audiences.projectConfig, user))) {
+                qualified++;
+            }
+        }
+        return qualified;
+    }
+
+    private static int evaluateCompiledAudiences(SharedAudiences audiences, OptimizelyUserContext user) {
+        int qualified = 0;
+        for (AudienceEvaluator audienceEvaluator : audiences.audienceEvaluators) {
+            if (Boolean.TRUE.equals(audienceEvaluator.evaluate(user))) {
+                qualified++;
+            }
+        }
+        return qualified;
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.internal;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing {@link ConcurrentLRUCache} with the single-lock {@link DefaultLRUCache} under a
+ * read-mostly workload (90% lookups, 10% saves) at 1, 8 and 32 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+
+    private static final int NUM_KEYS = 4096;
+
+    @Param({"DefaultLRUCache", "ConcurrentLRUCache"})
+    public String cacheType;
+
+    /**
+     * Ratio of the cache size to the number of keys; below 1 the workload also exercises eviction.
+     */
+    @Param({"2", "0.5"})
+    public double sizeRatio;
+
+    private Cache<Integer> cache;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        int maxSize = (int) (NUM_KEYS * sizeRatio);
+        if ("DefaultLRUCache".equals(cacheType)) {
+            cache = new DefaultLRUCache<>(maxSize, Cache.DEFAULT_TIMEOUT_SECONDS);
+        } else {
+            cache = new ConcurrentLRUCache<>(maxSize, Cache.DEFAULT_TIMEOUT_SECONDS);
+        }
+
+        keys = new String[NUM_KEYS];
+        for (int i = 0; i < NUM_KEYS; i++) {
+            keys[i] = "user" + i;
+            cache.save(keys[i], i);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer measureOneThread() {
+        return lookupOrSave();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Integer measureEightThreads() {
+        return lookupOrSave();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Integer measureThirtyTwoThreads() {
+        return lookupOrSave();
+    }
+
+    private Integer lookupOrSave() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(NUM_KEYS);
+        if (random.nextInt(10) == 0) {
+            cache.save(keys[index], index);
+            return index;
+        }
+        return cache.lookup(keys[index]);
+    }
+}
@@ -18,6 +18,7 @@ package com.optimizely.ab;
 import com.optimizely.ab.annotations.VisibleForTesting;
 import com.optimizely.ab.bucketing.*;
 import com.optimizely.ab.cmab.service.CmabService;
+import com.optimizely.ab.cmab.service.DefaultCmabService;
 import com.optimizely.ab.config.AtomicProjectConfigManager;
 import com.optimizely.ab.config.DatafileProjectConfig;
 import com.optimizely.ab.config.EventType;
@@ -43,8 +44,10 @@ import com.optimizely.ab.event.internal.EventFactory;
 import com.optimizely.ab.event.internal.UserEvent;
 import com.optimizely.ab.event.internal.UserEventFactory;
 import com.optimizely.ab.event.internal.payload.EventBatch;
+import com.optimizely.ab.internal.DefaultAsyncExecutor;
 import com.optimizely.ab.internal.NotificationRegistry;
 import com.optimizely.ab.notification.ActivateNotification;
+import com.optimizely.ab.notification.CacheStatsNotification;
 import com.optimizely.ab.notification.DecisionNotification;
 import com.optimizely.ab.notification.FeatureTestSourceInfo;
 import com.optimizely.ab.notification.NotificationCenter;
@@ -77,6 +80,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static com.optimizely.ab.internal.SafetyUtils.tryClose;
@@ -138,6 +146,8 @@ public class Optimizely implements AutoCloseable {
 
     private final CmabService cmabService;
 
+    private final Executor asyncExecutor;
+
     private final ReentrantLock lock = new ReentrantLock();
 
 
@@ -151,7 +161,8 @@ public class Optimizely implements AutoCloseable {
                        @Nonnull NotificationCenter notificationCenter,
                        @Nonnull List<OptimizelyDecideOption> defaultDecideOptions,
                        @Nullable ODPManager odpManager,
-                       @Nonnull CmabService cmabService
+                       @Nonnull CmabService cmabService,
+                       @Nonnull Executor asyncExecutor
     ) {
         this.eventHandler = eventHandler;
         this.eventProcessor = eventProcessor;
@@ -164,6 +175,7 @@ public class Optimizely implements AutoCloseable {
         this.defaultDecideOptions = defaultDecideOptions;
         this.odpManager = odpManager;
         this.cmabService = cmabService;
+        this.asyncExecutor = asyncExecutor;
 
         if (odpManager != null) {
             odpManager.getEventManager().start();
@@ -1489,8 +1501,10 @@ public class Optimizely implements AutoCloseable {
             }
         }
 
+        // audiences shared by several flags and rules are evaluated once for this call
+        OptimizelyUserContext decisionUser = user.copyForDecision();
         List<DecisionResponse<FeatureDecision>> decisionList =
-            decisionService.getVariationsForFeatureList(flagsWithoutForcedDecision, user, projectConfig, allOptions, decisionPath);
+            decisionService.getVariationsForFeatureList(flagsWithoutForcedDecision, decisionUser, projectConfig, allOptions, decisionPath);
 
         for (int i = 0; i < flagsWithoutForcedDecision.size(); i++) {
             DecisionResponse<FeatureDecision> decision = decisionList.get(i);
@@ -1565,6 +1579,47 @@ public class Optimizely implements AutoCloseable {
 
     //============ decide async ============//
 
+    /**
+     * Returns a decision result asynchronously for a given flag key and a user context.
+     *
+     * @param userContext The user context to make decisions for
+     * @param key         A flag key for which a decision will be made
+     * @param options     A list of options for decision-making
+     * @return A future of the decision, completed with an error decision if deciding fails
+     */
+    CompletableFuture<OptimizelyDecision> decideAsync(@Nonnull OptimizelyUserContext userContext,
+                                                      @Nonnull String key,
+                                                      @Nonnull List<OptimizelyDecideOption> options) {
+        return supplyAsync(() -> userContext.decide(key, options),
+            e -> OptimizelyDecision.newErrorDecision(key, userContext, "Async decision error: " + e.getMessage()));
+    }
+
+    /**
+     * Returns decision results asynchronously for multiple flag keys.
+     *
+     * @param userContext The user context to make decisions for
+     * @param keys        A list of flag keys for which decisions will be made
+     * @param options     A list of options for decision-making
+     * @return A future of the decisions, completed with an empty map if deciding fails
+     */
+    CompletableFuture<Map<String, OptimizelyDecision>> decideForKeysAsync(@Nonnull OptimizelyUserContext userContext,
+                                                                          @Nonnull List<String> keys,
+                                                                          @Nonnull List<OptimizelyDecideOption> options) {
+        return supplyAsync(() -> userContext.decideForKeys(keys, options), e -> Collections.emptyMap());
+    }
+
+    /**
+     * Returns decision results asynchronously for all active flag keys.
+     *
+     * @param userContext The user context to make decisions for
+     * @param options     A list of options for decision-making
+     * @return A future of the decisions, completed with an empty map if deciding fails
+     */
+    CompletableFuture<Map<String, OptimizelyDecision>> decideAllAsync(@Nonnull OptimizelyUserContext userContext,
+                                                                      @Nonnull List<OptimizelyDecideOption> options) {
+        return supplyAsync(() -> userContext.decideAll(options), e -> Collections.emptyMap());
+    }
+
     /**
      * Returns a decision result asynchronously for a given flag key and a user context.
      *
@@ -1577,8 +1632,7 @@ public class Optimizely implements AutoCloseable {
                      @Nonnull String key,
                      @Nonnull List<OptimizelyDecideOption> options,
                      @Nonnull OptimizelyDecisionCallback callback) {
-        AsyncDecisionFetcher fetcher = new AsyncDecisionFetcher(userContext, key, options, callback);
-        fetcher.start();
+        decideAsync(userContext, key, options).thenAccept(callback::onCompleted).exceptionally(this::logCallbackError);
     }
 
     /**
@@ -1593,8 +1647,7 @@ public class Optimizely implements AutoCloseable {
                             @Nonnull List<String> keys,
                             @Nonnull List<OptimizelyDecideOption> options,
                             @Nonnull OptimizelyDecisionsCallback callback) {
-        AsyncDecisionFetcher fetcher = new AsyncDecisionFetcher(userContext, keys, options, callback);
-        fetcher.start();
+        decideForKeysAsync(userContext, keys, options).thenAccept(callback::onCompleted).exceptionally(this::logCallbackError);
     }
 
     /**
@@ -1607,8 +1660,32 @@ public class Optimizely implements AutoCloseable {
     void decideAllAsync(@Nonnull OptimizelyUserContext userContext,
                         @Nonnull List<OptimizelyDecideOption> options,
                         @Nonnull OptimizelyDecisionsCallback callback) {
-        AsyncDecisionFetcher fetcher = new AsyncDecisionFetcher(userContext, options, callback);
-        fetcher.start();
+        decideAllAsync(userContext, options).thenAccept(callback::onCompleted).exceptionally(this::logCallbackError);
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> decision, Function<Exception, T> errorDecision) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                future.complete(decision.get());
+            } catch (Exception e) {
+                logger.error("Error in async decision fetching", e);
+                future.complete(errorDecision.apply(e));
+            }
+        };
+
+        try {
+            asyncExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Async decision rejected by the async executor, deciding on the calling thread");
+            task.run();
+        }
+        return future;
+    }
+
+    private Void logCallbackError(Throwable e) {
+        logger.error("Error in async decision callback", e);
+        return null;
     }
 
     private List<OptimizelyDecideOption> getAllOptions(List<OptimizelyDecideOption> options) {
@@ -1708,6 +1785,31 @@ public class Optimizely implements AutoCloseable {
         return addNotificationHandler(LogEvent.class, handler);
     }
 
+    /**
+     * Convenience method for adding CacheStatsNotification Handlers
+     *
+     * @param handler CacheStatsNotification handler
+     * @return A handler Id (greater than 0 if succeeded)
+     */
+    public int addCacheStatsNotificationHandler(NotificationHandler<CacheStatsNotification> handler) {
+        return addNotificationHandler(CacheStatsNotification.class, handler);
+    }
+
+    /**
+     * Send a {@link CacheStatsNotification} with the current statistics of the ODP segments cache
+     * and the CMAB decisions cache, when they are in use. Call it periodically to tune cache sizes and timeouts.
+     */
+    public void publishCacheStats() {
+        if (odpManager != null) {
+            notificationCenter.send(new CacheStatsNotification(CacheStatsNotification.ODP_SEGMENTS_CACHE,
+                odpManager.getSegmentManager().getCacheStats()));
+        }
+        if (cmabService instanceof DefaultCmabService) {
+            notificationCenter.send(new CacheStatsNotification(CacheStatsNotification.CMAB_DECISIONS_CACHE,
+                ((DefaultCmabService) cmabService).getCacheStats()));
+        }
+    }
+
     /**
      * Convenience method for adding NotificationHandlers
      *
@@ -1861,6 +1963,9 @@ public class Optimizely implements AutoCloseable {
         private List<OptimizelyDecideOption> defaultDecideOptions;
         private ODPManager odpManager;
         private CmabService cmabService;
+        private DecisionTracer decisionTracer;
+        private Executor flagDecisionExecutor;
+        private Executor asyncExecutor;
 
         // For backwards compatibility
         private AtomicProjectConfigManager fallbackConfigManager = new AtomicProjectConfigManager();
@@ -1977,6 +2082,52 @@ public class Optimizely implements AutoCloseable {
             return this;
         }
 
+        /**
+         * The tracer that receives bucketing and decision events. Defaults to a {@link Slf4jDecisionTracer};
+         * use a {@link NoOpDecisionTracer} to skip decision tracing altogether.
+         *
+         * @param decisionTracer The {@link DecisionTracer} to use.
+         * @return An Optimizely builder
+         */
+        public Builder withDecisionTracer(DecisionTracer decisionTracer) {
+            this.decisionTracer = decisionTracer;
+            return this;
+        }
+
+        /**
+         * An executor to decide the flags of decideForKeys and decideAll calls concurrently. By default flags are
+         * decided one after another on the calling thread.
+         * <p>
+         * The user profile is still looked up and saved once per call. Use a dedicated pool rather than one whose
+         * threads call decideAll themselves, so flag decisions cannot wait behind the calls that need them.
+         *
+         * @param flagDecisionExecutor The {@link Executor} to decide flags on.
+         * @return An Optimizely builder
+         */
+        public Builder withFlagDecisionExecutor(Executor flagDecisionExecutor) {
+            this.flagDecisionExecutor = flagDecisionExecutor;
+            return this;
+        }
+
+        /**
+         * The {@link Executor} running async decisions, such as {@link OptimizelyUserContext#decideAsync(String)},
+         * and async ODP segment fetches.
+         * <p>
+         * Defaults to {@link DefaultAsyncExecutor}, which uses virtual threads on JDK 21+ and a bounded pool of daemon
+         * threads otherwise. When the executor rejects a task, the async call runs on the calling thread.
+         * <p>
+         * Async calls block on CMAB and ODP requests while they hold an executor thread. Do not wait for another async
+         * call, for example with {@code join()}, in a callback or task running on a bounded executor: once every
+         * thread waits this way, the calls they wait for never run and the executor deadlocks.
+         *
+         * @param asyncExecutor The {@link Executor} to run async calls on.
+         * @return An Optimizely builder
+         */
+        public Builder withAsyncExecutor(Executor asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
         // Helper functions for making testing easier
         protected Builder withBucketing(Bucketer bucketer) {
             this.bucketer = bucketer;
@@ -2003,8 +2154,12 @@ public class Optimizely implements AutoCloseable {
                 eventHandler = new NoopEventHandler();
             }
 
+            if (decisionTracer == null) {
+                decisionTracer = new Slf4jDecisionTracer();
+            }
+
             if (bucketer == null) {
-                bucketer = new Bucketer();
+                bucketer = new Bucketer(decisionTracer);
             }
 
             if (cmabService == null) {
@@ -2012,7 +2167,7 @@ public class Optimizely implements AutoCloseable {
             }
 
             if (decisionService == null) {
-                decisionService = new DecisionService(bucketer, errorHandler, userProfileService, cmabService);
+                decisionService = new DecisionService(bucketer, errorHandler, userProfileService, cmabService, decisionTracer, flagDecisionExecutor);
             }
 
             if (projectConfig == null && datafile != null && !datafile.isEmpty()) {
@@ -2055,7 +2210,13 @@ public class Optimizely implements AutoCloseable {
                 defaultDecideOptions = Collections.emptyList();
             }
 
-            return new Optimizely(eventHandler, eventProcessor, errorHandler, decisionService, userProfileService, projectConfigManager, optimizelyConfigManager, notificationCenter, defaultDecideOptions, odpManager, cmabService);
+            if (asyncExecutor == null) {
+                asyncExecutor = DefaultAsyncExecutor.getInstance();
+            } else if (odpManager != null) {
+                odpManager.getSegmentManager().setAsyncExecutor(asyncExecutor);
+            }
+
+            return new Optimizely(eventHandler, eventProcessor, errorHandler, decisionService, userProfileService, projectConfigManager, optimizelyConfigManager, notificationCenter, defaultDecideOptions, odpManager, cmabService, asyncExecutor);
         }
     }
 }
@@ -16,17 +16,31 @@
  */
 package com.optimizely.ab;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.optimizely.ab.annotations.VisibleForTesting;
+import com.optimizely.ab.config.audience.AudienceMemo;
+import com.optimizely.ab.config.audience.match.SemanticVersion;
+import com.optimizely.ab.internal.UserContextAccessor;
 import com.optimizely.ab.optimizelydecision.OptimizelyDecisionCallback;
 import com.optimizely.ab.optimizelydecision.OptimizelyDecisionsCallback;
 import org.slf4j.Logger;
@@ -37,23 +51,67 @@ import com.optimizely.ab.odp.ODPSegmentOption;
 import com.optimizely.ab.optimizelydecision.OptimizelyDecideOption;
 import com.optimizely.ab.optimizelydecision.OptimizelyDecision;
 
+/**
+ * The attributes, forced decisions and qualified segments of a user context are immutable snapshots. Every write
+ * replaces the snapshot it changes, so {@link #copy()} shares them with the new context instead of copying.
+ * {@link #getAttributes()} and {@link #getQualifiedSegments()} return live views writing through to the snapshots.
+ */
 public class OptimizelyUserContext {
     // OptimizelyForcedDecisionsKey mapped to variationKeys
-    Map<String, OptimizelyForcedDecision> forcedDecisionsMap;
+    @Nullable
+    private volatile Map<String, OptimizelyForcedDecision> forcedDecisionsMap;
 
     @Nonnull
     private final String userId;
 
     @Nonnull
-    private final Map<String, Object> attributes;
+    private volatile Map<String, Object> attributes;
+
+    // Replaced as a whole on every update so that readers never need a lock.
+    @Nullable
+    private volatile QualifiedSegments qualifiedSegments;
+
+    // Holds the audience results of the decision call this context was created for, dropped when the user changes.
+    @Nullable
+    private volatile AtomicReference<AudienceMemo> audienceMemo;
+
+    // The context created by the user, which copies share parsed semantic versions with, as parsing does not
+    // depend on the user.
+    @Nonnull
+    private final OptimizelyUserContext original;
 
-    private List<String> qualifiedSegments;
+    // Semantic versions parsed from attribute values, only set on the original context and created on first use.
+    @Nullable
+    private volatile Map<String, SemanticVersion> semanticVersions;
+
+    // The view returned by getAttributes(), created on first use. Views hold no state, so a racy creation is fine.
+    @Nullable
+    private Map<String, Object> attributesView;
 
     @Nonnull
     final Optimizely optimizely;
 
+    // Serializes the writes replacing a snapshot, so that concurrent updates are not lost.
+    private final Object lock = new Object();
+
+    private static final int MAX_SEMANTIC_VERSIONS = 16;
+
     private static final Logger logger = LoggerFactory.getLogger(OptimizelyUserContext.class);
 
+    static {
+        UserContextAccessor.register(new UserContextAccessor() {
+            @Override
+            protected AtomicReference<AudienceMemo> audienceMemo(OptimizelyUserContext user) {
+                return user.audienceMemo;
+            }
+
+            @Override
+            protected SemanticVersion semanticVersion(OptimizelyUserContext user, String version) {
+                return user.getSemanticVersion(version);
+            }
+        });
+    }
+
     public OptimizelyUserContext(@Nonnull Optimizely optimizely,
                                  @Nonnull String userId,
                                  @Nonnull Map<String, ?> attributes) {
@@ -77,17 +135,18 @@ public class OptimizelyUserContext {
         this.optimizely = optimizely;
         this.userId = userId;
         if (attributes != null) {
-            this.attributes = Collections.synchronizedMap(new HashMap<>(attributes));
+            this.attributes = Collections.unmodifiableMap(new HashMap<>(attributes));
         } else {
-            this.attributes = Collections.synchronizedMap(new HashMap<>());
+            this.attributes = Collections.emptyMap();
         }
         if (forcedDecisionsMap != null) {
-            this.forcedDecisionsMap = new ConcurrentHashMap<>(forcedDecisionsMap);
+            this.forcedDecisionsMap = Collections.unmodifiableMap(new HashMap<>(forcedDecisionsMap));
         }
 
         if (qualifiedSegments != null) {
-            this.qualifiedSegments = Collections.synchronizedList(new LinkedList<>(qualifiedSegments));
+            this.qualifiedSegments = new QualifiedSegments(qualifiedSegments);
         }
+        this.original = this;
 
         if (shouldIdentifyUser == null || shouldIdentifyUser) {
             optimizely.identifyUser(userId);
@@ -98,20 +157,57 @@ public class OptimizelyUserContext {
         this(optimizely, userId, Collections.EMPTY_MAP);
     }
 
+    private OptimizelyUserContext(@Nonnull OptimizelyUserContext source) {
+        this.optimizely = source.optimizely;
+        this.userId = source.userId;
+        this.attributes = source.attributes;
+        this.forcedDecisionsMap = source.forcedDecisionsMap;
+        this.qualifiedSegments = source.qualifiedSegments;
+        this.original = source.original;
+    }
+
     public String getUserId() {
         return userId;
     }
 
+    /**
+     * @return A live view of the user attributes. Writes to the view update the attributes of this user context.
+     */
     public Map<String, Object> getAttributes() {
-        return attributes;
+        Map<String, Object> view = attributesView;
+        if (view == null) {
+            view = new AttributesView();
+            attributesView = view;
+        }
+        return view;
     }
 
     public Optimizely getOptimizely() {
         return optimizely;
     }
 
+    /**
+     * Returns a snapshot of this user context. The snapshot shares the current immutable state, so this is O(1), and
+     * later writes to either context are not seen by the other.
+     *
+     * @return A snapshot of this user context.
+     */
     public OptimizelyUserContext copy() {
-        return new OptimizelyUserContext(optimizely, userId, attributes, forcedDecisionsMap, qualifiedSegments, false);
+        return new OptimizelyUserContext(this);
+    }
+
+    /**
+     * Returns a snapshot of this user context for one decision call, which evaluates each audience at most once.
+     */
+    OptimizelyUserContext copyForDecision() {
+        OptimizelyUserContext userContext = new OptimizelyUserContext(this);
+        userContext.audienceMemo = new AtomicReference<>();
+        return userContext;
+    }
+
+    @Nullable
+    AtomicReference<AudienceMemo> getAudienceMemo() {
+        return audienceMemo;
     }
 
     /**
@@ -120,11 +216,39 @@ public class OptimizelyUserContext {
      * @return boolean Is user qualified for a segment.
      */
     public boolean isQualifiedFor(@Nonnull String segment) {
-        if (qualifiedSegments == null) {
+        QualifiedSegments segments = qualifiedSegments;
+        if (segments == null) {
             return false;
         }
 
-        return qualifiedSegments.contains(segment);
+        return segments.set.contains(segment);
+    }
+
+    /**
+     * Returns a semantic version attribute value of this user, parsed once per user context.
+     */
+    @Nonnull
+    SemanticVersion getSemanticVersion(@Nonnull String version) {
+        Map<String, SemanticVersion> semanticVersions = original.semanticVersions;
+        if (semanticVersions == null) {
+            synchronized (original.lock) {
+                semanticVersions = original.semanticVersions;
+                if (semanticVersions == null) {
+                    semanticVersions = new ConcurrentHashMap<>();
+                    original.semanticVersions = semanticVersions;
+                }
+            }
+        }
+
+        SemanticVersion semanticVersion = semanticVersions.get(version);
+        if (semanticVersion == null) {
+            semanticVersion = new SemanticVersion(version);
+            // a user has few version attributes, stop remembering any beyond that
+            if (semanticVersions.size() < MAX_SEMANTIC_VERSIONS) {
+                semanticVersions.put(version, semanticVersion);
+            }
+        }
+        return semanticVersion;
     }
 
     /**
@@ -134,7 +258,17 @@ public class OptimizelyUserContext {
      * @param value An attribute value
      */
     public void setAttribute(@Nonnull String key, @Nullable Object value) {
-        attributes.put(key, value);
+        updateAttributes(newAttributes -> newAttributes.put(key, value));
+    }
+
+    private <T> T updateAttributes(Function<Map<String, Object>, T> update) {
+        synchronized (lock) {
+            Map<String, Object> newAttributes = new HashMap<>(attributes);
+            T result = update.apply(newAttributes);
+            attributes = Collections.unmodifiableMap(newAttributes);
+            audienceMemo = null;
+            return result;
+        }
     }
 
     /**
@@ -205,6 +339,71 @@ public class OptimizelyUserContext {
         return decideAll(Collections.emptyList());
     }
 
+    /**
+     * Returns a decision result ({@link OptimizelyDecision}) for a given flag key without blocking the calling thread.
+     * The decision is made on the async executor of the Optimizely client (see
+     * {@link Optimizely.Builder#withAsyncExecutor(java.util.concurrent.Executor)}).
+     *
+     * @param key A flag key for which a decision will be made.
+     * @param options A list of options for decision-making.
+     * @return A future of the decision result.
+     */
+    public CompletableFuture<OptimizelyDecision> decideAsync(@Nonnull String key,
+                                                             @Nonnull List<OptimizelyDecideOption> options) {
+        return optimizely.decideAsync(copy(), key, options);
+    }
+
+    /**
+     * Returns a decision result ({@link OptimizelyDecision}) for a given flag key without blocking the calling thread.
+     *
+     * @param key A flag key for which a decision will be made.
+     * @return A future of the decision result.
+     */
+    public CompletableFuture<OptimizelyDecision> decideAsync(@Nonnull String key) {
+        return decideAsync(key, Collections.emptyList());
+    }
+
+    /**
+     * Returns a key-map of decision results for multiple flag keys without blocking the calling thread.
+     *
+     * @param keys A list of flag keys for which decisions will be made.
+     * @param options A list of options for decision-making.
+     * @return A future of all decision results mapped by flag keys.
+     */
+    public CompletableFuture<Map<String, OptimizelyDecision>> decideForKeysAsync(@Nonnull List<String> keys,
+                                                                                 @Nonnull List<OptimizelyDecideOption> options) {
+        return optimizely.decideForKeysAsync(copy(), keys, options);
+    }
+
+    /**
+     * Returns a key-map of decision results for multiple flag keys without blocking the calling thread.
+     *
+     * @param keys A list of flag keys for which decisions will be made.
+     * @return A future of all decision results mapped by flag keys.
+     */
+    public CompletableFuture<Map<String, OptimizelyDecision>> decideForKeysAsync(@Nonnull List<String> keys) {
+        return decideForKeysAsync(keys, Collections.emptyList());
+    }
+
+    /**
+     * Returns a key-map of decision results for all active flag keys without blocking the calling thread.
+     *
+     * @param options A list of options for decision-making.
+     * @return A future of all decision results mapped by flag keys.
+     */
+    public CompletableFuture<Map<String, OptimizelyDecision>> decideAllAsync(@Nonnull List<OptimizelyDecideOption> options) {
+        return optimizely.decideAllAsync(copy(), options);
+    }
+
+    /**
+     * Returns a key-map of decision results for all active flag keys without blocking the calling thread.
+     *
+     * @return A future of all decision results mapped by flag keys.
+     */
+    public CompletableFuture<Map<String, OptimizelyDecision>> decideAllAsync() {
+        return decideAllAsync(Collections.emptyList());
+    }
+
     /**
      * Track an event.
      *
@@ -236,12 +435,11 @@ public class OptimizelyUserContext {
      */
     public Boolean setForcedDecision(@Nonnull OptimizelyDecisionContext optimizelyDecisionContext,
                                      @Nonnull OptimizelyForcedDecision optimizelyForcedDecision) {
-        // Check if the forcedDecisionsMap has been initialized yet or not
-        if (forcedDecisionsMap == null ){
-            // Thread-safe implementation of HashMap
-            forcedDecisionsMap = new ConcurrentHashMap<>();
+        synchronized (lock) {
+            Map<String, OptimizelyForcedDecision> newForcedDecisions = forcedDecisionsMap == null ? new HashMap<>() : new HashMap<>(forcedDecisionsMap);
+            newForcedDecisions.put(optimizelyDecisionContext.getKey(), optimizelyForcedDecision);
+            forcedDecisionsMap = Collections.unmodifiableMap(newForcedDecisions);
         }
-        forcedDecisionsMap.put(optimizelyDecisionContext.getKey(), optimizelyForcedDecision);
         return true;
     }
 
@@ -264,8 +462,9 @@ public class OptimizelyUserContext {
      */
     @Nullable
     public OptimizelyForcedDecision findForcedDecision(@Nonnull OptimizelyDecisionContext optimizelyDecisionContext) {
-        if (forcedDecisionsMap != null) {
-            return forcedDecisionsMap.get(optimizelyDecisionContext.getKey());
+        Map<String, OptimizelyForcedDecision> forcedDecisions = forcedDecisionsMap;
+        if (forcedDecisions != null) {
+            return forcedDecisions.get(optimizelyDecisionContext.getKey());
         }
         return null;
     }
@@ -277,17 +476,15 @@ public class OptimizelyUserContext {
      * @return Returns a boolean, true if successfully removed, otherwise false
      */
     public boolean removeForcedDecision(@Nonnull OptimizelyDecisionContext optimizelyDecisionContext) {
-        try {
-            if (forcedDecisionsMap != null) {
-                if (forcedDecisionsMap.remove(optimizelyDecisionContext.getKey()) != null) {
-                    return true;
-                }
+        synchronized (lock) {
+            if (forcedDecisionsMap == null || !forcedDecisionsMap.containsKey(optimizelyDecisionContext.getKey())) {
+                return false;
             }
-        } catch (Exception e) {
-            logger.error("Unable to remove forced-decision - " + e);
+            Map<String, OptimizelyForcedDecision> newForcedDecisions = new HashMap<>(forcedDecisionsMap);
+            newForcedDecisions.remove(optimizelyDecisionContext.getKey());
+            forcedDecisionsMap = Collections.unmodifiableMap(newForcedDecisions);
         }
-
-        return false;
+        return true;
     }
 
     /**
@@ -296,25 +493,35 @@ public class OptimizelyUserContext {
      * @return Returns a boolean, True if successfully, otherwise false
      */
     public boolean removeAllForcedDecisions() {
-        // Clear both maps for with and without ruleKey
-        if (forcedDecisionsMap != null) {
-            forcedDecisionsMap.clear();
+        synchronized (lock) {
+            forcedDecisionsMap = null;
         }
         return true;
     }
 
+    /**
+     * @return A live view of the qualified segments, or null if they have not been set. Writes to the view update
+     * the qualified segments of this user context.
+     */
     public List<String> getQualifiedSegments() {
-        return qualifiedSegments;
+        return qualifiedSegments == null ? null : new QualifiedSegmentsView();
     }
 
     public void setQualifiedSegments(List<String> qualifiedSegments) {
-        if (qualifiedSegments == null) {
-            this.qualifiedSegments = null;
-        } else if (this.qualifiedSegments == null) {
-            this.qualifiedSegments = Collections.synchronizedList(new LinkedList<>(qualifiedSegments));
-        } else {
-            this.qualifiedSegments.clear();
-            this.qualifiedSegments.addAll(qualifiedSegments);
+        synchronized (lock) {
+            this.qualifiedSegments = qualifiedSegments == null ? null : new QualifiedSegments(qualifiedSegments);
+            this.audienceMemo = null;
+        }
+    }
+
+    private <T> T updateQualifiedSegments(Function<List<String>, T> update) {
+        synchronized (lock) {
+            QualifiedSegments segments = qualifiedSegments;
+            List<String> newSegments = segments == null ? new ArrayList<>() : new ArrayList<>(segments.list);
+            T result = update.apply(newSegments);
+            qualifiedSegments = new QualifiedSegments(newSegments);
+            audienceMemo = null;
+            return result;
         }
     }
 
@@ -438,4 +645,224 @@ public class OptimizelyUserContext {
         optimizely.decideAllAsync(copy(), options, callback);
     }
 
+    /**
+     * Immutable snapshot of the qualified segments, keeping the original order for {@link #getQualifiedSegments()}
+     * and a hashed copy for {@link #isQualifiedFor(String)}.
+     */
+    private static final class QualifiedSegments {
+        private final List<String> list;
+        private final Set<String> set;
+
+        private QualifiedSegments(List<String> segments) {
+            this.list = Collections.unmodifiableList(new ArrayList<>(segments));
+            this.set = new HashSet<>(segments);
+        }
+    }
+
+    /**
+     * Map view of the current attributes snapshot, replacing the snapshot on writes.
+     */
+    private final class AttributesView extends AbstractMap<String, Object> {
+        private final Set<Entry<String, Object>> entries = new AttributeEntries();
+
+        @Override
+        public int size() {
+            return attributes.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return attributes.containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            return attributes.get(key);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return entries;
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            return updateAttributes(newAttributes -> newAttributes.put(key, value));
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ?> map) {
+            updateAttributes(newAttributes -> {
+                newAttributes.putAll(map);
+                return null;
+            });
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return updateAttributes(newAttributes -> newAttributes.remove(key));
+        }
+
+        @Override
+        public void clear() {
+            updateAttributes(newAttributes -> {
+                newAttributes.clear();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Entry set view of the current attributes snapshot. Iterating reads the snapshot current when the iteration
+     * started; removing through the iterator and setting entry values write through to this user context.
+     */
+    private final class AttributeEntries extends AbstractSet<Map.Entry<String, Object>> {
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new AttributesIterator();
+        }
+
+        @Override
+        public int size() {
+            return attributes.size();
+        }
+
+        @Override
+        public void clear() {
+            getAttributes().clear();
+        }
+    }
+
+    private final class AttributesIterator implements Iterator<Map.Entry<String, Object>> {
+        private final Iterator<Map.Entry<String, Object>> snapshot = attributes.entrySet().iterator();
+        @Nullable
+        private AttributeEntry last;
+
+        @Override
+        public boolean hasNext() {
+            return snapshot.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            Map.Entry<String, Object> entry = snapshot.next();
+            last = new AttributeEntry(entry.getKey(), entry.getValue());
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            String key = last.key;
+            last = null;
+            updateAttributes(newAttributes -> newAttributes.remove(key));
+        }
+    }
+
+    private final class AttributeEntry implements Map.Entry<String, Object> {
+        private final String key;
+        private Object value;
+
+        private AttributeEntry(String key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            this.value = value;
+            return updateAttributes(newAttributes -> newAttributes.put(key, value));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) obj;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * List view of the current qualified segments snapshot, replacing the snapshot on writes.
+     */
+    private final class QualifiedSegmentsView extends AbstractList<String> {
+        private List<String> current() {
+            QualifiedSegments segments = qualifiedSegments;
+            return segments == null ? Collections.emptyList() : segments.list;
+        }
+
+        @Override
+        public String get(int index) {
+            return current().get(index);
+        }
+
+        @Override
+        public int size() {
+            return current().size();
+        }
+
+        @Override
+        public boolean contains(Object segment) {
+            QualifiedSegments segments = qualifiedSegments;
+            return segments != null && segments.set.contains(segment);
+        }
+
+        @Override
+        public String set(int index, String segment) {
+            return updateQualifiedSegments(newSegments -> newSegments.set(index, segment));
+        }
+
+        @Override
+        public void add(int index, String segment) {
+            updateQualifiedSegments(newSegments -> {
+                newSegments.add(index, segment);
+                return null;
+            });
+        }
+
+        @Override
+        public String remove(int index) {
+            return updateQualifiedSegments(newSegments -> newSegments.remove(index));
+        }
+
+        @Override
+        public boolean remove(Object segment) {
+            return updateQualifiedSegments(newSegments -> newSegments.remove(segment));
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends String> segments) {
+            return updateQualifiedSegments(newSegments -> newSegments.addAll(segments));
+        }
+
+        @Override
+        public void clear() {
+            updateQualifiedSegments(newSegments -> {
+                newSegments.clear();
+                return null;
+            });
+        }
+    }
 }
@@ -16,10 +16,8 @@
  */
 package com.optimizely.ab.bucketing;
 
-import java.util.Collections;
-import java.util.List;
-
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 import org.slf4j.Logger;
@@ -31,7 +29,7 @@ import com.optimizely.ab.config.Experiment;
 import com.optimizely.ab.config.ExperimentCore;
 import com.optimizely.ab.config.Group;
 import com.optimizely.ab.config.ProjectConfig;
-import com.optimizely.ab.config.TrafficAllocation;
+import com.optimizely.ab.config.TrafficAllocationIndex;
 import com.optimizely.ab.config.Variation;
 import com.optimizely.ab.optimizelydecision.DecisionReasons;
 import com.optimizely.ab.optimizelydecision.DecisionResponse;
@@ -59,92 +57,93 @@ public class Bucketer {
     @VisibleForTesting
     static final int MAX_TRAFFIC_VALUE = 10000;
 
-    private String bucketToEntity(int bucketValue, List<TrafficAllocation> trafficAllocations) {
-        int currentEndOfRange;
-        for (TrafficAllocation currAllocation : trafficAllocations) {
-            currentEndOfRange = currAllocation.getEndOfRange();
-            if (bucketValue < currentEndOfRange) {
-                // for mutually exclusive bucketing, de-allocated space is represented by an empty string
-                if (currAllocation.getEntityId().isEmpty()) {
-                    return null;
-                }
-                return currAllocation.getEntityId();
-            }
-        }
+    private final DecisionTracer decisionTracer;
 
-        return null;
+    public Bucketer() {
+        this(new Slf4jDecisionTracer());
+    }
+
+    /**
+     * @param decisionTracer The tracer that receives the bucketing events.
+     */
+    public Bucketer(@Nonnull DecisionTracer decisionTracer) {
+        this.decisionTracer = decisionTracer;
     }
 
     private Experiment bucketToExperiment(@Nonnull Group group,
                                           @Nonnull String bucketingId,
                                           @Nonnull ProjectConfig projectConfig) {
-        // "salt" the bucket id using the group id
-        String bucketKey = bucketingId + group.getId();
+        TrafficAllocationIndex<Experiment> trafficAllocationIndex = group.getTrafficAllocationIndex();
 
-        List<TrafficAllocation> trafficAllocations = group.getTrafficAllocation();
-
-        int hashCode = MurmurHash3.murmurhash3_x86_32(bucketKey, 0, bucketKey.length(), MURMUR_HASH_SEED);
+        // "salt" the bucket id using the group id
+        int hashCode = MurmurHash3.murmurhash3_x86_32(bucketingId, group.getId(), MURMUR_HASH_SEED);
         int bucketValue = generateBucketValue(hashCode);
         logger.debug("Assigned bucket {} to user with bucketingId \"{}\" during experiment bucketing.", bucketValue, bucketingId);
 
-        String bucketedExperimentId = bucketToEntity(bucketValue, trafficAllocations);
-        if (bucketedExperimentId != null) {
-            return projectConfig.getExperimentIdMapping().get(bucketedExperimentId);
+        int index = trafficAllocationIndex.indexOf(bucketValue);
+        // for mutually exclusive bucketing, de-allocated space is represented by an empty string
+        if (index >= 0 && !trafficAllocationIndex.getEntityId(index).isEmpty()) {
+            Experiment bucketedExperiment = trafficAllocationIndex.getEntity(index);
+            if (bucketedExperiment == null) {
+                bucketedExperiment = projectConfig.getExperimentIdMapping().get(trafficAllocationIndex.getEntityId(index));
+            }
+            return bucketedExperiment;
         }
 
         // user was not bucketed to an experiment in the group
         return null;
     }
 
-    @Nonnull
-    private DecisionResponse<Variation> bucketToVariation(@Nonnull ExperimentCore experiment,
-                                                          @Nonnull String bucketingId,
-                                                          @Nonnull DecisionPath decisionPath) {
-        DecisionReasons reasons = DefaultDecisionReasons.newInstance();
-
-        // "salt" the bucket id using the experiment id
-        String experimentId = experiment.getId();
+    @Nullable
+    private Variation bucketToVariation(@Nonnull ExperimentCore experiment,
+                                        @Nonnull String bucketingId,
+                                        @Nonnull DecisionPath decisionPath,
+                                        @Nonnull DecisionReasons reasons) {
         String experimentKey = experiment.getKey();
-        String combinedBucketId = bucketingId + experimentId;
-
-        List<TrafficAllocation> trafficAllocations = experiment.getTrafficAllocation();
 
-        int hashCode = MurmurHash3.murmurhash3_x86_32(combinedBucketId, 0, combinedBucketId.length(), MURMUR_HASH_SEED);
+        // "salt" the bucket id using the experiment id
+        int hashCode = MurmurHash3.murmurhash3_x86_32(bucketingId, experiment.getId(), MURMUR_HASH_SEED);
         int bucketValue = generateBucketValue(hashCode);
         logger.debug("Assigned bucket {} to user with bucketingId \"{}\" when bucketing to a variation.", bucketValue, bucketingId);
 
+        String bucketedVariationId = null;
+        Variation bucketedVariation = null;
+
         // Only apply CMAB traffic allocation logic if decision path is WITH_CMAB
         if (decisionPath == DecisionPath.WITH_CMAB && experiment instanceof Experiment && ((Experiment) experiment).getCmab() != null) {
             // For CMAB experiments, the original trafficAllocation is kept empty for backward compatibility.
             // Use the traffic allocation defined in the CMAB block for bucketing instead.
-            String message = reasons.addInfo("Using CMAB traffic allocation for experiment \"%s\"", experimentKey);
-            logger.info(message);
-            trafficAllocations = Collections.singletonList(
-                new TrafficAllocation("$", ((Experiment) experiment).getCmab().getTrafficAllocation())
-            );
+            logInfo(reasons, "Using CMAB traffic allocation for experiment \"%s\"", experimentKey);
+            if (bucketValue < ((Experiment) experiment).getCmab().getTrafficAllocation()) {
+                bucketedVariationId = "$";
+            }
+        } else {
+            TrafficAllocationIndex<Variation> trafficAllocationIndex = experiment.getTrafficAllocationIndex();
+            int index = trafficAllocationIndex.indexOf(bucketValue);
+            // de-allocated space is represented by an empty string
+            if (index >= 0 && !trafficAllocationIndex.getEntityId(index).isEmpty()) {
+                bucketedVariationId = trafficAllocationIndex.getEntityId(index);
+                bucketedVariation = trafficAllocationIndex.getEntity(index);
+            }
         }
 
-        String bucketedVariationId = bucketToEntity(bucketValue, trafficAllocations);
         if (decisionPath == DecisionPath.WITH_CMAB && "$".equals(bucketedVariationId)) {
             // for cmab experiments
-            String message = reasons.addInfo("User with bucketingId \"%s\" is bucketed into CMAB for experiment \"%s\"", bucketingId, experimentKey);
-            logger.info(message);
-            return new DecisionResponse(new Variation("$", "$"), reasons);
+            addInfo(reasons, "User with bucketingId \"%s\" is bucketed into CMAB for experiment \"%s\"", bucketingId, experimentKey);
+            decisionTracer.bucketedIntoCmab(bucketingId, experiment);
+            return new Variation("$", "$");
         }
         else if (bucketedVariationId != null) {
-            Variation bucketedVariation = experiment.getVariationIdToVariationMap().get(bucketedVariationId);
-            String variationKey = bucketedVariation.getKey();
-            String message = reasons.addInfo("User with bucketingId \"%s\" is in variation \"%s\" of experiment \"%s\".", bucketingId, variationKey,
-                experimentKey);
-            logger.info(message);
-
-            return new DecisionResponse(bucketedVariation, reasons);
+            addInfo(reasons, "User with bucketingId \"%s\" is in variation \"%s\" of experiment \"%s\".", bucketingId,
+                bucketedVariation.getKey(), experimentKey);
+            decisionTracer.bucketed(bucketingId, experiment, bucketedVariation);
+            return bucketedVariation;
         }
 
         // user was not bucketed to a variation
-        String message = reasons.addInfo("User with bucketingId \"%s\" is not in any variation of experiment \"%s\".", bucketingId, experimentKey);
-        logger.info(message);
-        return new DecisionResponse(null, reasons);
+        addInfo(reasons, "User with bucketingId \"%s\" is not in any variation of experiment \"%s\".", bucketingId, experimentKey);
+        decisionTracer.bucketed(bucketingId, experiment, null);
+        return null;
     }
 
     /**
@@ -154,15 +153,16 @@ public class Bucketer {
      * @param bucketingId string A customer-assigned value used to create the key for the murmur hash.
      * @param projectConfig      The current projectConfig
      * @param decisionPath      enum for decision making logic
-     * @return A {@link DecisionResponse} including the {@link Variation} that user is bucketed into (or null) and the decision reasons
+     * @param reasons           The decision reasons the bucketing reasons are added to
+     * @return A {@link DecisionResponse} including the {@link Variation} that user is bucketed into (or null) and
+     * the given decision reasons
      */
     @Nonnull
     public DecisionResponse<Variation> bucket(@Nonnull ExperimentCore experiment,
                                               @Nonnull String bucketingId,
                                               @Nonnull ProjectConfig projectConfig,
-                                              @Nonnull DecisionPath decisionPath) {
-        DecisionReasons reasons = DefaultDecisionReasons.newInstance();
-
+                                              @Nonnull DecisionPath decisionPath,
+                                              @Nonnull DecisionReasons reasons) {
         // ---------- Bucket User ----------
         String groupId = experiment.getGroupId();
         // check whether the experiment belongs to a group
@@ -172,28 +172,44 @@ public class Bucketer {
             if (experimentGroup.getPolicy().equals(Group.RANDOM_POLICY)) {
                 Experiment bucketedExperiment = bucketToExperiment(experimentGroup, bucketingId, projectConfig);
                 if (bucketedExperiment == null) {
-                    String message = reasons.addInfo("User with bucketingId \"%s\" is not in any experiment of group %s.", bucketingId, experimentGroup.getId());
-                    logger.info(message);
+                    addInfo(reasons, "User with bucketingId \"%s\" is not in any experiment of group %s.", bucketingId, experimentGroup.getId());
+                    decisionTracer.notInGroup(bucketingId, experimentGroup, null);
                     return new DecisionResponse(null, reasons);
                 }
                 // if the experiment a user is bucketed in within a group isn't the same as the experiment provided,
                 // don't perform further bucketing within the experiment
                 if (!bucketedExperiment.getId().equals(experiment.getId())) {
-                    String message = reasons.addInfo("User with bucketingId \"%s\" is not in experiment \"%s\" of group %s.", bucketingId, experiment.getKey(),
+                    addInfo(reasons, "User with bucketingId \"%s\" is not in experiment \"%s\" of group %s.", bucketingId, experiment.getKey(),
                         experimentGroup.getId());
-                    logger.info(message);
+                    decisionTracer.notInGroup(bucketingId, experimentGroup, experiment);
                     return new DecisionResponse(null, reasons);
                 }
 
-                String message = reasons.addInfo("User with bucketingId \"%s\" is in experiment \"%s\" of group %s.", bucketingId, experiment.getKey(),
+                addInfo(reasons, "User with bucketingId \"%s\" is in experiment \"%s\" of group %s.", bucketingId, experiment.getKey(),
                     experimentGroup.getId());
-                logger.info(message);
+                decisionTracer.inGroup(bucketingId, experimentGroup, experiment);
             }
         }
 
-        DecisionResponse<Variation> decisionResponse = bucketToVariation(experiment, bucketingId, decisionPath);
-        reasons.merge(decisionResponse.getReasons());
-        return new DecisionResponse<>(decisionResponse.getResult(), reasons);
+        Variation variation = bucketToVariation(experiment, bucketingId, decisionPath, reasons);
+        return new DecisionResponse<>(variation, reasons);
+    }
+
+    /**
+     * Assign a {@link Variation} of an {@link Experiment} to a user based on hashed value from murmurhash3.
+     *
+     * @param experiment  The Experiment in which the user is to be bucketed.
+     * @param bucketingId string A customer-assigned value used to create the key for the murmur hash.
+     * @param projectConfig      The current projectConfig
+     * @param decisionPath      enum for decision making logic
+     * @return A {@link DecisionResponse} including the {@link Variation} that user is bucketed into (or null) and the decision reasons
+     */
+    @Nonnull
+    public DecisionResponse<Variation> bucket(@Nonnull ExperimentCore experiment,
+                                              @Nonnull String bucketingId,
+                                              @Nonnull ProjectConfig projectConfig,
+                                              @Nonnull DecisionPath decisionPath) {
+        return bucket(experiment, bucketingId, projectConfig, decisionPath, DefaultDecisionReasons.newInstance());
     }
 
     /**
@@ -213,6 +229,24 @@ public class Bucketer {
 
     //======== Helper methods ========//
 
+    /**
+     * Add an info message to the reasons. The message is only formatted when the reasons keep infos.
+     */
+    private static void addInfo(DecisionReasons reasons, String format, Object... args) {
+        if (reasons.isInfoEnabled()) {
+            reasons.addInfo(format, args);
+        }
+    }
+
+    /**
+     * Add an info message to the reasons and log it. The message is only formatted when either of them keeps it.
+     */
+    private static void logInfo(DecisionReasons reasons, String format, Object... args) {
+        if (reasons.isInfoEnabled() || logger.isInfoEnabled()) {
+            logger.info(reasons.addInfo(format, args));
+        }
+    }
+
     /**
      * Map the given 32-bit hashcode into the range [0, {@link #MAX_TRAFFIC_VALUE}).
      *
@@ -221,9 +255,9 @@ public class Bucketer {
      */
     @VisibleForTesting
     int generateBucketValue(int hashCode) {
-        // map the hashCode into the range [0, BucketAlgorithm.MAX_TRAFFIC_VALUE)
-        double ratio = (double) (hashCode & 0xFFFFFFFFL) / Math.pow(2, 32);
-        return (int) Math.floor(MAX_TRAFFIC_VALUE * ratio);
+        // map the hashCode into the range [0, BucketAlgorithm.MAX_TRAFFIC_VALUE). This is the exact integer form of
+        // floor(MAX_TRAFFIC_VALUE * unsigned(hashCode) / 2^32), which the previous double-based version computed.
+        return (int) (((hashCode & 0xFFFFFFFFL) * MAX_TRAFFIC_VALUE) >>> 32);
     }
 
 }
@@ -21,7 +21,11 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -37,9 +41,9 @@ import com.optimizely.ab.OptimizelyRuntimeException;
 import com.optimizely.ab.OptimizelyUserContext;
 import com.optimizely.ab.config.Experiment;
 import com.optimizely.ab.config.FeatureFlag;
+import com.optimizely.ab.config.FlagDecisionPlan;
 import com.optimizely.ab.config.Holdout;
 import com.optimizely.ab.config.ProjectConfig;
-import com.optimizely.ab.config.Rollout;
 import com.optimizely.ab.config.Variation;
 import com.optimizely.ab.error.ErrorHandler;
 import com.optimizely.ab.internal.ControlAttribute;
@@ -68,6 +72,8 @@ public class DecisionService {
     private final ErrorHandler errorHandler;
     private final UserProfileService userProfileService;
     private final CmabService cmabService;
+    private final DecisionTracer decisionTracer;
+    private final Executor flagDecisionExecutor;
     private static final Logger logger = LoggerFactory.getLogger(DecisionService.class);
 
     /**
@@ -103,10 +109,53 @@ public class DecisionService {
                            @Nonnull ErrorHandler errorHandler,
                            @Nullable UserProfileService userProfileService,
                            @Nullable CmabService cmabService) {
+        this(bucketer, errorHandler, userProfileService, cmabService, new Slf4jDecisionTracer());
+    }
+
+    /**
+     * Initialize a decision service for the Optimizely client.
+     *
+     * @param bucketer           Base bucketer to allocate new users to an experiment.
+     * @param errorHandler       The error handler of the Optimizely client.
+     * @param userProfileService UserProfileService implementation for storing user info.
+     * @param cmabService        Cmab Service for decision making.
+     * @param decisionTracer     The tracer that receives the decision events.
+     */
+    public DecisionService(@Nonnull Bucketer bucketer,
+                           @Nonnull ErrorHandler errorHandler,
+                           @Nullable UserProfileService userProfileService,
+                           @Nullable CmabService cmabService,
+                           @Nonnull DecisionTracer decisionTracer) {
+        this(bucketer, errorHandler, userProfileService, cmabService, decisionTracer, null);
+    }
+
+    /**
+     * Initialize a decision service for the Optimizely client.
+     * <p>
+     * When a flag decision executor is given, {@link #getVariationsForFeatureList} evaluates the flags concurrently
+     * on it. The user profile is still looked up and saved once per call, and the decisions are returned in the order
+     * of the flags. The executor should not be one that runs the calling thread's own tasks, or a saturated executor
+     * can deadlock waiting for the flag decisions.
+     *
+     * @param bucketer             Base bucketer to allocate new users to an experiment.
+     * @param errorHandler         The error handler of the Optimizely client.
+     * @param userProfileService   UserProfileService implementation for storing user info.
+     * @param cmabService          Cmab Service for decision making.
+     * @param decisionTracer       The tracer that receives the decision events.
+     * @param flagDecisionExecutor The executor for concurrent flag decisions, or null to decide flags sequentially.
+     */
+    public DecisionService(@Nonnull Bucketer bucketer,
+                           @Nonnull ErrorHandler errorHandler,
+                           @Nullable UserProfileService userProfileService,
+                           @Nullable CmabService cmabService,
+                           @Nonnull DecisionTracer decisionTracer,
+                           @Nullable Executor flagDecisionExecutor) {
         this.bucketer = bucketer;
         this.errorHandler = errorHandler;
         this.userProfileService = userProfileService;
         this.cmabService = cmabService;
+        this.decisionTracer = decisionTracer;
+        this.flagDecisionExecutor = flagDecisionExecutor;
     }
 
     /**
@@ -134,8 +183,7 @@ public class DecisionService {
         }
 
         if (!ExperimentUtils.isExperimentActive(experiment)) {
-            String message = reasons.addInfo("Experiment \"%s\" is not running.", experiment.getKey());
-            logger.info(message);
+            logInfo(reasons, "Experiment \"%s\" is not running.", experiment.getKey());
             return new DecisionResponse(null, reasons);
         }
 
@@ -171,8 +219,7 @@ public class DecisionService {
         if (decisionMeetAudience.getResult()) {
             String bucketingId = getBucketingId(user.getUserId(), user.getAttributes());
             String cmabUuid = null;
-            decisionVariation = bucketer.bucket(experiment, bucketingId, projectConfig, decisionPath);
-            reasons.merge(decisionVariation.getReasons());
+            decisionVariation = bucketer.bucket(experiment, bucketingId, projectConfig, decisionPath, reasons);
             if (decisionPath == DecisionPath.WITH_CMAB && isCmabExperiment(experiment) && decisionVariation.getResult() != null) {
                 // group-allocation and traffic-allocation checking passed for cmab  
                 // we need server decision overruling local bucketing for cmab
@@ -212,8 +259,8 @@ public class DecisionService {
             return new DecisionResponse<>(variation, reasons, false, cmabUuid);
         }
 
-        String message = reasons.addInfo("User \"%s\" does not meet conditions to be in experiment \"%s\".", user.getUserId(), experiment.getKey());
-        logger.info(message);
+        addInfo(reasons, "User \"%s\" does not meet conditions to be in experiment \"%s\".", user.getUserId(), experiment.getKey());
+        decisionTracer.audienceFailed(user.getUserId(), experiment);
         return new DecisionResponse(null, reasons);
     }
 
@@ -319,57 +366,105 @@ public class DecisionService {
             userProfileTracker.loadUserProfile(upsReasons, errorHandler);
         }
 
-        List<DecisionResponse<FeatureDecision>> decisions = new ArrayList<>();
-
-        flagLoop: for (FeatureFlag featureFlag: featureFlags) {
-            DecisionReasons reasons = DefaultDecisionReasons.newInstance();
-            reasons.merge(upsReasons);
-
-            List<Holdout> holdouts = projectConfig.getHoldoutForFlag(featureFlag.getId());
-            if (!holdouts.isEmpty()) {
-                for (Holdout holdout : holdouts) {
-                    DecisionResponse<Variation> holdoutDecision = getVariationForHoldout(holdout, user, projectConfig);
-                    reasons.merge(holdoutDecision.getReasons());
-                    if (holdoutDecision.getResult() != null) {
-                        decisions.add(new DecisionResponse<>(new FeatureDecision(holdout, holdoutDecision.getResult(), FeatureDecision.DecisionSource.HOLDOUT), reasons));
-                        continue flagLoop;
-                    }
-                }
+        List<DecisionResponse<FeatureDecision>> decisions;
+        if (flagDecisionExecutor != null && featureFlags.size() > 1) {
+            decisions = getVariationsForFeatureListConcurrently(featureFlags, user, projectConfig, options, userProfileTracker, decisionPath, upsReasons);
+        } else {
+            decisions = new ArrayList<>(featureFlags.size());
+            for (FeatureFlag featureFlag : featureFlags) {
+                decisions.add(getVariationForFeatureFlag(featureFlag, user, projectConfig, options, userProfileTracker, decisionPath, upsReasons));
             }
+        }
 
-            DecisionResponse<FeatureDecision> decisionVariationResponse = getVariationFromExperiment(projectConfig, featureFlag, user, options, userProfileTracker, decisionPath);
-            reasons.merge(decisionVariationResponse.getReasons());
+        if (userProfileService != null && !ignoreUPS) {
+            userProfileTracker.saveUserProfile(errorHandler);
+        }
 
-            FeatureDecision decision = decisionVariationResponse.getResult();
-            boolean error = decisionVariationResponse.isError();
+        return decisions;
+    }
 
-            if (decision != null) {
-                decisions.add(new DecisionResponse(decision, reasons, error, decision.cmabUuid));
-                continue;
+    private List<DecisionResponse<FeatureDecision>> getVariationsForFeatureListConcurrently(@Nonnull List<FeatureFlag> featureFlags,
+                                                                                          @Nonnull OptimizelyUserContext user,
+                                                                                          @Nonnull ProjectConfig projectConfig,
+                                                                                          @Nonnull List<OptimizelyDecideOption> options,
+                                                                                          @Nullable UserProfileTracker userProfileTracker,
+                                                                                          @Nonnull DecisionPath decisionPath,
+                                                                                          @Nonnull DecisionReasons upsReasons) {
+        List<CompletableFuture<DecisionResponse<FeatureDecision>>> futures = new ArrayList<>(featureFlags.size());
+        for (FeatureFlag featureFlag : featureFlags) {
+            CompletableFuture<DecisionResponse<FeatureDecision>> future;
+            try {
+                future = CompletableFuture.supplyAsync(
+                    () -> getVariationForFeatureFlag(featureFlag, user, projectConfig, options, userProfileTracker, decisionPath, upsReasons),
+                    flagDecisionExecutor);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Flag decision executor rejected feature flag \"{}\", deciding it on the calling thread.", featureFlag.getKey());
+                future = CompletableFuture.completedFuture(
+                    getVariationForFeatureFlag(featureFlag, user, projectConfig, options, userProfileTracker, decisionPath, upsReasons));
             }
+            futures.add(future);
+        }
 
-            DecisionResponse<FeatureDecision> decisionFeatureResponse = getVariationForFeatureInRollout(featureFlag, user, projectConfig);
-            reasons.merge(decisionFeatureResponse.getReasons());
-            decision = decisionFeatureResponse.getResult();
+        List<DecisionResponse<FeatureDecision>> decisions = new ArrayList<>(futures.size());
+        for (CompletableFuture<DecisionResponse<FeatureDecision>> future : futures) {
+            try {
+                decisions.add(future.join());
+            } catch (CompletionException e) {
+                // rethrow what the flag decision threw, as the sequential path would
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return decisions;
+    }
 
-            String message;
-            if (decision.variation == null) {
-                message = reasons.addInfo("The user \"%s\" was not bucketed into a rollout for feature flag \"%s\".",
-                    user.getUserId(), featureFlag.getKey());
-            } else {
-                message = reasons.addInfo("The user \"%s\" was bucketed into a rollout for feature flag \"%s\".",
-                    user.getUserId(), featureFlag.getKey());
+    @Nonnull
+    private DecisionResponse<FeatureDecision> getVariationForFeatureFlag(@Nonnull FeatureFlag featureFlag,
+                                                                         @Nonnull OptimizelyUserContext user,
+                                                                         @Nonnull ProjectConfig projectConfig,
+                                                                         @Nonnull List<OptimizelyDecideOption> options,
+                                                                         @Nullable UserProfileTracker userProfileTracker,
+                                                                         @Nonnull DecisionPath decisionPath,
+                                                                         @Nonnull DecisionReasons upsReasons) {
+        // one reasons instance per flag is threaded through all nested decisions; it only keeps infos when
+        // INCLUDE_REASONS is requested
+        DecisionReasons reasons = DefaultDecisionReasons.newInstance(options);
+        reasons.merge(upsReasons);
+
+        FlagDecisionPlan plan = projectConfig.getFlagDecisionPlan(featureFlag);
+        List<Holdout> holdouts = plan.getHoldouts();
+        if (!holdouts.isEmpty()) {
+            for (Holdout holdout : holdouts) {
+                DecisionResponse<Variation> holdoutDecision = getVariationForHoldout(holdout, user, projectConfig, reasons);
+                if (holdoutDecision.getResult() != null) {
+                    return new DecisionResponse<>(new FeatureDecision(holdout, holdoutDecision.getResult(), FeatureDecision.DecisionSource.HOLDOUT), reasons);
+                }
             }
-            logger.info(message);
+        }
+
+        DecisionResponse<FeatureDecision> decisionVariationResponse = getVariationFromExperiment(projectConfig, plan, user, options, userProfileTracker, decisionPath, reasons);
 
-            decisions.add(new DecisionResponse(decision, reasons));
+        FeatureDecision decision = decisionVariationResponse.getResult();
+        boolean error = decisionVariationResponse.isError();
+
+        if (decision != null) {
+            return new DecisionResponse(decision, reasons, error, decision.cmabUuid);
         }
 
-        if (userProfileService != null && !ignoreUPS) {
-            userProfileTracker.saveUserProfile(errorHandler);
+        DecisionResponse<FeatureDecision> decisionFeatureResponse = getVariationForFeatureInRollout(featureFlag, user, projectConfig, reasons);
+        decision = decisionFeatureResponse.getResult();
+
+        if (decision.variation == null) {
+            logInfo(reasons, "The user \"%s\" was not bucketed into a rollout for feature flag \"%s\".",
+                user.getUserId(), featureFlag.getKey());
+        } else {
+            logInfo(reasons, "The user \"%s\" was bucketed into a rollout for feature flag \"%s\".",
+                user.getUserId(), featureFlag.getKey());
         }
 
-        return decisions;
+        return new DecisionResponse(decision, reasons);
     }
 
     @Nonnull
@@ -385,7 +480,8 @@ public class DecisionService {
      * @param featureFlag       The feature flag the user wants to access.
      * @param user              The current OptimizelyUserContext.
      * @param options           An array of decision options
-     * @return A {@link DecisionResponse} including a {@link FeatureDecision} and the decision reasons
+     * @param reasons           The decision reasons the experiment reasons are added to
+     * @return A {@link DecisionResponse} including a {@link FeatureDecision} and the given decision reasons
      */
     @Nonnull
     DecisionResponse<FeatureDecision> getVariationFromExperiment(@Nonnull ProjectConfig projectConfig,
@@ -393,15 +489,26 @@ public class DecisionService {
                                                                  @Nonnull OptimizelyUserContext user,
                                                                  @Nonnull List<OptimizelyDecideOption> options,
                                                                  @Nullable UserProfileTracker userProfileTracker,
-                                                                 @Nonnull DecisionPath decisionPath) {
-        DecisionReasons reasons = DefaultDecisionReasons.newInstance();
-        if (!featureFlag.getExperimentIds().isEmpty()) {
-            for (String experimentId : featureFlag.getExperimentIds()) {
-                Experiment experiment = projectConfig.getExperimentIdMapping().get(experimentId);
+                                                                 @Nonnull DecisionPath decisionPath,
+                                                                 @Nonnull DecisionReasons reasons) {
+        return getVariationFromExperiment(projectConfig, projectConfig.getFlagDecisionPlan(featureFlag), user, options,
+            userProfileTracker, decisionPath, reasons);
+    }
 
+    @Nonnull
+    private DecisionResponse<FeatureDecision> getVariationFromExperiment(@Nonnull ProjectConfig projectConfig,
+                                                                         @Nonnull FlagDecisionPlan plan,
+                                                                         @Nonnull OptimizelyUserContext user,
+                                                                         @Nonnull List<OptimizelyDecideOption> options,
+                                                                         @Nullable UserProfileTracker userProfileTracker,
+                                                                         @Nonnull DecisionPath decisionPath,
+                                                                         @Nonnull DecisionReasons reasons) {
+        FeatureFlag featureFlag = plan.getFeatureFlag();
+        List<Experiment> experimentRules = plan.getExperimentRules();
+        if (!experimentRules.isEmpty()) {
+            for (Experiment experiment : experimentRules) {
                 DecisionResponse<Variation> decisionVariation =
-                    getVariationFromExperimentRule(projectConfig, featureFlag.getKey(), experiment, user, options, userProfileTracker, decisionPath);
-                reasons.merge(decisionVariation.getReasons());
+                    getVariationFromExperimentRule(projectConfig, featureFlag.getKey(), experiment, user, options, userProfileTracker, decisionPath, reasons);
                 Variation variation = decisionVariation.getResult();
                 String cmabUuid = decisionVariation.getCmabUuid();
                 boolean error = decisionVariation.isError();
@@ -421,8 +528,7 @@ public class DecisionService {
                 }
             }
         } else {
-            String message = reasons.addInfo("The feature flag \"%s\" is not used in any experiments.", featureFlag.getKey());
-            logger.info(message);
+            logInfo(reasons, "The feature flag \"%s\" is not used in any experiments.", featureFlag.getKey());
         }
 
         return new DecisionResponse(null, reasons);
@@ -443,16 +549,30 @@ public class DecisionService {
     DecisionResponse<FeatureDecision> getVariationForFeatureInRollout(@Nonnull FeatureFlag featureFlag,
                                                                       @Nonnull OptimizelyUserContext user,
                                                                       @Nonnull ProjectConfig projectConfig) {
-        DecisionReasons reasons = DefaultDecisionReasons.newInstance();
+        return getVariationForFeatureInRollout(featureFlag, user, projectConfig, DefaultDecisionReasons.newInstance());
+    }
 
+    /**
+     * Try to bucket the user into a rollout rule, adding the decision reasons to the given reasons.
+     *
+     * @param featureFlag        The feature flag the user wants to access.
+     * @param user               The current OptimizelyUserContext
+     * @param projectConfig      The current projectConfig
+     * @param reasons            The decision reasons the rollout reasons are added to
+     * @return A {@link DecisionResponse} including a {@link FeatureDecision} and the given decision reasons
+     */
+    @Nonnull
+    DecisionResponse<FeatureDecision> getVariationForFeatureInRollout(@Nonnull FeatureFlag featureFlag,
+                                                                      @Nonnull OptimizelyUserContext user,
+                                                                      @Nonnull ProjectConfig projectConfig,
+                                                                      @Nonnull DecisionReasons reasons) {
         // use rollout to get variation for feature
         if (featureFlag.getRolloutId().isEmpty()) {
-            String message = reasons.addInfo("The feature flag \"%s\" is not used in a rollout.", featureFlag.getKey());
-            logger.info(message);
+            logInfo(reasons, "The feature flag \"%s\" is not used in a rollout.", featureFlag.getKey());
             return new DecisionResponse(new FeatureDecision(null, null, null), reasons);
         }
-        Rollout rollout = projectConfig.getRolloutIdMapping().get(featureFlag.getRolloutId());
-        if (rollout == null) {
+        FlagDecisionPlan plan = projectConfig.getFlagDecisionPlan(featureFlag);
+        if (plan.getRollout() == null) {
             String message = reasons.addInfo("The rollout with id \"%s\" was not found in the datafile for feature flag \"%s\".",
                 featureFlag.getRolloutId(), featureFlag.getKey());
             logger.error(message);
@@ -460,7 +580,8 @@ public class DecisionService {
         }
 
         // for all rules before the everyone else rule
-        int rolloutRulesLength = rollout.getExperiments().size();
+        List<Experiment> rolloutRules = plan.getRolloutRules();
+        int rolloutRulesLength = rolloutRules.size();
         if (rolloutRulesLength == 0) {
             return new DecisionResponse(new FeatureDecision(null, null, null), reasons);
         }
@@ -472,17 +593,17 @@ public class DecisionService {
             DecisionResponse<AbstractMap.SimpleEntry> decisionVariationResponse = getVariationFromDeliveryRule(
                 projectConfig,
                 featureFlag.getKey(),
-                rollout.getExperiments(),
+                rolloutRules,
                 index,
-                user
+                user,
+                reasons
             );
-            reasons.merge(decisionVariationResponse.getReasons());
 
             AbstractMap.SimpleEntry<Variation, Boolean> response = decisionVariationResponse.getResult();
             Variation variation = response.getKey();
             Boolean skipToEveryoneElse = response.getValue();
             if (variation != null) {
-                Experiment rule = rollout.getExperiments().get(index);
+                Experiment rule = rolloutRules.get(index);
                 FeatureDecision featureDecision = new FeatureDecision(rule, variation, FeatureDecision.DecisionSource.ROLLOUT);
                 return new DecisionResponse(featureDecision, reasons);
             }
@@ -537,11 +658,25 @@ public class DecisionService {
     DecisionResponse<Variation> getVariationForHoldout(@Nonnull Holdout holdout,
                                                        @Nonnull OptimizelyUserContext user,
                                                        @Nonnull ProjectConfig projectConfig) {
-        DecisionReasons reasons = DefaultDecisionReasons.newInstance();
+        return getVariationForHoldout(holdout, user, projectConfig, DefaultDecisionReasons.newInstance());
+    }
 
+    /**
+     * Determines the variation for a holdout rule, adding the decision reasons to the given reasons.
+     *
+     * @param holdout The holdout rule to evaluate.
+     * @param user The user context.
+     * @param projectConfig The current project configuration.
+     * @param reasons The decision reasons the holdout reasons are added to.
+     * @return A {@link DecisionResponse} with the variation (if any) and the given reasons.
+     */
+    @Nonnull
+    DecisionResponse<Variation> getVariationForHoldout(@Nonnull Holdout holdout,
+                                                       @Nonnull OptimizelyUserContext user,
+                                                       @Nonnull ProjectConfig projectConfig,
+                                                       @Nonnull DecisionReasons reasons) {
         if (!holdout.isActive()) {
-            String message = reasons.addInfo("Holdout (%s) is not running.", holdout.getKey());
-            logger.info(message);
+            logInfo(reasons, "Holdout (%s) is not running.", holdout.getKey());
             return new DecisionResponse<>(null, reasons);
         }
 
@@ -550,26 +685,22 @@ public class DecisionService {
 
         if (decisionMeetAudience.getResult()) {
             // User meets audience conditions for holdout
-            String audienceMatchMessage = reasons.addInfo("User (%s) meets audience conditions for holdout (%s).", user.getUserId(), holdout.getKey());
-            logger.info(audienceMatchMessage);
+            logInfo(reasons, "User (%s) meets audience conditions for holdout (%s).", user.getUserId(), holdout.getKey());
 
             String bucketingId = getBucketingId(user.getUserId(), user.getAttributes());
-            DecisionResponse<Variation> decisionVariation = bucketer.bucket(holdout, bucketingId, projectConfig);
-            reasons.merge(decisionVariation.getReasons());
+            DecisionResponse<Variation> decisionVariation = bucketer.bucket(holdout, bucketingId, projectConfig, DecisionPath.WITHOUT_CMAB, reasons);
             Variation variation = decisionVariation.getResult();
 
             if (variation != null) {
-                String message = reasons.addInfo("User (%s) is in variation (%s) of holdout (%s).", user.getUserId(), variation.getKey(), holdout.getKey());
-                logger.info(message);
+                logInfo(reasons, "User (%s) is in variation (%s) of holdout (%s).", user.getUserId(), variation.getKey(), holdout.getKey());
             } else {
-                String message = reasons.addInfo("User (%s) is in no holdout variation.", user.getUserId());
-                logger.info(message);
+                logInfo(reasons, "User (%s) is in no holdout variation.", user.getUserId());
             }
             return new DecisionResponse<>(variation, reasons);
         }
 
-        String message = reasons.addInfo("User (%s) does not meet conditions for holdout (%s).", user.getUserId(), holdout.getKey());
-        logger.info(message);
+        addInfo(reasons, "User (%s) does not meet conditions for holdout (%s).", user.getUserId(), holdout.getKey());
+        decisionTracer.audienceFailed(user.getUserId(), holdout);
         return new DecisionResponse<>(null, reasons);
     }
 
@@ -616,9 +747,8 @@ public class DecisionService {
                 return new DecisionResponse(null, reasons);
             }
         } else {
-            String message = reasons.addInfo("No previously activated variation of experiment \"%s\" for user \"%s\" found in user profile.",
+            logInfo(reasons, "No previously activated variation of experiment \"%s\" for user \"%s\" found in user profile.",
                 experimentKey, userProfile.userId);
-            logger.info(message);
             return new DecisionResponse(null, reasons);
         }
     }
@@ -690,7 +820,22 @@ public class DecisionService {
      * @return Returns a DecisionResponse structure of type Variation, otherwise null result with reasons
      */
     public DecisionResponse<Variation> validatedForcedDecision(@Nonnull OptimizelyDecisionContext optimizelyDecisionContext, @Nonnull ProjectConfig projectConfig, @Nonnull OptimizelyUserContext user) {
-        DecisionReasons reasons = DefaultDecisionReasons.newInstance();
+        return validatedForcedDecision(optimizelyDecisionContext, projectConfig, user, DefaultDecisionReasons.newInstance());
+    }
+
+    /**
+     * Find a validated forced decision, adding the decision reasons to the given reasons.
+     *
+     * @param optimizelyDecisionContext The OptimizelyDecisionContext containing flagKey and ruleKey
+     * @param projectConfig             The Project config
+     * @param user                      The OptimizelyUserContext
+     * @param reasons                   The decision reasons the forced decision reasons are added to
+     * @return Returns a DecisionResponse structure of type Variation, otherwise null result with the given reasons
+     */
+    DecisionResponse<Variation> validatedForcedDecision(@Nonnull OptimizelyDecisionContext optimizelyDecisionContext,
+                                                        @Nonnull ProjectConfig projectConfig,
+                                                        @Nonnull OptimizelyUserContext user,
+                                                        @Nonnull DecisionReasons reasons) {
         String userId = user.getUserId();
         OptimizelyForcedDecision optimizelyForcedDecision = user.findForcedDecision(optimizelyDecisionContext);
         String variationKey = optimizelyForcedDecision != null ? optimizelyForcedDecision.getVariationKey() : null;
@@ -832,29 +977,53 @@ public class DecisionService {
                                                                       @Nonnull OptimizelyUserContext user,
                                                                       @Nonnull List<OptimizelyDecideOption> options,
                                                                       @Nullable UserProfileTracker userProfileTracker,
-                                                                      @Nonnull DecisionPath decisionPath) {
-        DecisionReasons reasons = DefaultDecisionReasons.newInstance();
-
+                                                                      @Nonnull DecisionPath decisionPath,
+                                                                      @Nonnull DecisionReasons reasons) {
         String ruleKey = rule != null ? rule.getKey() : null;
         // Check Forced-Decision
         OptimizelyDecisionContext optimizelyDecisionContext = new OptimizelyDecisionContext(flagKey, ruleKey);
-        DecisionResponse<Variation> forcedDecisionResponse = validatedForcedDecision(optimizelyDecisionContext, projectConfig, user);
-
-        reasons.merge(forcedDecisionResponse.getReasons());
+        DecisionResponse<Variation> forcedDecisionResponse = validatedForcedDecision(optimizelyDecisionContext, projectConfig, user, reasons);
 
         Variation variation = forcedDecisionResponse.getResult();
         if (variation != null) {
             return new DecisionResponse(variation, reasons);
         }
         //regular decision
-        DecisionResponse<Variation> decisionResponse = getVariation(rule, user, projectConfig, options, userProfileTracker, null, decisionPath);
-        reasons.merge(decisionResponse.getReasons());
+        DecisionResponse<Variation> decisionResponse = getVariation(rule, user, projectConfig, options, userProfileTracker, reasons, decisionPath);
 
         variation = decisionResponse.getResult();
 
         return new DecisionResponse<>(variation, reasons, decisionResponse.isError(), decisionResponse.getCmabUuid());
     }
 
+    /**
+     * Add an info message to the reasons. The message is only formatted when the reasons keep infos.
+     */
+    private static void addInfo(DecisionReasons reasons, String format, Object... args) {
+        if (reasons.isInfoEnabled()) {
+            reasons.addInfo(format, args);
+        }
+    }
+
+    /**
+     * Add an info message to the reasons and log it. The message is only formatted when either of them keeps it.
+     */
+    private static void logInfo(DecisionReasons reasons, String format, Object... args) {
+        if (reasons.isInfoEnabled() || logger.isInfoEnabled()) {
+            logger.info(reasons.addInfo(format, args));
+        }
+    }
+
+    /**
+     * Add an info message to the reasons and log it at debug level. The message is only formatted when either of them
+     * keeps it.
+     */
+    private static void logDebug(DecisionReasons reasons, String format, Object... args) {
+        if (reasons.isInfoEnabled() || logger.isDebugEnabled()) {
+            logger.debug(reasons.addInfo(format, args));
+        }
+    }
+
     /**
      * Helper function to check that the provided userId is valid
      *
@@ -880,15 +1049,32 @@ public class DecisionService {
                                                        @Nonnull List<Experiment> rules,
                                                        @Nonnull int ruleIndex,
                                                        @Nonnull OptimizelyUserContext user) {
-        DecisionReasons reasons = DefaultDecisionReasons.newInstance();
+        return getVariationFromDeliveryRule(projectConfig, flagKey, rules, ruleIndex, user, DefaultDecisionReasons.newInstance());
+    }
 
+    /**
+     *
+     * @param projectConfig     The Project config
+     * @param flagKey           The flag key for the feature flag
+     * @param rules             The experiments belonging to a rollout
+     * @param ruleIndex         The index of the rule
+     * @param user              The OptimizelyUserContext
+     * @param reasons           The decision reasons the rule reasons are added to
+     * @return                  Returns a DecisionResponse Object containing a AbstractMap.SimpleEntry<Variation, Boolean>
+     *                          where the Variation is the result and the Boolean is the skipToEveryoneElse.
+     */
+    DecisionResponse<AbstractMap.SimpleEntry> getVariationFromDeliveryRule(@Nonnull ProjectConfig projectConfig,
+                                                       @Nonnull String flagKey,
+                                                       @Nonnull List<Experiment> rules,
+                                                       @Nonnull int ruleIndex,
+                                                       @Nonnull OptimizelyUserContext user,
+                                                       @Nonnull DecisionReasons reasons) {
         Boolean skipToEveryoneElse = false;
         AbstractMap.SimpleEntry<Variation, Boolean> variationToSkipToEveryoneElsePair;
         // Check forced-decisions first
         Experiment rule = rules.get(ruleIndex);
         OptimizelyDecisionContext optimizelyDecisionContext = new OptimizelyDecisionContext(flagKey, rule.getKey());
-        DecisionResponse<Variation> forcedDecisionResponse = validatedForcedDecision(optimizelyDecisionContext, projectConfig, user);
-        reasons.merge(forcedDecisionResponse.getReasons());
+        DecisionResponse<Variation> forcedDecisionResponse = validatedForcedDecision(optimizelyDecisionContext, projectConfig, user, reasons);
 
         Variation variation = forcedDecisionResponse.getResult();
         if (variation != null) {
@@ -912,31 +1098,23 @@ public class DecisionService {
         );
 
         reasons.merge(audienceDecisionResponse.getReasons());
-        String message;
         if (audienceDecisionResponse.getResult()) {
-            message = reasons.addInfo("User \"%s\" meets conditions for targeting rule \"%s\".", user.getUserId(), loggingKey);
-            reasons.addInfo(message);
-            logger.debug(message);
+            logDebug(reasons, "User \"%s\" meets conditions for targeting rule \"%s\".", user.getUserId(), loggingKey);
 
-            DecisionResponse<Variation> decisionResponse = bucketer.bucket(rule, bucketingId, projectConfig);
-            reasons.merge(decisionResponse.getReasons());
+            DecisionResponse<Variation> decisionResponse = bucketer.bucket(rule, bucketingId, projectConfig, DecisionPath.WITHOUT_CMAB, reasons);
             bucketedVariation = decisionResponse.getResult();
 
             if (bucketedVariation != null) {
-                message = reasons.addInfo("User \"%s\" bucketed for targeting rule \"%s\".", user.getUserId(), loggingKey);
-                logger.debug(message);
-                reasons.addInfo(message);
+                logDebug(reasons, "User \"%s\" bucketed for targeting rule \"%s\".", user.getUserId(), loggingKey);
             } else if (!everyoneElse) {
-                message = reasons.addInfo("User \"%s\" is not bucketed for targeting rule \"%s\".", user.getUserId(), loggingKey);
-                logger.debug(message);
-                reasons.addInfo(message);
+                addInfo(reasons, "User \"%s\" is not bucketed for targeting rule \"%s\".", user.getUserId(), loggingKey);
+                decisionTracer.rolloutFallthrough(user.getUserId(), loggingKey);
                 // Skip the rest of rollout rules to the everyone-else rule if audience matches but not bucketed.
                 skipToEveryoneElse = true;
             }
         } else {
-            message = reasons.addInfo("User \"%s\" does not meet conditions for targeting rule \"%d\".", user.getUserId(), ruleIndex + 1);
-            reasons.addInfo(message);
-            logger.debug(message);
+            addInfo(reasons, "User \"%s\" does not meet conditions for targeting rule \"%d\".", user.getUserId(), ruleIndex + 1);
+            decisionTracer.ruleAudienceFailed(user.getUserId(), ruleIndex + 1);
         }
         variationToSkipToEveryoneElsePair = new AbstractMap.SimpleEntry<>(bucketedVariation, skipToEveryoneElse);
         return new DecisionResponse(variationToSkipToEveryoneElsePair, reasons);
@@ -0,0 +1,104 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.bucketing;
+
+import com.optimizely.ab.config.ExperimentCore;
+import com.optimizely.ab.config.Group;
+import com.optimizely.ab.config.Variation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Receives typed events from the {@link Bucketer} and the {@link DecisionService} while a decision is made.
+ * <p>
+ * All methods default to doing nothing, so an implementation only needs to override the events it is interested in.
+ * Events carry the decision objects rather than formatted messages, so a tracer only pays for formatting when it
+ * actually records an event.
+ *
+ * @see Slf4jDecisionTracer
+ * @see NoOpDecisionTracer
+ */
+public interface DecisionTracer {
+
+    /**
+     * The user was bucketed into the given experiment of a mutually exclusive group.
+     *
+     * @param bucketingId The bucketing id of the user.
+     * @param group       The group the experiment belongs to.
+     * @param experiment  The experiment the user was bucketed into.
+     */
+    default void inGroup(@Nonnull String bucketingId, @Nonnull Group group, @Nonnull ExperimentCore experiment) {
+    }
+
+    /**
+     * The user was not bucketed into the given experiment of a mutually exclusive group.
+     *
+     * @param bucketingId The bucketing id of the user.
+     * @param group       The group the experiment belongs to.
+     * @param experiment  The experiment being decided, or null if the user is not in any experiment of the group.
+     */
+    default void notInGroup(@Nonnull String bucketingId, @Nonnull Group group, @Nullable ExperimentCore experiment) {
+    }
+
+    /**
+     * The user was bucketed by traffic allocation.
+     *
+     * @param bucketingId The bucketing id of the user.
+     * @param experiment  The experiment, rule or holdout being bucketed.
+     * @param variation   The variation the user was bucketed into, or null if the user is not in any variation.
+     */
+    default void bucketed(@Nonnull String bucketingId, @Nonnull ExperimentCore experiment, @Nullable Variation variation) {
+    }
+
+    /**
+     * The user was bucketed into the traffic allocation of a CMAB experiment.
+     *
+     * @param bucketingId The bucketing id of the user.
+     * @param experiment  The CMAB experiment.
+     */
+    default void bucketedIntoCmab(@Nonnull String bucketingId, @Nonnull ExperimentCore experiment) {
+    }
+
+    /**
+     * The user did not meet the audience conditions of an experiment or holdout.
+     *
+     * @param userId     The id of the user.
+     * @param experiment The experiment or holdout.
+     */
+    default void audienceFailed(@Nonnull String userId, @Nonnull ExperimentCore experiment) {
+    }
+
+    /**
+     * The user did not meet the audience conditions of a rollout targeting rule.
+     *
+     * @param userId     The id of the user.
+     * @param ruleNumber The one-based position of the rule in the rollout.
+     */
+    default void ruleAudienceFailed(@Nonnull String userId, int ruleNumber) {
+    }
+
+    /**
+     * The user met the audience conditions of a rollout targeting rule but was not bucketed, so the remaining rules
+     * are skipped in favor of the "Everyone Else" rule.
+     *
+     * @param userId    The id of the user.
+     * @param ruleLabel The label of the rule, its one-based position in the rollout.
+     */
+    default void rolloutFallthrough(@Nonnull String userId, @Nonnull String ruleLabel) {
+    }
+}
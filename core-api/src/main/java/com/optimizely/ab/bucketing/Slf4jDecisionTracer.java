@@ -0,0 +1,89 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.bucketing;
+
+import com.optimizely.ab.config.ExperimentCore;
+import com.optimizely.ab.config.Group;
+import com.optimizely.ab.config.Holdout;
+import com.optimizely.ab.config.Variation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * {@link DecisionTracer} that logs decision events through SLF4J, using the loggers of the {@link Bucketer} and the
+ * {@link DecisionService}. Messages are only formatted when the corresponding log level is enabled.
+ */
+public class Slf4jDecisionTracer implements DecisionTracer {
+
+    private static final Logger bucketerLogger = LoggerFactory.getLogger(Bucketer.class);
+    private static final Logger decisionLogger = LoggerFactory.getLogger(DecisionService.class);
+
+    @Override
+    public void inGroup(@Nonnull String bucketingId, @Nonnull Group group, @Nonnull ExperimentCore experiment) {
+        bucketerLogger.info("User with bucketingId \"{}\" is in experiment \"{}\" of group {}.",
+            bucketingId, experiment.getKey(), group.getId());
+    }
+
+    @Override
+    public void notInGroup(@Nonnull String bucketingId, @Nonnull Group group, @Nullable ExperimentCore experiment) {
+        if (experiment == null) {
+            bucketerLogger.info("User with bucketingId \"{}\" is not in any experiment of group {}.", bucketingId, group.getId());
+        } else {
+            bucketerLogger.info("User with bucketingId \"{}\" is not in experiment \"{}\" of group {}.",
+                bucketingId, experiment.getKey(), group.getId());
+        }
+    }
+
+    @Override
+    public void bucketed(@Nonnull String bucketingId, @Nonnull ExperimentCore experiment, @Nullable Variation variation) {
+        if (variation == null) {
+            bucketerLogger.info("User with bucketingId \"{}\" is not in any variation of experiment \"{}\".",
+                bucketingId, experiment.getKey());
+        } else {
+            bucketerLogger.info("User with bucketingId \"{}\" is in variation \"{}\" of experiment \"{}\".",
+                bucketingId, variation.getKey(), experiment.getKey());
+        }
+    }
+
+    @Override
+    public void bucketedIntoCmab(@Nonnull String bucketingId, @Nonnull ExperimentCore experiment) {
+        bucketerLogger.info("User with bucketingId \"{}\" is bucketed into CMAB for experiment \"{}\"",
+            bucketingId, experiment.getKey());
+    }
+
+    @Override
+    public void audienceFailed(@Nonnull String userId, @Nonnull ExperimentCore experiment) {
+        if (experiment instanceof Holdout) {
+            decisionLogger.info("User ({}) does not meet conditions for holdout ({}).", userId, experiment.getKey());
+        } else {
+            decisionLogger.info("User \"{}\" does not meet conditions to be in experiment \"{}\".", userId, experiment.getKey());
+        }
+    }
+
+    @Override
+    public void ruleAudienceFailed(@Nonnull String userId, int ruleNumber) {
+        decisionLogger.debug("User \"{}\" does not meet conditions for targeting rule \"{}\".", userId, ruleNumber);
+    }
+
+    @Override
+    public void rolloutFallthrough(@Nonnull String userId, @Nonnull String ruleLabel) {
+        decisionLogger.debug("User \"{}\" is not bucketed for targeting rule \"{}\".", userId, ruleLabel);
+    }
+}
@@ -22,8 +22,8 @@ import com.optimizely.ab.error.ErrorHandler;
 import com.optimizely.ab.optimizelydecision.DecisionReasons;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 
@@ -31,7 +31,7 @@ class UserProfileTracker {
     private UserProfileService userProfileService;
     private Logger logger;
     private UserProfile userProfile;
-    private boolean profileUpdated;
+    private volatile boolean profileUpdated;
     private String userId;
 
     UserProfileTracker(
@@ -57,7 +57,8 @@ class UserProfileTracker {
                 String message = reasons.addInfo("We were unable to get a user profile map from the UserProfileService.");
                 logger.info(message);
             } else if (UserProfileUtils.isValidUserProfileMap(userProfileMap)) {
-                userProfile = UserProfileUtils.convertMapToUserProfile(userProfileMap);
+                UserProfile storedProfile = UserProfileUtils.convertMapToUserProfile(userProfileMap);
+                userProfile = new UserProfile(storedProfile.userId, new ConcurrentHashMap<>(storedProfile.experimentBucketMap));
             } else {
                 String message = reasons.addInfo("The UserProfileService returned an invalid map.");
                 logger.warn(message);
@@ -69,7 +70,7 @@ class UserProfileTracker {
         }
 
         if (userProfile == null) {
-            userProfile = new UserProfile(userId, new HashMap<String, Decision>());
+            userProfile = new UserProfile(userId, new ConcurrentHashMap<String, Decision>());
         }
     }
 
@@ -77,14 +78,8 @@ class UserProfileTracker {
                                   @Nonnull Variation variation) {
         String experimentId = experiment.getId();
         String variationId = variation.getId();
-        Decision decision;
-        if (userProfile.experimentBucketMap.containsKey(experimentId)) {
-            decision = userProfile.experimentBucketMap.get(experimentId);
-            decision.variationId = variationId;
-        } else {
-            decision = new Decision(variationId);
-        }
-        userProfile.experimentBucketMap.put(experimentId, decision);
+        // flags may be decided concurrently, so replace the decision rather than updating a shared one in place
+        userProfile.experimentBucketMap.put(experimentId, new Decision(variationId));
         profileUpdated = true;
         logger.info("Updated variation \"{}\" of experiment \"{}\" for user \"{}\".",
             variationId, experimentId, userProfile.userId);
@@ -96,12 +96,37 @@ public final class MurmurHash3 {
      * the string to a temporary buffer
      */
     public static int murmurhash3_x86_32(CharSequence data, int offset, int len, int seed) {
+        return murmurhash3_x86_32(data, "", offset, len, seed);
+    }
+
+    /**
+     * Hashes the UTF-8 bytes of two concatenated char sequences without building the concatenated String.
+     * <p>
+     * A null segment is hashed as {@code "null"}, the same as {@code first + second} would produce.
+     *
+     * @param first  the leading segment (e.g. the bucketing id)
+     * @param second the trailing segment (e.g. the experiment or group id used as salt)
+     * @param seed   the murmur hash seed
+     * @return the MurmurHash3_x86_32 hash of the UTF-8 bytes of {@code first + second}
+     */
+    public static int murmurhash3_x86_32(CharSequence first, CharSequence second, int seed) {
+        if (first == null) {
+            first = "null";
+        }
+        if (second == null) {
+            second = "null";
+        }
+        return murmurhash3_x86_32(first, second, 0, first.length() + second.length(), seed);
+    }
+
+    private static int murmurhash3_x86_32(CharSequence first, CharSequence second, int offset, int len, int seed) {
 
         final int c1 = 0xcc9e2d51;
         final int c2 = 0x1b873593;
 
         int h1 = seed;
 
+        int firstLength = first.length();
         int pos = offset;
         int end = offset + len;
         int k1 = 0;
@@ -112,7 +137,7 @@ public final class MurmurHash3 {
 
 
         while (pos < end) {
-            int code = data.charAt(pos++);
+            int code = charAt(first, second, firstLength, pos++);
             if (code < 0x80) {
                 k2 = code;
                 bits = 8;
@@ -153,7 +178,7 @@ public final class MurmurHash3 {
             } else {
                 // surrogate pair
                 // int utf32 = pos < end ? (int) data.charAt(pos++) : 0;
-                int utf32 = (int) data.charAt(pos++);
+                int utf32 = charAt(first, second, firstLength, pos++);
                 utf32 = ((code - 0xD7C0) << 10) + (utf32 & 0x3FF);
                 k2 = (0xff & (0xF0 | (utf32 >> 18)))
                     | ((0x80 | ((utf32 >> 12) & 0x3F))) << 8
@@ -213,4 +238,8 @@ public final class MurmurHash3 {
 
         return h1;
     }
-}
\ No newline at end of file
+
+    private static char charAt(CharSequence first, CharSequence second, int firstLength, int index) {
+        return index < firstLength ? first.charAt(index) : second.charAt(index - firstLength);
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright 2026, Optimizely
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.optimizely.ab.cmab.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link CmabClient} that collects concurrent prediction requests over a short window and sends them together
+ * through {@link CmabClient#fetchDecisions(List)} of the delegate client.
+ *
+ * The prediction endpoint embeds the rule id, so requests are batched per rule, and the batches of different rules
+ * are sent independently. A request is sent right away when no other batch of its rule is being sent, so a lone
+ * request is never delayed. While a batch is outstanding, new requests of the rule are collected: the first of them
+ * waits until the outstanding batches complete, the batch window expires or the batch is full, and then fetches the
+ * whole batch on its thread. Other requests of the batch wait for their prediction.
+ */
+public class BatchingCmabClient implements CmabClient {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 20;
+    public static final long DEFAULT_BATCH_WINDOW_MILLIS = 5;
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingCmabClient.class);
+
+    private final CmabClient delegate;
+    private final int maxBatchSize;
+    private final long batchWindowNanos;
+
+    private final Object lock = new Object();
+    // guarded by lock, only rules with a collecting or outstanding batch
+    private final Map<String, RuleBatches> ruleBatches = new HashMap<>();
+
+    public BatchingCmabClient(CmabClient delegate) {
+        this(delegate, DEFAULT_MAX_BATCH_SIZE, DEFAULT_BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param delegate     The client sending the batched prediction requests
+     * @param maxBatchSize The max number of prediction requests sent together
+     * @param batchWindow  The max time the first request of a batch waits for others
+     * @param unit         The time unit of the batch window
+     */
+    public BatchingCmabClient(CmabClient delegate, int maxBatchSize, long batchWindow, TimeUnit unit) {
+        if (maxBatchSize <= 0) {
+            logger.warn("Invalid CMAB max batch size {}, using default {}", maxBatchSize, DEFAULT_MAX_BATCH_SIZE);
+            maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        }
+        if (batchWindow < 0) {
+            logger.warn("Invalid CMAB batch window {}, using default {} ms", batchWindow, DEFAULT_BATCH_WINDOW_MILLIS);
+            batchWindow = DEFAULT_BATCH_WINDOW_MILLIS;
+            unit = TimeUnit.MILLISECONDS;
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.batchWindowNanos = unit.toNanos(batchWindow);
+    }
+
+    @Override
+    public String fetchDecision(String ruleId, String userId, Map<String, Object> attributes, String cmabUuid) {
+        PendingPrediction prediction = new PendingPrediction(new CmabPredictionRequest(ruleId, userId, attributes, cmabUuid));
+
+        RuleBatches rule;
+        Batch batch;
+        boolean firstInBatch;
+        Batch readyBatch = null;
+        synchronized (lock) {
+            rule = ruleBatches.computeIfAbsent(ruleId, RuleBatches::new);
+            batch = rule.currentBatch;
+            batch.predictions.add(prediction);
+            firstInBatch = batch.predictions.size() == 1;
+            // a lone request has nothing to share a batch with, so it does not wait for a window
+            boolean alone = firstInBatch && rule.outstandingBatches == 0;
+            if (alone || batch.predictions.size() >= maxBatchSize) {
+                readyBatch = sealCurrentBatch(rule);
+            }
+        }
+
+        if (readyBatch != null) {
+            send(rule, readyBatch);
+        } else if (firstInBatch) {
+            Batch windowBatch = awaitBatchWindow(rule, batch);
+            if (windowBatch != null) {
+                send(rule, windowBatch);
+            }
+        }
+
+        try {
+            return prediction.variationId.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public List<CompletableFuture<String>> fetchDecisions(List<CmabPredictionRequest> requests) {
+        return delegate.fetchDecisions(requests);
+    }
+
+    /**
+     * Wait for the batch window of the given batch to close, or for the outstanding batches of its rule to complete.
+     *
+     * @return The batch to send, or null if a request filling it up has already sent it
+     */
+    private Batch awaitBatchWindow(RuleBatches rule, Batch batch) {
+        synchronized (lock) {
+            long deadline = System.nanoTime() + batchWindowNanos;
+            while (!batch.sealed && rule.outstandingBatches > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (batch.sealed) {
+                return null;
+            }
+            return sealCurrentBatch(rule);
+        }
+    }
+
+    // must hold lock
+    private Batch sealCurrentBatch(RuleBatches rule) {
+        Batch batch = rule.currentBatch;
+        batch.sealed = true;
+        rule.outstandingBatches++;
+        rule.currentBatch = new Batch();
+        lock.notifyAll();
+        return batch;
+    }
+
+    private void send(RuleBatches rule, Batch batch) {
+        List<CmabPredictionRequest> requests = new ArrayList<>(batch.predictions.size());
+        for (PendingPrediction prediction : batch.predictions) {
+            requests.add(prediction.request);
+        }
+
+        try {
+            List<CompletableFuture<String>> variationIds = delegate.fetchDecisions(requests);
+            if (variationIds == null || variationIds.size() != requests.size()) {
+                throw new CmabInvalidResponseException(CmabClientHelper.INVALID_CMAB_FETCH_RESPONSE);
+            }
+            for (int i = 0; i < requests.size(); i++) {
+                CompletableFuture<String> variationId = batch.predictions.get(i).variationId;
+                if (variationIds.get(i) == null) {
+                    variationId.completeExceptionally(new CmabInvalidResponseException(CmabClientHelper.INVALID_CMAB_FETCH_RESPONSE));
+                    continue;
+                }
+                variationIds.get(i).whenComplete((id, e) -> {
+                    if (e != null) {
+                        variationId.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+                    } else {
+                        variationId.complete(id);
+                    }
+                });
+            }
+        } catch (Throwable e) {
+            for (PendingPrediction prediction : batch.predictions) {
+                prediction.variationId.completeExceptionally(e);
+            }
+        } finally {
+            synchronized (lock) {
+                rule.outstandingBatches--;
+                if (rule.outstandingBatches == 0 && rule.currentBatch.predictions.isEmpty()) {
+                    ruleBatches.remove(rule.ruleId);
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * The batches of one rule.
+     */
+    private static class RuleBatches {
+        final String ruleId;
+        Batch currentBatch = new Batch();
+        int outstandingBatches;
+
+        RuleBatches(String ruleId) {
+            this.ruleId = ruleId;
+        }
+    }
+
+    private static class Batch {
+        final List<PendingPrediction> predictions = new ArrayList<>();
+        boolean sealed;
+    }
+
+    private static class PendingPrediction {
+        final CmabPredictionRequest request;
+        final CompletableFuture<String> variationId = new CompletableFuture<>();
+
+        PendingPrediction(CmabPredictionRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -15,7 +15,10 @@
  */
 package com.optimizely.ab.cmab.client;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface CmabClient {
     /**
@@ -28,4 +31,28 @@ public interface CmabClient {
      * @return CompletableFuture containing the variation ID as a String
      */
     String fetchDecision(String ruleId, String userId, Map<String, Object> attributes, String cmabUuid);
+
+    /**
+     * Fetches decisions for several prediction requests.
+     *
+     * The default implementation fetches them one by one. Clients that can send several instances in one
+     * prediction call override this.
+     *
+     * @param requests The prediction requests
+     * @return A future per request, in the order of the requests, completed with its variation ID or exceptionally
+     * when the prediction call of that request failed
+     */
+    default List<CompletableFuture<String>> fetchDecisions(List<CmabPredictionRequest> requests) {
+        List<CompletableFuture<String>> variationIds = new ArrayList<>(requests.size());
+        for (CmabPredictionRequest request : requests) {
+            CompletableFuture<String> variationId = new CompletableFuture<>();
+            try {
+                variationId.complete(fetchDecision(request.getRuleId(), request.getUserId(), request.getAttributes(), request.getCmabUuid()));
+            } catch (RuntimeException e) {
+                variationId.completeExceptionally(e);
+            }
+            variationIds.add(variationId);
+        }
+        return variationIds;
+    }
 }
@@ -15,6 +15,8 @@
  */
 package com.optimizely.ab.cmab.client;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -27,7 +29,34 @@ public class CmabClientHelper {
 
     public static String buildRequestJson(String userId, String ruleId, Map<String, Object> attributes, String cmabUuid) {
         StringBuilder json = new StringBuilder();
-        json.append("{\"instances\":[{");
+        json.append("{\"instances\":[");
+        appendInstance(json, userId, ruleId, attributes, cmabUuid);
+        json.append("]}");
+        return json.toString();
+    }
+
+    /**
+     * Build one prediction request with an instance per request, in order.
+     *
+     * @param requests The prediction requests
+     * @return The request body
+     */
+    public static String buildBatchRequestJson(List<CmabPredictionRequest> requests) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"instances\":[");
+        for (int i = 0; i < requests.size(); i++) {
+            if (i > 0) {
+                json.append(",");
+            }
+            CmabPredictionRequest request = requests.get(i);
+            appendInstance(json, request.getUserId(), request.getRuleId(), request.getAttributes(), request.getCmabUuid());
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    private static void appendInstance(StringBuilder json, String userId, String ruleId, Map<String, Object> attributes, String cmabUuid) {
+        json.append("{");
         json.append("\"visitorId\":\"").append(escapeJson(userId)).append("\",");
         json.append("\"experimentId\":\"").append(escapeJson(ruleId)).append("\",");
         json.append("\"cmabUUID\":\"").append(escapeJson(cmabUuid)).append("\",");
@@ -44,8 +73,7 @@ public class CmabClientHelper {
             first = false;
         }
 
-        json.append("]}]}");
-        return json.toString();
+        json.append("]}");
     }
 
     private static String escapeJson(String value) {
@@ -81,6 +109,31 @@ public class CmabClientHelper {
         throw new CmabInvalidResponseException(INVALID_CMAB_FETCH_RESPONSE);
     }
 
+    /**
+     * Parse the variation id of every prediction, in the order of the request instances.
+     *
+     * @param jsonResponse The response body
+     * @param expectedCount The number of instances in the request
+     * @return The variation ids
+     */
+    public static List<String> parseVariationIds(String jsonResponse, int expectedCount) {
+        int predictionsIndex = jsonResponse.indexOf("\"predictions\"");
+        if (predictionsIndex < 0) {
+            throw new CmabInvalidResponseException(INVALID_CMAB_FETCH_RESPONSE);
+        }
+
+        List<String> variationIds = new ArrayList<>(expectedCount);
+        Matcher matcher = VARIATION_ID_PATTERN.matcher(jsonResponse);
+        matcher.region(predictionsIndex, jsonResponse.length());
+        while (matcher.find()) {
+            variationIds.add(matcher.group(1));
+        }
+        if (variationIds.size() != expectedCount) {
+            throw new CmabInvalidResponseException(INVALID_CMAB_FETCH_RESPONSE);
+        }
+        return variationIds;
+    }
+
     private static String parseVariationIdForValidation(String jsonResponse) {
         Matcher matcher = VARIATION_ID_PATTERN.matcher(jsonResponse);
         if (matcher.find()) {
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2026, Optimizely
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.optimizely.ab.cmab.client;
+
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A single CMAB prediction request, one instance of a prediction call.
+ */
+@Immutable
+public final class CmabPredictionRequest {
+    private final String ruleId;
+    private final String userId;
+    private final Map<String, Object> attributes;
+    private final String cmabUuid;
+
+    public CmabPredictionRequest(String ruleId, String userId, Map<String, Object> attributes, String cmabUuid) {
+        this.ruleId = ruleId;
+        this.userId = userId;
+        this.attributes = attributes;
+        this.cmabUuid = cmabUuid;
+    }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    public String getCmabUuid() {
+        return cmabUuid;
+    }
+
+    @Override
+    public String toString() {
+        return "CmabPredictionRequest{" +
+            "ruleId='" + ruleId + '\'' +
+            ", userId='" + userId + '\'' +
+            ", cmabUuid='" + cmabUuid + '\'' +
+            '}';
+    }
+}
@@ -21,11 +21,17 @@ public class CmabCacheValue {
     private final String attributesHash;
     private final String variationId;
     private final String cmabUuid;
+    private final long fetchedAtMillis;
 
     public CmabCacheValue(String attributesHash, String variationId, String cmabUuid) {
+        this(attributesHash, variationId, cmabUuid, System.currentTimeMillis());
+    }
+
+    public CmabCacheValue(String attributesHash, String variationId, String cmabUuid, long fetchedAtMillis) {
         this.attributesHash = attributesHash;
         this.variationId = variationId;
         this.cmabUuid = cmabUuid;
+        this.fetchedAtMillis = fetchedAtMillis;
     }
 
     public String getAttributesHash() {
@@ -40,6 +46,13 @@ public class CmabCacheValue {
         return cmabUuid;
     }
 
+    /**
+     * @return The time the decision was fetched, in epoch milliseconds. Not part of equality.
+     */
+    public long getFetchedAtMillis() {
+        return fetchedAtMillis;
+    }
+
     @Override
     public String toString() {
         return "CmabCacheValue{" +
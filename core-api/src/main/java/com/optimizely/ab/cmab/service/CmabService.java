@@ -16,6 +16,7 @@
 package com.optimizely.ab.cmab.service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.optimizely.ab.OptimizelyUserContext;
 import com.optimizely.ab.config.ProjectConfig;
@@ -28,7 +29,7 @@ public interface CmabService {
      * @param userContext   the user context
      * @param ruleId        the rule identifier
      * @param options       list of decide options
-     * @return CompletableFuture containing the CMAB decision
+     * @return the CMAB decision
      */
     CmabDecision getDecision(
         ProjectConfig projectConfig,
@@ -36,4 +37,30 @@ public interface CmabService {
         String ruleId,
         List<OptimizelyDecideOption> options
     );
+
+    /**
+     * Get variation id for the user without waiting for the CMAB prediction.
+     *
+     * The default implementation decides on the calling thread and returns a completed future.
+     *
+     * @param projectConfig the project configuration
+     * @param userContext   the user context
+     * @param ruleId        the rule identifier
+     * @param options       list of decide options
+     * @return CompletableFuture containing the CMAB decision
+     */
+    default CompletableFuture<CmabDecision> getDecisionAsync(
+        ProjectConfig projectConfig,
+        OptimizelyUserContext userContext,
+        String ruleId,
+        List<OptimizelyDecideOption> options
+    ) {
+        CompletableFuture<CmabDecision> decisionFuture = new CompletableFuture<>();
+        try {
+            decisionFuture.complete(getDecision(projectConfig, userContext, ruleId, options));
+        } catch (RuntimeException e) {
+            decisionFuture.completeExceptionally(e);
+        }
+        return decisionFuture;
+    }
 }
@@ -19,99 +19,235 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.optimizely.ab.OptimizelyUserContext;
-import com.optimizely.ab.bucketing.internal.MurmurHash3;
 import com.optimizely.ab.cmab.client.CmabClient;
 import com.optimizely.ab.config.Attribute;
 import com.optimizely.ab.config.Experiment;
 import com.optimizely.ab.config.ProjectConfig;
-import com.optimizely.ab.event.internal.ClientEngineInfo;
 import com.optimizely.ab.internal.Cache;
-import com.optimizely.ab.internal.DefaultLRUCache;
+import com.optimizely.ab.internal.CacheStats;
+import com.optimizely.ab.internal.ConcurrentLRUCache;
 import com.optimizely.ab.optimizelydecision.OptimizelyDecideOption;
 
+/**
+ * {@link CmabService} that caches CMAB decisions per user and rule.
+ *
+ * Cache misses are single-flight: concurrent requests for the same user, rule and attributes share one in-flight
+ * fetch, while requests for other keys never wait on it. Fetches run on the optional executor, or on the thread of
+ * the request that started them when no executor is set.
+ *
+ * With a refresh-after period, a cached decision older than that period is still served and a fetch on the bounded
+ * refresh executor replaces it in the background, so returning users do not wait for the prediction endpoint when
+ * their entry is about to expire.
+ */
 public class DefaultCmabService implements CmabService {
     public static final int DEFAULT_CMAB_CACHE_SIZE = 10000;
     public static final int DEFAULT_CMAB_CACHE_TIMEOUT_SECS = 30*60; // 30 minutes
-    private static final boolean IS_ANDROID = ClientEngineInfo.getClientEngineName().toLowerCase().contains("android");
-    private static final int NUM_LOCK_STRIPES = IS_ANDROID ? 100 : 1000;
-    
+    public static final int DEFAULT_CMAB_REFRESH_QUEUE_CAPACITY = 1000;
+
+    private static final long FNV_64_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_64_PRIME = 0x100000001b3L;
+
     private final Cache<CmabCacheValue> cmabCache;
     private final CmabClient cmabClient;
     private final Logger logger;
-    private final ReentrantLock[] locks;
+    @Nullable
+    private final Executor fetchExecutor;
+    private final long refreshAfterMillis;
+    @Nullable
+    private final Executor refreshExecutor;
+    // fetches in flight, keyed by user, rule and attributes hash
+    private final Map<FetchKey, CompletableFuture<CmabDecision>> inFlightFetches = new ConcurrentHashMap<>();
 
     public DefaultCmabService(CmabClient cmabClient, Cache<CmabCacheValue> cmabCache) {
         this(cmabClient, cmabCache, null);
     }
 
     public DefaultCmabService(CmabClient cmabClient, Cache<CmabCacheValue> cmabCache, Logger logger) {
+        this(cmabClient, cmabCache, logger, null);
+    }
+
+    public DefaultCmabService(CmabClient cmabClient, Cache<CmabCacheValue> cmabCache, Logger logger, @Nullable Executor fetchExecutor) {
+        this(cmabClient, cmabCache, logger, fetchExecutor, 0, null);
+    }
+
+    /**
+     * @param cmabClient         The client fetching CMAB decisions
+     * @param cmabCache          The cache of CMAB decisions
+     * @param logger             The logger, or null for the default
+     * @param fetchExecutor      The executor for fetches on a cache miss, or null to fetch on the calling thread
+     * @param refreshAfterMillis The age after which a cached decision is refreshed in the background, 0 to disable
+     * @param refreshExecutor    The executor for background refreshes, required when refreshAfterMillis is set
+     */
+    public DefaultCmabService(CmabClient cmabClient,
+                              Cache<CmabCacheValue> cmabCache,
+                              Logger logger,
+                              @Nullable Executor fetchExecutor,
+                              long refreshAfterMillis,
+                              @Nullable Executor refreshExecutor) {
         this.cmabCache = cmabCache;
         this.cmabClient = cmabClient;
         this.logger = logger != null ? logger : LoggerFactory.getLogger(DefaultCmabService.class);
-        this.locks = new ReentrantLock[NUM_LOCK_STRIPES];
-        for (int i = 0; i < NUM_LOCK_STRIPES; i++) {
-            this.locks[i] = new ReentrantLock();
-        }
+        this.fetchExecutor = fetchExecutor;
+        this.refreshAfterMillis = refreshExecutor != null ? refreshAfterMillis : 0;
+        this.refreshExecutor = refreshExecutor;
     }
 
     @Override
     public CmabDecision getDecision(ProjectConfig projectConfig, OptimizelyUserContext userContext, String ruleId, List<OptimizelyDecideOption> options) {
+        try {
+            return getDecisionAsync(projectConfig, userContext, ruleId, options).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<CmabDecision> getDecisionAsync(ProjectConfig projectConfig, OptimizelyUserContext userContext, String ruleId, List<OptimizelyDecideOption> options) {
         options = options == null ? Collections.emptyList() : options;
         String userId = userContext.getUserId();
 
-        int lockIndex = getLockIndex(userId, ruleId);
-        ReentrantLock lock = locks[lockIndex];
-        lock.lock();
-        try {
-            Map<String, Object> filteredAttributes = filterAttributes(projectConfig, userContext, ruleId);
+        Map<String, Object> filteredAttributes = filterAttributes(projectConfig, userContext, ruleId);
 
-            if (options.contains(OptimizelyDecideOption.IGNORE_CMAB_CACHE)) {
-                logger.debug("Ignoring CMAB cache for user '{}' and rule '{}'", userId, ruleId);
-                return fetchDecision(ruleId, userId, filteredAttributes);
-            }
+        if (options.contains(OptimizelyDecideOption.IGNORE_CMAB_CACHE)) {
+            logger.debug("Ignoring CMAB cache for user '{}' and rule '{}'", userId, ruleId);
+            CompletableFuture<CmabDecision> decisionFuture = new CompletableFuture<>();
+            runFetch(() -> {
+                try {
+                    decisionFuture.complete(fetchDecision(ruleId, userId, filteredAttributes));
+                } catch (Throwable e) {
+                    decisionFuture.completeExceptionally(e);
+                }
+            });
+            return decisionFuture;
+        }
 
-            if (options.contains(OptimizelyDecideOption.RESET_CMAB_CACHE)) {
-                logger.debug("Resetting CMAB cache for user '{}' and rule '{}'", userId, ruleId);
-                cmabCache.reset();
-            }
+        if (options.contains(OptimizelyDecideOption.RESET_CMAB_CACHE)) {
+            logger.debug("Resetting CMAB cache for user '{}' and rule '{}'", userId, ruleId);
+            cmabCache.reset();
+        }
 
-            String cacheKey = getCacheKey(userContext.getUserId(), ruleId);
-            if (options.contains(OptimizelyDecideOption.INVALIDATE_USER_CMAB_CACHE)) {
-                logger.debug("Invalidating CMAB cache for user '{}' and rule '{}'", userId, ruleId);
-                cmabCache.remove(cacheKey);
-            }
+        String cacheKey = getCacheKey(userId, ruleId);
+        if (options.contains(OptimizelyDecideOption.INVALIDATE_USER_CMAB_CACHE)) {
+            logger.debug("Invalidating CMAB cache for user '{}' and rule '{}'", userId, ruleId);
+            cmabCache.remove(cacheKey);
+        }
 
-            CmabCacheValue cachedValue = cmabCache.lookup(cacheKey);
+        CmabCacheValue cachedValue = cmabCache.lookup(cacheKey);
 
-            String attributesHash = hashAttributes(filteredAttributes);
+        String attributesHash = hashAttributes(filteredAttributes);
 
-            if (cachedValue != null) {
-                if (cachedValue.getAttributesHash().equals(attributesHash)) {
-                    logger.debug("CMAB cache hit for user '{}' and rule '{}'", userId, ruleId);
-                    return new CmabDecision(cachedValue.getVariationId(), cachedValue.getCmabUuid());
-                } else {
-                    logger.debug("CMAB cache attributes mismatch for user '{}' and rule '{}', fetching new decision", userId, ruleId);
-                    cmabCache.remove(cacheKey);
+        if (cachedValue != null) {
+            if (cachedValue.getAttributesHash().equals(attributesHash)) {
+                logger.debug("CMAB cache hit for user '{}' and rule '{}'", userId, ruleId);
+                if (refreshAfterMillis > 0 && System.currentTimeMillis() - cachedValue.getFetchedAtMillis() >= refreshAfterMillis) {
+                    refreshDecision(cacheKey, new FetchKey(userId, ruleId, attributesHash), filteredAttributes);
                 }
+                return CompletableFuture.completedFuture(new CmabDecision(cachedValue.getVariationId(), cachedValue.getCmabUuid()));
             } else {
-                logger.debug("CMAB cache miss for user '{}' and rule '{}'", userId, ruleId);
+                logger.debug("CMAB cache attributes mismatch for user '{}' and rule '{}', fetching new decision", userId, ruleId);
+                cmabCache.remove(cacheKey);
+            }
+        } else {
+            logger.debug("CMAB cache miss for user '{}' and rule '{}'", userId, ruleId);
+        }
+
+        FetchKey fetchKey = new FetchKey(userId, ruleId, attributesHash);
+        CompletableFuture<CmabDecision> decisionFuture = new CompletableFuture<>();
+        CompletableFuture<CmabDecision> inFlightFetch = inFlightFetches.putIfAbsent(fetchKey, decisionFuture);
+        if (inFlightFetch != null) {
+            logger.debug("Joining in-flight CMAB fetch for user '{}' and rule '{}'", userId, ruleId);
+            return inFlightFetch;
+        }
+
+        runFetch(cachingFetch(cacheKey, fetchKey, filteredAttributes, decisionFuture));
+        return decisionFuture;
+    }
+
+    /**
+     * Start a background fetch replacing the cached decision, unless one is already in flight.
+     */
+    private void refreshDecision(String cacheKey, FetchKey fetchKey, Map<String, Object> attributes) {
+        String userId = fetchKey.userId;
+        String ruleId = fetchKey.ruleId;
+        CompletableFuture<CmabDecision> decisionFuture = new CompletableFuture<>();
+        if (inFlightFetches.putIfAbsent(fetchKey, decisionFuture) != null) {
+            return;
+        }
+
+        logger.debug("Refreshing CMAB decision for user '{}' and rule '{}'", userId, ruleId);
+        decisionFuture.whenComplete((decision, e) -> {
+            if (e != null) {
+                logger.warn("Failed to refresh CMAB decision for user '{}' and rule '{}': {}", userId, ruleId, e.getMessage());
+            }
+        });
+        try {
+            refreshExecutor.execute(cachingFetch(cacheKey, fetchKey, attributes, decisionFuture));
+        } catch (RejectedExecutionException e) {
+            // the cached decision is still valid, so skip the refresh rather than fetch on the request path
+            logger.debug("CMAB refresh rejected by executor for user '{}' and rule '{}'", userId, ruleId);
+            inFlightFetches.remove(fetchKey, decisionFuture);
+        }
+    }
+
+    private Runnable cachingFetch(String cacheKey,
+                                  FetchKey fetchKey,
+                                  Map<String, Object> attributes,
+                                  CompletableFuture<CmabDecision> decisionFuture) {
+        return () -> {
+            try {
+                long loadStartNanos = System.nanoTime();
+                CmabDecision cmabDecision = fetchDecision(fetchKey.ruleId, fetchKey.userId, attributes);
+                cmabCache.recordLoad(System.nanoTime() - loadStartNanos);
+                logger.debug("CMAB decision is {}", cmabDecision);
+
+                cmabCache.save(cacheKey, new CmabCacheValue(fetchKey.attributesHash, cmabDecision.getVariationId(), cmabDecision.getCmabUuid()));
+                decisionFuture.complete(cmabDecision);
+            } catch (Throwable e) {
+                decisionFuture.completeExceptionally(e);
+            } finally {
+                inFlightFetches.remove(fetchKey, decisionFuture);
             }
+        };
+    }
 
-            CmabDecision cmabDecision = fetchDecision(ruleId, userId, filteredAttributes);
-            logger.debug("CMAB decision is {}", cmabDecision);
+    /**
+     * @return A snapshot of the CMAB decision cache statistics.
+     */
+    public CacheStats getCacheStats() {
+        return cmabCache.getStats();
+    }
 
-            cmabCache.save(cacheKey, new CmabCacheValue(attributesHash, cmabDecision.getVariationId(), cmabDecision.getCmabUuid()));
+    private void runFetch(Runnable fetch) {
+        if (fetchExecutor == null) {
+            fetch.run();
+            return;
+        }
 
-            return cmabDecision;
-        } finally {
-            lock.unlock();
+        try {
+            fetchExecutor.execute(fetch);
+        } catch (RejectedExecutionException e) {
+            logger.warn("CMAB fetch rejected by executor, fetching on the calling thread");
+            fetch.run();
         }
     }
 
@@ -167,53 +303,103 @@ public class DefaultCmabService implements CmabService {
     }
 
     private String getCacheKey(String userId, String ruleId) {
-        return userId.length() + "-" + userId + "-" + ruleId;
+        // sized for the longest user id length prefix, so the builder never grows
+        return new StringBuilder(userId.length() + ruleId.length() + 12)
+            .append(userId.length()).append('-').append(userId).append('-').append(ruleId)
+            .toString();
     }
 
+    /**
+     * Fingerprint the attributes without copying or serializing them. Each entry is hashed on its own with
+     * 64-bit FNV-1a and the entry hashes are summed, so the result does not depend on the iteration order.
+     */
     private String hashAttributes(Map<String, Object> attributes) {
         if (attributes == null || attributes.isEmpty()) {
             return "empty";
         }
-        
-        // Sort attributes to ensure consistent hashing
-        TreeMap<String, Object> sortedAttributes = new TreeMap<>(attributes);
-
-        // Create a simple string representation
-        StringBuilder sb = new StringBuilder();
-        sb.append("{");
-        boolean first = true;
-        for (Map.Entry<String, Object> entry : sortedAttributes.entrySet()) {
+
+        long fingerprint = 0;
+        int count = 0;
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
             if (entry.getKey() == null) continue; // Skip null keys
-            
-            if (!first) {
-                sb.append(",");
-            }
-            sb.append("\"").append(entry.getKey()).append("\":");
-            
-            Object value = entry.getValue();
-            if (value == null) {
-                sb.append("null");
-            } else if (value instanceof String) {
-                sb.append("\"").append(value).append("\"");
-            } else {
-                sb.append(value.toString());
-            }
-            first = false;
+
+            long entryHash = hashChars(FNV_64_OFFSET_BASIS, entry.getKey());
+            entryHash = hashValue(entryHash, entry.getValue());
+            fingerprint += mix64(entryHash);
+            count++;
         }
-        sb.append("}");
 
-        String attributesString = sb.toString();
-        int hash = MurmurHash3.murmurhash3_x86_32(attributesString, 0, attributesString.length(), 0);
-        
-        // Convert to hex string to match your existing pattern
-        return Integer.toHexString(hash);
+        return Long.toHexString(mix64(fingerprint + count));
+    }
+
+    private static long hashValue(long hash, Object value) {
+        // a type tag keeps "25" and 25 apart
+        if (value == null) {
+            return hashLong(hash, 0);
+        } else if (value instanceof String) {
+            return hashChars(hashLong(hash, 1), (String) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return hashLong(hashLong(hash, 2), ((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            return hashLong(hashLong(hash, 3), Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof Boolean) {
+            return hashLong(hashLong(hash, 4), (Boolean) value ? 1 : 0);
+        } else {
+            return hashChars(hashLong(hash, 5), value.toString());
+        }
+    }
+
+    private static long hashChars(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_64_PRIME;
+        }
+        // length terminates the string so adjacent strings cannot shift into each other
+        return hashLong(hash, value.length());
+    }
+
+    private static long hashLong(long hash, long value) {
+        hash = (hash ^ (value & 0xffffffffL)) * FNV_64_PRIME;
+        return (hash ^ (value >>> 32)) * FNV_64_PRIME;
+    }
+
+    // MurmurHash3 fmix64 finalizer
+    private static long mix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
     }
 
-    private int getLockIndex(String userId, String ruleId) {
-        // Create a hash of userId + ruleId for consistent lock selection
-        String combined = userId + ruleId;
-        int hash = MurmurHash3.murmurhash3_x86_32(combined, 0, combined.length(), 0);
-        return Math.abs(hash) % NUM_LOCK_STRIPES;
+    /**
+     * Key of an in-flight fetch.
+     */
+    private static final class FetchKey {
+        private final String userId;
+        private final String ruleId;
+        private final String attributesHash;
+        private final int hashCode;
+
+        FetchKey(String userId, String ruleId, String attributesHash) {
+            this.userId = userId;
+            this.ruleId = ruleId;
+            this.attributesHash = attributesHash;
+            this.hashCode = 31 * (31 * userId.hashCode() + ruleId.hashCode()) + attributesHash.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FetchKey)) return false;
+            FetchKey that = (FetchKey) o;
+            return userId.equals(that.userId) && ruleId.equals(that.ruleId) && attributesHash.equals(that.attributesHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
     }
 
     public static Builder builder() {
@@ -225,6 +411,9 @@ public class DefaultCmabService implements CmabService {
         private int cmabCacheTimeoutInSecs = DEFAULT_CMAB_CACHE_TIMEOUT_SECS;
         private Cache<CmabCacheValue> customCache;
         private CmabClient client;
+        private Executor executor;
+        private int cmabCacheRefreshAfterInSecs;
+        private Executor refreshExecutor;
 
         /**
          * Set the maximum size of the CMAB cache.
@@ -278,15 +467,78 @@ public class DefaultCmabService implements CmabService {
             return this;
         }
 
+        /**
+         * Provide an {@link Executor} to run CMAB fetches on, so that {@link DefaultCmabService#getDecisionAsync}
+         * returns without waiting for the prediction endpoint.
+         *
+         * By default fetches run on the thread of the request that started them.
+         *
+         * @param executor The executor for CMAB fetches
+         * @return Builder instance
+         */
+        public Builder withExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Refresh cached CMAB decisions in the background once they are older than this, while still serving them.
+         * Should be shorter than the cache timeout, otherwise entries expire before they are refreshed.
+         *
+         * Disabled by default.
+         *
+         * @param refreshAfterInSecs The age in seconds after which a cached decision is refreshed
+         * @return Builder instance
+         */
+        public Builder withCmabCacheRefreshAfterInSecs(int refreshAfterInSecs) {
+            this.cmabCacheRefreshAfterInSecs = refreshAfterInSecs;
+            return this;
+        }
+
+        /**
+         * Provide the {@link Executor} running background refreshes of cached CMAB decisions.
+         *
+         * By default a single daemon thread with a queue of 1000 refreshes is used. Refreshes rejected by the
+         * executor are skipped.
+         *
+         * @param refreshExecutor The executor for background refreshes
+         * @return Builder instance
+         */
+        public Builder withRefreshExecutor(Executor refreshExecutor) {
+            this.refreshExecutor = refreshExecutor;
+            return this;
+        }
+
         public DefaultCmabService build() {
             if (client == null) {
                 throw new IllegalStateException("CmabClient is required");
             }
 
             Cache<CmabCacheValue> cache = customCache != null ? customCache : 
-                new DefaultLRUCache<>(cmabCacheSize, cmabCacheTimeoutInSecs);
+                new ConcurrentLRUCache<>(cmabCacheSize, cmabCacheTimeoutInSecs);
+
+            long refreshAfterMillis = 0;
+            Executor cacheRefreshExecutor = null;
+            if (cmabCacheRefreshAfterInSecs > 0) {
+                refreshAfterMillis = TimeUnit.SECONDS.toMillis(cmabCacheRefreshAfterInSecs);
+                cacheRefreshExecutor = refreshExecutor != null ? refreshExecutor : createRefreshExecutor();
+            }
+
+            return new DefaultCmabService(client, cache, null, executor, refreshAfterMillis, cacheRefreshExecutor);
+        }
 
-            return new DefaultCmabService(client, cache);
+        private static Executor createRefreshExecutor() {
+            final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+            ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 1,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(DEFAULT_CMAB_REFRESH_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = threadFactory.newThread(runnable);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            refreshExecutor.allowCoreThreadTimeOut(true);
+            return refreshExecutor;
         }
     }
 }
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.optimizely.ab.UnknownEventTypeException;
 import com.optimizely.ab.UnknownExperimentException;
 import com.optimizely.ab.config.audience.Audience;
+import com.optimizely.ab.config.audience.AudienceEvaluator;
 import com.optimizely.ab.config.parser.ConfigParseException;
 import com.optimizely.ab.config.parser.DefaultConfigParser;
 import com.optimizely.ab.error.ErrorHandler;
@@ -99,6 +100,12 @@ public class DatafileProjectConfig implements ProjectConfig {
 
     private final HoldoutConfig holdoutConfig;
 
+    // the decision plan compiled for each flag of this config, by flag identity
+    private final Map<FeatureFlag, FlagDecisionPlan> flagDecisionPlans;
+
+    // the audience conditions compiled for each experiment, rollout rule and holdout of this config, by identity
+    private final Map<ExperimentCore, AudienceEvaluator> audienceEvaluators;
+
     private String datafile;
 
     // v2 constructor
@@ -278,6 +285,21 @@ public class DatafileProjectConfig implements ProjectConfig {
                 flagVariationsMap.put(flag.getKey(), new ArrayList<>(variationIdToVariationsMap.values()));
             }
         }
+
+        Map<FeatureFlag, FlagDecisionPlan> flagDecisionPlans = new IdentityHashMap<>();
+        for (FeatureFlag flag : this.featureFlags) {
+            flagDecisionPlans.put(flag, FlagDecisionPlan.compile(flag, this));
+        }
+        this.flagDecisionPlans = Collections.unmodifiableMap(flagDecisionPlans);
+
+        List<ExperimentCore> audienceTargeted = new ArrayList<>(this.experiments);
+        for (Rollout rollout : this.rollouts) {
+            if (rollout.getExperiments() != null) {
+                audienceTargeted.addAll(rollout.getExperiments());
+            }
+        }
+        audienceTargeted.addAll(holdoutConfig.getAllHoldouts());
+        this.audienceEvaluators = Collections.unmodifiableMap(AudienceEvaluator.compileAll(audienceTargeted, this));
     }
 
     /**
@@ -575,6 +597,32 @@ public class DatafileProjectConfig implements ProjectConfig {
         return holdoutConfig.getHoldoutForFlag(id);
     }
 
+    /**
+     * Get the decision plan compiled for the flag when this config was created. A flag object that is not part of
+     * this config gets a plan compiled on the spot.
+     *
+     * @param featureFlag The flag to get the decision plan for
+     * @return The decision plan of the flag
+     */
+    @Override
+    public FlagDecisionPlan getFlagDecisionPlan(@Nonnull FeatureFlag featureFlag) {
+        FlagDecisionPlan plan = flagDecisionPlans.get(featureFlag);
+        return plan != null ? plan : FlagDecisionPlan.compile(featureFlag, this);
+    }
+
+    /**
+     * Get the audience conditions compiled for the experiment when this config was created. An experiment object
+     * that is not part of this config is evaluated through its condition tree.
+     *
+     * @param experiment The experiment to get the compiled audience conditions for
+     * @return The compiled audience conditions, or null for an experiment outside this config
+     */
+    @Nullable
+    @Override
+    public AudienceEvaluator getAudienceEvaluator(@Nonnull ExperimentCore experiment) {
+        return audienceEvaluators.get(experiment);
+    }
+
     @Override   
     public Holdout getHoldout(@Nonnull String id) {
         return holdoutConfig.getHoldout(id);
@@ -52,6 +52,7 @@ public class Experiment implements ExperimentCore {
     private final Map<String, Variation> variationKeyToVariationMap;
     private final Map<String, Variation> variationIdToVariationMap;
     private final Map<String, String> userIdToVariationKeyMap;
+    private final TrafficAllocationIndex<Variation> trafficAllocationIndex;
 
     public static final String TYPE_AB = "ab";
     public static final String TYPE_MAB = "mab";
@@ -159,6 +160,7 @@ public class Experiment implements ExperimentCore {
         this.userIdToVariationKeyMap = userIdToVariationKeyMap;
         this.variationKeyToVariationMap = ProjectConfigUtils.generateNameMapping(variations);
         this.variationIdToVariationMap = ProjectConfigUtils.generateIdMapping(variations);
+        this.trafficAllocationIndex = new TrafficAllocationIndex<>(this.trafficAllocation, this.variationIdToVariationMap);
         this.cmab = cmab;
         this.type = type;
     }
@@ -207,6 +209,11 @@ public class Experiment implements ExperimentCore {
         return trafficAllocation;
     }
 
+    @Override
+    public TrafficAllocationIndex<Variation> getTrafficAllocationIndex() {
+        return trafficAllocationIndex;
+    }
+
     public String getGroupId() {
         return groupId;
     }
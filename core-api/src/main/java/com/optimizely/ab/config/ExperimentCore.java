@@ -39,6 +39,11 @@ public interface ExperimentCore extends IdKeyMapped {
     List<TrafficAllocation> getTrafficAllocation();
     Map<String, Variation> getVariationKeyToVariationMap();
     Map<String, Variation> getVariationIdToVariationMap();
+
+    /**
+     * @return the traffic allocation of this experiment compiled for bucketing; implementations build it once
+     */
+    TrafficAllocationIndex<Variation> getTrafficAllocationIndex();
     
     default String serializeConditions(Map<String, String> audiencesMap) {
         Condition condition = this.getAudienceConditions();
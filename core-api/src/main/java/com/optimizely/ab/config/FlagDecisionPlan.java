@@ -0,0 +1,110 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.config;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The rules a {@link FeatureFlag} is decided with, resolved from the ids in the flag to the config objects.
+ * <p>
+ * A flag is decided by evaluating its holdouts, then its experiment rules in order, then the rules of its rollout.
+ * Compiling the plan once per flag lets decisions walk these lists instead of looking each rule up by id.
+ */
+@Immutable
+public final class FlagDecisionPlan {
+
+    private final FeatureFlag featureFlag;
+    private final List<Holdout> holdouts;
+    private final List<Experiment> experimentRules;
+    private final Rollout rollout;
+    private final List<Experiment> rolloutRules;
+
+    private FlagDecisionPlan(@Nonnull FeatureFlag featureFlag,
+                             @Nonnull List<Holdout> holdouts,
+                             @Nonnull List<Experiment> experimentRules,
+                             @Nullable Rollout rollout) {
+        this.featureFlag = featureFlag;
+        this.holdouts = holdouts;
+        this.experimentRules = experimentRules;
+        this.rollout = rollout;
+        this.rolloutRules = rollout == null || rollout.getExperiments() == null
+            ? Collections.<Experiment>emptyList()
+            : Collections.unmodifiableList(new ArrayList<>(rollout.getExperiments()));
+    }
+
+    /**
+     * Resolve the rules of a flag from the given config.
+     *
+     * @param featureFlag   The flag to compile the plan for
+     * @param projectConfig The config the flag rules are looked up in
+     * @return The decision plan of the flag
+     */
+    public static FlagDecisionPlan compile(@Nonnull FeatureFlag featureFlag, @Nonnull ProjectConfig projectConfig) {
+        List<String> experimentIds = featureFlag.getExperimentIds();
+        List<Experiment> experimentRules = new ArrayList<>(experimentIds.size());
+        for (String experimentId : experimentIds) {
+            experimentRules.add(projectConfig.getExperimentIdMapping().get(experimentId));
+        }
+
+        Rollout rollout = null;
+        if (!featureFlag.getRolloutId().isEmpty()) {
+            rollout = projectConfig.getRolloutIdMapping().get(featureFlag.getRolloutId());
+        }
+
+        return new FlagDecisionPlan(
+            featureFlag,
+            Collections.unmodifiableList(new ArrayList<>(projectConfig.getHoldoutForFlag(featureFlag.getId()))),
+            Collections.unmodifiableList(experimentRules),
+            rollout);
+    }
+
+    public FeatureFlag getFeatureFlag() {
+        return featureFlag;
+    }
+
+    public List<Holdout> getHoldouts() {
+        return holdouts;
+    }
+
+    /**
+     * @return The experiments of the flag in evaluation order. An entry is null when the datafile does not define
+     * the experiment id listed in the flag.
+     */
+    public List<Experiment> getExperimentRules() {
+        return experimentRules;
+    }
+
+    /**
+     * @return The rollout of the flag, or null when the flag has no rollout or the datafile does not define it.
+     */
+    @Nullable
+    public Rollout getRollout() {
+        return rollout;
+    }
+
+    /**
+     * @return The rules of the rollout of the flag in evaluation order, the last one being the "Everyone Else" rule.
+     */
+    public List<Experiment> getRolloutRules() {
+        return rolloutRules;
+    }
+}
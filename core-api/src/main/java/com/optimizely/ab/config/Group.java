@@ -37,6 +37,7 @@ public class Group implements IdMapped {
     private final String policy;
     private final List<TrafficAllocation> trafficAllocation;
     private final List<Experiment> experiments;
+    private final TrafficAllocationIndex<Experiment> trafficAllocationIndex;
 
     public static final String RANDOM_POLICY = "random";
 
@@ -69,6 +70,8 @@ public class Group implements IdMapped {
             }
             this.experiments.add(experiment);
         }
+        this.trafficAllocationIndex = new TrafficAllocationIndex<>(trafficAllocation,
+            ProjectConfigUtils.generateIdMapping(this.experiments));
     }
 
     public String getId() {
@@ -87,6 +90,13 @@ public class Group implements IdMapped {
         return experiments;
     }
 
+    /**
+     * @return the traffic allocation of this group compiled for bucketing
+     */
+    public TrafficAllocationIndex<Experiment> getTrafficAllocationIndex() {
+        return trafficAllocationIndex;
+    }
+
     @Override
     public String toString() {
         return "Group{" +
@@ -46,6 +46,7 @@ public class Holdout implements ExperimentCore {
 
     private final Map<String, Variation> variationKeyToVariationMap;
     private final Map<String, Variation> variationIdToVariationMap;
+    private final TrafficAllocationIndex<Variation> trafficAllocationIndex;
     // Not necessary for HO
     private final String layerId = "";
 
@@ -89,6 +90,7 @@ public class Holdout implements ExperimentCore {
         this.trafficAllocation = trafficAllocation;
         this.variationKeyToVariationMap = ProjectConfigUtils.generateNameMapping(this.variations);
         this.variationIdToVariationMap = ProjectConfigUtils.generateIdMapping(this.variations);
+        this.trafficAllocationIndex = new TrafficAllocationIndex<>(this.trafficAllocation, this.variationIdToVariationMap);
     }
 
     public String getId() {
@@ -131,6 +133,11 @@ public class Holdout implements ExperimentCore {
         return trafficAllocation;
     }
 
+    @Override
+    public TrafficAllocationIndex<Variation> getTrafficAllocationIndex() {
+        return trafficAllocationIndex;
+    }
+
     public String getGroupId() {
         return "";
     }
@@ -49,7 +49,7 @@ public abstract class PollingProjectConfigManager implements ProjectConfigManage
     private static final UpdateConfigNotification SIGNAL = new UpdateConfigNotification();
 
     private final AtomicReference<ProjectConfig> currentProjectConfig = new AtomicReference<>();
-    private final AtomicReference<OptimizelyConfig> currentOptimizelyConfig = new AtomicReference<>();
+    private final AtomicReference<LazyOptimizelyConfig> currentOptimizelyConfig = new AtomicReference<>();
     private final ScheduledExecutorService scheduledExecutorService;
     private final long period;
     private final TimeUnit timeUnit;
@@ -61,6 +61,7 @@ public abstract class PollingProjectConfigManager implements ProjectConfigManage
 
     private volatile String sdkKey;
     private volatile boolean started;
+    private volatile boolean optimizelyConfigEnabled = true;
     private ScheduledFuture<?> scheduledFuture;
     private ReentrantLock lock = new ReentrantLock();
 
@@ -133,7 +134,7 @@ public abstract class PollingProjectConfigManager implements ProjectConfigManage
         }
 
         currentProjectConfig.set(projectConfig);
-        currentOptimizelyConfig.set(new OptimizelyConfigService(projectConfig).getConfig());
+        currentOptimizelyConfig.set(optimizelyConfigEnabled ? new LazyOptimizelyConfig(projectConfig) : null);
         countDownLatch.countDown();
 
         if (sdkKey == null) {
@@ -175,12 +176,34 @@ public abstract class PollingProjectConfigManager implements ProjectConfigManage
     }
 
     /**
-     * Returns the cached {@link OptimizelyConfig}
-     * @return {@link OptimizelyConfig}
+     * Returns the cached {@link OptimizelyConfig}. It is built on the first call after each new revision and
+     * reused until the next one.
+     *
+     * @return {@link OptimizelyConfig}, or null if no config has been set or OptimizelyConfig is disabled.
      */
     @Override
     public OptimizelyConfig getOptimizelyConfig() {
-        return currentOptimizelyConfig.get();
+        LazyOptimizelyConfig optimizelyConfig = currentOptimizelyConfig.get();
+        return optimizelyConfig == null ? null : optimizelyConfig.get();
+    }
+
+    /**
+     * Enable or disable the {@link OptimizelyConfig} of this manager. When disabled no OptimizelyConfig is built
+     * or retained, and {@link #getOptimizelyConfig()} returns null.
+     *
+     * @param optimizelyConfigEnabled Whether OptimizelyConfig is available, true by default
+     */
+    protected void setOptimizelyConfigEnabled(boolean optimizelyConfigEnabled) {
+        this.optimizelyConfigEnabled = optimizelyConfigEnabled;
+        if (!optimizelyConfigEnabled) {
+            currentOptimizelyConfig.set(null);
+            return;
+        }
+
+        ProjectConfig projectConfig = currentProjectConfig.get();
+        if (projectConfig != null) {
+            currentOptimizelyConfig.compareAndSet(null, new LazyOptimizelyConfig(projectConfig));
+        }
     }
 
     @Override
@@ -250,6 +273,32 @@ public abstract class PollingProjectConfigManager implements ProjectConfigManage
         return started;
     }
 
+    /**
+     * Builds the {@link OptimizelyConfig} of a single revision once, on first access.
+     */
+    private static final class LazyOptimizelyConfig {
+        private final ProjectConfig projectConfig;
+        private volatile OptimizelyConfig optimizelyConfig;
+
+        private LazyOptimizelyConfig(ProjectConfig projectConfig) {
+            this.projectConfig = projectConfig;
+        }
+
+        private OptimizelyConfig get() {
+            OptimizelyConfig config = optimizelyConfig;
+            if (config == null) {
+                synchronized (this) {
+                    config = optimizelyConfig;
+                    if (config == null) {
+                        config = new OptimizelyConfigService(projectConfig).getConfig();
+                        optimizelyConfig = config;
+                    }
+                }
+            }
+            return config;
+        }
+    }
+
     private class ProjectConfigFetcher implements Runnable {
         @Override
         public void run() {
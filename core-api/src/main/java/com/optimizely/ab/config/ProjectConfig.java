@@ -25,6 +25,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.optimizely.ab.config.audience.Audience;
+import com.optimizely.ab.config.audience.AudienceEvaluator;
 import com.optimizely.ab.error.ErrorHandler;
 
 /**
@@ -121,6 +122,28 @@ public interface ProjectConfig {
 
     Variation getFlagVariationByKey(String flagKey, String variationKey);
 
+    /**
+     * Get the rules the given flag is decided with.
+     *
+     * @param featureFlag The flag to get the decision plan for
+     * @return The decision plan of the flag, compiled from this config on every call unless the implementation
+     * precompiles it
+     */
+    default FlagDecisionPlan getFlagDecisionPlan(@Nonnull FeatureFlag featureFlag) {
+        return FlagDecisionPlan.compile(featureFlag, this);
+    }
+
+    /**
+     * Get the audience conditions of an experiment, rule or holdout compiled against this config.
+     *
+     * @param experiment The experiment to get the compiled audience conditions for
+     * @return The compiled audience conditions, or null to evaluate the condition tree of the experiment
+     */
+    @Nullable
+    default AudienceEvaluator getAudienceEvaluator(@Nonnull ExperimentCore experiment) {
+        return null;
+    }
+
     String getHostForODP();
 
     String getPublicKeyForODP();
@@ -0,0 +1,102 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.config;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled, immutable view of a {@link TrafficAllocation} list.
+ * <p>
+ * The end-of-range values are flattened into a primitive array and each allocation's entity id is resolved up front,
+ * so that mapping a bucket value to an entity is a binary search instead of a scan over the allocation list followed
+ * by a map lookup.
+ *
+ * @param <T> the type of the allocated entity ({@link Variation} for experiments, {@link Experiment} for groups)
+ */
+@Immutable
+public final class TrafficAllocationIndex<T> {
+
+    // running maximum of the end-of-range values, so the array is sorted even when the datafile ranges are not
+    private final int[] endOfRanges;
+    private final String[] entityIds;
+    private final Object[] entities;
+
+    public TrafficAllocationIndex(@Nullable List<TrafficAllocation> trafficAllocations,
+                                  @Nullable Map<String, ? extends T> entityIdMapping) {
+        int size = trafficAllocations == null ? 0 : trafficAllocations.size();
+        this.endOfRanges = new int[size];
+        this.entityIds = new String[size];
+        this.entities = new Object[size];
+
+        int maxEndOfRange = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            TrafficAllocation trafficAllocation = trafficAllocations.get(i);
+            maxEndOfRange = Math.max(maxEndOfRange, trafficAllocation.getEndOfRange());
+            endOfRanges[i] = maxEndOfRange;
+            entityIds[i] = trafficAllocation.getEntityId();
+            if (entityIdMapping != null && entityIds[i] != null) {
+                entities[i] = entityIdMapping.get(entityIds[i]);
+            }
+        }
+    }
+
+    /**
+     * Find the allocation that the given bucket value falls into.
+     *
+     * @param bucketValue the bucket value, in the range [0, 10000)
+     * @return the index of the first allocation whose end of range is greater than the bucket value, or -1 if the
+     * bucket value is not allocated
+     */
+    public int indexOf(int bucketValue) {
+        int low = 0;
+        int high = endOfRanges.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (endOfRanges[mid] > bucketValue) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low < endOfRanges.length ? low : -1;
+    }
+
+    /**
+     * @param index an index returned by {@link #indexOf(int)}
+     * @return the entity id of the allocation, exactly as it appears in the datafile
+     */
+    public String getEntityId(int index) {
+        return entityIds[index];
+    }
+
+    /**
+     * @param index an index returned by {@link #indexOf(int)}
+     * @return the resolved entity of the allocation, or null if the entity id is unknown
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public T getEntity(int index) {
+        return (T) entities[index];
+    }
+
+    public int size() {
+        return endOfRanges.length;
+    }
+}
@@ -0,0 +1,420 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.config.audience;
+
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.config.ExperimentCore;
+import com.optimizely.ab.config.ProjectConfig;
+import com.optimizely.ab.config.audience.match.Match;
+import com.optimizely.ab.config.audience.match.MatchRegistry;
+import com.optimizely.ab.config.audience.match.NumericMatch;
+import com.optimizely.ab.config.audience.match.UnknownMatchTypeException;
+import com.optimizely.ab.internal.UserContextAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.optimizely.ab.internal.AttributesUtil.isValidNumber;
+
+/**
+ * The audience conditions of an experiment, compiled against a {@link ProjectConfig}.
+ * <p>
+ * Compiling inlines the audiences referenced by id, binds every {@link UserAttribute} leaf to its {@link Match} and
+ * prepares its condition value with {@link Match#prepareConditionValue(Object)}. Evaluating then only reads the user
+ * context, with the same results and logs as {@link Condition#evaluate(ProjectConfig, OptimizelyUserContext)}. Leaves
+ * of a {@link NumericMatch} with a numeric condition value compare valid numeric attributes as primitives.
+ * <p>
+ * Matches are bound when the config is compiled, so a {@link MatchRegistry#register(String, Match)} call made later
+ * applies from the next config on.
+ */
+@Immutable
+public final class AudienceEvaluator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AudienceEvaluator.class);
+
+    private static final Node ALWAYS_TRUE = (user, memo) -> true;
+
+    private final Node root;
+    private final ProjectConfig projectConfig;
+
+    private AudienceEvaluator(@Nonnull Node root, @Nonnull ProjectConfig projectConfig) {
+        this.root = root;
+        this.projectConfig = projectConfig;
+    }
+
+    /**
+     * Evaluate the compiled audience conditions for a user. Within a decision call, audiences already evaluated for
+     * the user in the same call are not evaluated again.
+     *
+     * @param user The user context to evaluate
+     * @return true or false when the conditions can be evaluated, or null when the result is unknown
+     */
+    @Nullable
+    public Boolean evaluate(@Nonnull OptimizelyUserContext user) {
+        return evaluate(user, getAudienceMemo(user));
+    }
+
+    /**
+     * Evaluate the compiled audience conditions for a user, reading and recording audience results in a memo.
+     *
+     * @param user The user context to evaluate
+     * @param memo The audience results of the current decision call, or null to evaluate every audience
+     * @return true or false when the conditions can be evaluated, or null when the result is unknown
+     */
+    @Nullable
+    Boolean evaluate(@Nonnull OptimizelyUserContext user, @Nullable AudienceMemo memo) {
+        return root.evaluate(user, memo);
+    }
+
+    /**
+     * @return The audience memo of the decision call the user context was created for, created on first use, or
+     * null outside of a decision call
+     */
+    @Nullable
+    private AudienceMemo getAudienceMemo(OptimizelyUserContext user) {
+        AtomicReference<AudienceMemo> holder = UserContextAccessor.getAudienceMemo(user);
+        if (holder == null) {
+            return null;
+        }
+        AudienceMemo memo = holder.get();
+        if (memo == null || !memo.isFor(projectConfig)) {
+            AudienceMemo newMemo = new AudienceMemo(projectConfig);
+            // flags decided concurrently keep using the memo set first
+            memo = holder.compareAndSet(memo, newMemo) ? newMemo : holder.get();
+        }
+        return memo;
+    }
+
+    /**
+     * Compile the audience conditions of one experiment.
+     *
+     * @param experiment    The experiment, rule or holdout to compile
+     * @param projectConfig The config the audiences are resolved from
+     * @return The compiled audience conditions
+     */
+    public static AudienceEvaluator compile(@Nonnull ExperimentCore experiment, @Nonnull ProjectConfig projectConfig) {
+        return new Compiler(projectConfig).compile(experiment);
+    }
+
+    /**
+     * Compile the audience conditions of several experiments, sharing the compiled form of the audiences they
+     * reference.
+     *
+     * @param experiments   The experiments, rules and holdouts to compile
+     * @param projectConfig The config the audiences are resolved from
+     * @return The compiled audience conditions keyed by experiment identity
+     */
+    public static Map<ExperimentCore, AudienceEvaluator> compileAll(@Nonnull Collection<? extends ExperimentCore> experiments,
+                                                                    @Nonnull ProjectConfig projectConfig) {
+        Compiler compiler = new Compiler(projectConfig);
+        Map<ExperimentCore, AudienceEvaluator> evaluators = new IdentityHashMap<>();
+        for (ExperimentCore experiment : experiments) {
+            evaluators.put(experiment, compiler.compile(experiment));
+        }
+        return evaluators;
+    }
+
+    @FunctionalInterface
+    private interface Node {
+        @Nullable
+        Boolean evaluate(OptimizelyUserContext user, @Nullable AudienceMemo memo);
+    }
+
+    private static final class Compiler {
+        private final ProjectConfig projectConfig;
+        private final Map<String, Audience> audienceIdMapping;
+        // the dense index of every audience of the config, see AudienceMemo
+        private final Map<String, Integer> audienceIndexes = new HashMap<>();
+        private final Map<String, Node> compiledAudiences = new HashMap<>();
+        // audiences being compiled, to leave audiences that reference themselves to the condition tree
+        private final Set<String> compiling = new HashSet<>();
+
+        private Compiler(ProjectConfig projectConfig) {
+            this.projectConfig = projectConfig;
+            Map<String, Audience> audienceIdMapping = projectConfig.getAudienceIdMapping();
+            this.audienceIdMapping = audienceIdMapping != null ? audienceIdMapping : Collections.<String, Audience>emptyMap();
+            for (String audienceId : this.audienceIdMapping.keySet()) {
+                audienceIndexes.put(audienceId, audienceIndexes.size());
+            }
+        }
+
+        private AudienceEvaluator compile(ExperimentCore experiment) {
+            Condition<?> audienceConditions = experiment.getAudienceConditions();
+            if (audienceConditions != null) {
+                return new AudienceEvaluator(compile(audienceConditions), projectConfig);
+            }
+
+            List<String> audienceIds = experiment.getAudienceIds();
+            if (audienceIds == null || audienceIds.isEmpty()) {
+                return new AudienceEvaluator(ALWAYS_TRUE, projectConfig);
+            }
+            // the implicit OR over the audience ids of an experiment without audience conditions
+            List<Node> children = new ArrayList<>(audienceIds.size());
+            for (String audienceId : audienceIds) {
+                children.add(compileAudience(audienceId, new AudienceIdCondition<>(audienceId)));
+            }
+            return new AudienceEvaluator(new OrNode(children), projectConfig);
+        }
+
+        private Node compile(Condition<?> condition) {
+            if (condition instanceof AndCondition) {
+                List<Node> children = compileAll(condition.getConditions());
+                return children == null ? (user, memo) -> null : new AndNode(children);
+            }
+            if (condition instanceof OrCondition) {
+                List<Node> children = compileAll(condition.getConditions());
+                return children == null ? (user, memo) -> null : new OrNode(children);
+            }
+            if (condition instanceof NotCondition) {
+                Condition<?> operand = ((NotCondition<?>) condition).getCondition();
+                return operand == null ? (user, memo) -> null : new NotNode(compile(operand));
+            }
+            if (condition instanceof AudienceIdCondition) {
+                return compileAudience(((AudienceIdCondition<?>) condition).getAudienceId(), condition);
+            }
+            if (condition instanceof UserAttribute) {
+                return compileLeaf((UserAttribute<?>) condition);
+            }
+            if (condition instanceof EmptyCondition) {
+                return ALWAYS_TRUE;
+            }
+            if (condition instanceof NullCondition) {
+                return (user, memo) -> null;
+            }
+            // conditions this compiler does not know are evaluated as they are
+            return (user, memo) -> condition.evaluate(projectConfig, user);
+        }
+
+        // Condition#getConditions returns raw conditions
+        @SuppressWarnings("rawtypes")
+        @Nullable
+        private List<Node> compileAll(@Nullable List<? extends Condition> conditions) {
+            if (conditions == null) {
+                return null;
+            }
+            List<Node> nodes = new ArrayList<>(conditions.size());
+            for (Condition<?> condition : conditions) {
+                nodes.add(compile(condition));
+            }
+            return nodes;
+        }
+
+        private Node compileAudience(String audienceId, Condition<?> condition) {
+            Node compiled = compiledAudiences.get(audienceId);
+            if (compiled != null) {
+                return compiled;
+            }
+
+            Audience audience = audienceIdMapping.get(audienceId);
+            if (audience == null) {
+                compiled = (user, memo) -> {
+                    logger.error("Audience {} could not be found.", audienceId);
+                    return null;
+                };
+            } else if (!compiling.add(audienceId)) {
+                return (user, memo) -> condition.evaluate(projectConfig, user);
+            } else {
+                try {
+                    compiled = new AudienceNode(audience, compile(audience.getConditions()), projectConfig, audienceIndexes.get(audienceId));
+                } finally {
+                    compiling.remove(audienceId);
+                }
+            }
+            compiledAudiences.put(audienceId, compiled);
+            return compiled;
+        }
+
+        private Node compileLeaf(UserAttribute<?> attribute) {
+            Match matcher = null;
+            Object conditionValue = attribute.getValue();
+            if (attribute.isValidType() && !UserAttribute.QUALIFIED.equals(attribute.getMatch())) {
+                try {
+                    matcher = MatchRegistry.getMatch(attribute.getMatch());
+                    conditionValue = matcher.prepareConditionValue(conditionValue);
+                } catch (UnknownMatchTypeException e) {
+                    // left unbound, evaluating the leaf reports the unknown match type
+                }
+            }
+            if (matcher instanceof NumericMatch && isValidNumber(conditionValue)) {
+                return new NumericLeafNode(attribute, (NumericMatch) matcher, conditionValue);
+            }
+            return new LeafNode(attribute, matcher, conditionValue);
+        }
+    }
+
+    private static final class AndNode implements Node {
+        private final Node[] children;
+
+        private AndNode(List<Node> children) {
+            this.children = children.toArray(new Node[0]);
+        }
+
+        @Override
+        public Boolean evaluate(OptimizelyUserContext user, AudienceMemo memo) {
+            boolean foundNull = false;
+            for (Node child : children) {
+                Boolean result = child.evaluate(user, memo);
+                if (result == null) {
+                    foundNull = true;
+                } else if (!result) {
+                    return false;
+                }
+            }
+            return foundNull ? null : true;
+        }
+    }
+
+    private static final class OrNode implements Node {
+        private final Node[] children;
+
+        private OrNode(List<Node> children) {
+            this.children = children.toArray(new Node[0]);
+        }
+
+        @Override
+        public Boolean evaluate(OptimizelyUserContext user, AudienceMemo memo) {
+            boolean foundNull = false;
+            for (Node child : children) {
+                Boolean result = child.evaluate(user, memo);
+                if (result == null) {
+                    foundNull = true;
+                } else if (result) {
+                    return true;
+                }
+            }
+            return foundNull ? null : false;
+        }
+    }
+
+    private static final class NotNode implements Node {
+        private final Node operand;
+
+        private NotNode(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public Boolean evaluate(OptimizelyUserContext user, AudienceMemo memo) {
+            Boolean result = operand.evaluate(user, memo);
+            return result == null ? null : !result;
+        }
+    }
+
+    private static final class AudienceNode implements Node {
+        private final Audience audience;
+        private final Node conditions;
+        private final ProjectConfig projectConfig;
+        private final int audienceIndex;
+
+        private AudienceNode(Audience audience, Node conditions, ProjectConfig projectConfig, int audienceIndex) {
+            this.audience = audience;
+            this.conditions = conditions;
+            this.projectConfig = projectConfig;
+            this.audienceIndex = audienceIndex;
+        }
+
+        @Override
+        public Boolean evaluate(OptimizelyUserContext user, AudienceMemo memo) {
+            boolean memoize = memo != null && memo.isFor(projectConfig, audienceIndex);
+            if (memoize) {
+                byte memoized = memo.get(audienceIndex);
+                if (memoized != AudienceMemo.UNKNOWN) {
+                    Boolean result = AudienceMemo.toResult(memoized);
+                    logger.debug("Audience \"{}\" already evaluated to {}.", audience.getId(), result);
+                    return result;
+                }
+            }
+
+            logger.debug("Starting to evaluate audience \"{}\" with conditions: {}.", audience.getId(), audience.getConditions());
+            Boolean result = conditions.evaluate(user, memo);
+            logger.debug("Audience \"{}\" evaluated to {}.", audience.getId(), result);
+            if (memoize) {
+                memo.put(audienceIndex, result);
+            }
+            return result;
+        }
+    }
+
+    private static final class LeafNode implements Node {
+        private final UserAttribute<?> attribute;
+        @Nullable
+        private final Match matcher;
+        private final Object conditionValue;
+
+        private LeafNode(UserAttribute<?> attribute, @Nullable Match matcher, Object conditionValue) {
+            this.attribute = attribute;
+            this.matcher = matcher;
+            this.conditionValue = conditionValue;
+        }
+
+        @Override
+        public Boolean evaluate(OptimizelyUserContext user, AudienceMemo memo) {
+            return attribute.evaluate(user, matcher, conditionValue);
+        }
+    }
+
+    /**
+     * A leaf comparing a numeric attribute with a number, as primitives when the attribute value is a valid number.
+     */
+    private static final class NumericLeafNode implements Node {
+        private final UserAttribute<?> attribute;
+        private final NumericMatch matcher;
+        private final Object conditionValue;
+        private final double numericConditionValue;
+
+        private NumericLeafNode(UserAttribute<?> attribute, NumericMatch matcher, Object conditionValue) {
+            this.attribute = attribute;
+            this.matcher = matcher;
+            this.conditionValue = conditionValue;
+            this.numericConditionValue = ((Number) conditionValue).doubleValue();
+        }
+
+        @Override
+        public Boolean evaluate(OptimizelyUserContext user, AudienceMemo memo) {
+            Object attributeValue = user.getAttributes().get(attribute.getName());
+            if (attributeValue instanceof Integer) {
+                return matcher.evalNumbers(numericConditionValue, (Integer) attributeValue);
+            }
+            if (attributeValue instanceof Double || attributeValue instanceof Float) {
+                double value = ((Number) attributeValue).doubleValue();
+                if (isValidNumber(value)) {
+                    return matcher.evalNumbers(numericConditionValue, value);
+                }
+            } else if (attributeValue instanceof Long) {
+                long value = (Long) attributeValue;
+                if (isValidNumber(value)) {
+                    return matcher.evalNumbers(numericConditionValue, value);
+                }
+            }
+            // missing, null, out of range or not a number, evaluated as a condition to report why
+            return attribute.evaluate(user, matcher, conditionValue);
+        }
+    }
+}
@@ -35,11 +35,15 @@ import java.util.Objects;
  * The AudienceIdCondition is a holder for the audience id in
  * {@link com.optimizely.ab.config.Experiment#audienceConditions auienceConditions}.
  * If the audienceId is not resolved at evaluation time, the
- * condition will fail.  AudienceIdConditions are resolved when the ProjectConfig is passed into evaluate.
+ * condition will fail.  AudienceIdConditions are resolved from the ProjectConfig passed into evaluate, or else from
+ * the audience given when they were created. Evaluating never writes to the condition, so a condition can be shared
+ * by concurrent evaluations.
  */
+@Immutable
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class AudienceIdCondition<T> implements Condition<T> {
-    private Audience audience;
+    @Nullable
+    final private Audience audience;
     final private String audienceId;
 
     final private static Logger logger = LoggerFactory.getLogger(AudienceIdCondition.class);
@@ -51,17 +55,25 @@ public class AudienceIdCondition<T> implements Condition<T> {
      */
     @JsonCreator
     public AudienceIdCondition(String audienceId) {
+        this(audienceId, null);
+    }
+
+    /**
+     * Constructor for a condition already resolved to its audience.
+     *
+     * @param audienceId The audience id
+     * @param audience   The audience to evaluate when no ProjectConfig is passed into evaluate
+     */
+    public AudienceIdCondition(String audienceId, @Nullable Audience audience) {
         this.audienceId = audienceId;
+        this.audience = audience;
     }
 
+    @Nullable
     public Audience getAudience() {
         return audience;
     }
 
-    public void setAudience(Audience audience) {
-        this.audience = audience;
-    }
-
     public String getAudienceId() {
         return audienceId;
     }
@@ -74,9 +86,7 @@ public class AudienceIdCondition<T> implements Condition<T> {
     @Nullable
     @Override
     public Boolean evaluate(ProjectConfig config, OptimizelyUserContext user) {
-        if (config != null) {
-            audience = config.getAudienceIdMapping().get(audienceId);
-        }
+        Audience audience = config != null ? config.getAudienceIdMapping().get(audienceId) : this.audience;
         if (audience == null) {
             logger.error("Audience {} could not be found.", audienceId);
             return null;
@@ -0,0 +1,72 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.config.audience;
+
+import com.optimizely.ab.config.ProjectConfig;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * The audience results of one user for the duration of one decision call, so that an audience referenced by several
+ * flags, experiments and rollout rules is evaluated once. Memos are created by {@link AudienceEvaluator} on first use
+ * within a decision call and are internal to the SDK.
+ * <p>
+ * Results are kept by the dense audience index of the {@link ProjectConfig} the memo was created for, and are only
+ * used by {@link AudienceEvaluator}s compiled against that same config. Flags decided concurrently may share a memo:
+ * every audience result is a single byte written with the same value by whichever thread evaluates it first, so a
+ * thread that misses another's write only evaluates the audience again.
+ */
+public final class AudienceMemo {
+
+    static final byte UNKNOWN = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte NULL = 3;
+
+    private final ProjectConfig projectConfig;
+    private final byte[] results;
+
+    /**
+     * @param projectConfig The config of the decision call
+     */
+    AudienceMemo(@Nonnull ProjectConfig projectConfig) {
+        Map<String, Audience> audienceIdMapping = projectConfig.getAudienceIdMapping();
+        this.projectConfig = projectConfig;
+        this.results = new byte[audienceIdMapping != null ? audienceIdMapping.size() : 0];
+    }
+
+    boolean isFor(ProjectConfig projectConfig) {
+        return this.projectConfig == projectConfig;
+    }
+
+    boolean isFor(ProjectConfig projectConfig, int audienceIndex) {
+        return this.projectConfig == projectConfig && audienceIndex < results.length;
+    }
+
+    byte get(int audienceIndex) {
+        return results[audienceIndex];
+    }
+
+    void put(int audienceIndex, Boolean result) {
+        results[audienceIndex] = result == null ? NULL : result ? TRUE : FALSE;
+    }
+
+    static Boolean toResult(byte memoized) {
+        return memoized == NULL ? null : memoized == TRUE;
+    }
+}
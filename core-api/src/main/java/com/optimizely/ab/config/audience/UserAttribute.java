@@ -76,11 +76,24 @@ public class UserAttribute<T> extends LeafCondition<T> {
 
     @Nullable
     public Boolean evaluate(ProjectConfig config, OptimizelyUserContext user) {
+        return evaluate(user, null, value);
+    }
+
+    /**
+     * Evaluate this condition with a matcher and condition value resolved ahead of time.
+     *
+     * @param user           The user context to evaluate
+     * @param matcher        The matcher of this condition, or null to look it up in the {@link MatchRegistry}
+     * @param conditionValue The condition value passed to the matcher
+     * @return The result of the match, or null when it is unknown
+     */
+    @Nullable
+    Boolean evaluate(OptimizelyUserContext user, @Nullable Match matcher, Object conditionValue) {
         Map<String,Object> attributes = user.getAttributes();
         // Valid for primitive types, but needs to change when a value is an object or an array
         Object userAttributeValue = attributes.get(name);
 
-        if (!isValidType(type)) {
+        if (!isValidType()) {
             logger.warn("Audience condition \"{}\" uses an unknown condition type. You may need to upgrade to a newer release of the Optimizely SDK.", this);
             return null; // unknown type
         }
@@ -94,8 +107,10 @@ public class UserAttribute<T> extends LeafCondition<T> {
                 throw new UnknownValueTypeException();
             }
             // Handle other conditions
-            Match matcher = MatchRegistry.getMatch(match);
-            Boolean result = matcher.eval(value, userAttributeValue);
+            if (matcher == null) {
+                matcher = MatchRegistry.getMatch(match);
+            }
+            Boolean result = matcher.eval(conditionValue, matcher.prepareAttributeValue(user, userAttributeValue));
             if (result == null) {
                 throw new UnknownValueTypeException();
             }
@@ -128,7 +143,7 @@ public class UserAttribute<T> extends LeafCondition<T> {
         return null;
     }
 
-    private boolean isValidType(String type) {
+    boolean isValidType() {
         if (ATTRIBUTE_TYPE.contains(type)) {
             return true;
         }
@@ -25,7 +25,7 @@ import static com.optimizely.ab.internal.AttributesUtil.isValidNumber;
  * before the comparison is evaluated. See {@link NumberComparator} Strings and Booleans are evaulated
  * via the Object equals method.
  */
-class ExactMatch implements Match {
+class ExactMatch implements NumericMatch {
     @Nullable
     public Boolean eval(Object conditionValue, Object attributeValue) throws UnexpectedValueTypeException {
         if (attributeValue == null) return null;
@@ -47,4 +47,14 @@ class ExactMatch implements Match {
 
         return conditionValue.equals(attributeValue);
     }
+
+    @Override
+    public Object prepareConditionValue(Object conditionValue) {
+        return NumberComparator.prepare(conditionValue);
+    }
+
+    @Override
+    public boolean evalNumbers(double conditionValue, double attributeValue) {
+        return Double.compare(attributeValue, conditionValue) == 0;
+    }
 }
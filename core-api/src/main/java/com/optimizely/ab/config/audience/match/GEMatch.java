@@ -21,9 +21,19 @@ import javax.annotation.Nullable;
 /**
  * GEMatch performs a "greater than or equal to" number comparison via {@link NumberComparator}.
  */
-class GEMatch implements Match {
+class GEMatch implements NumericMatch {
     @Nullable
     public Boolean eval(Object conditionValue, Object attributeValue) throws UnknownValueTypeException {
         return NumberComparator.compare(attributeValue, conditionValue) >= 0;
     }
+
+    @Override
+    public Object prepareConditionValue(Object conditionValue) {
+        return NumberComparator.prepare(conditionValue);
+    }
+
+    @Override
+    public boolean evalNumbers(double conditionValue, double attributeValue) {
+        return Double.compare(attributeValue, conditionValue) >= 0;
+    }
 }
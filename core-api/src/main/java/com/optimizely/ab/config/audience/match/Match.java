@@ -16,9 +16,34 @@
  */
 package com.optimizely.ab.config.audience.match;
 
+import com.optimizely.ab.OptimizelyUserContext;
+
 import javax.annotation.Nullable;
 
 public interface Match {
     @Nullable
     Boolean eval(Object conditionValue, Object attributeValue) throws UnexpectedValueTypeException, UnknownValueTypeException;
+
+    /**
+     * Convert a condition value once, when audience conditions are compiled. The result is what {@link #eval}
+     * receives as the condition value of compiled conditions, so it must evaluate exactly like the original.
+     *
+     * @param conditionValue The condition value from the datafile
+     * @return The condition value to evaluate with, the given value by default
+     */
+    default Object prepareConditionValue(Object conditionValue) {
+        return conditionValue;
+    }
+
+    /**
+     * Convert a user attribute value before it is evaluated. The result is what {@link #eval} receives as the
+     * attribute value, so it must evaluate exactly like the original.
+     *
+     * @param user           The user context the attribute value belongs to
+     * @param attributeValue The attribute value of the user
+     * @return The attribute value to evaluate with, the given value by default
+     */
+    default Object prepareAttributeValue(OptimizelyUserContext user, Object attributeValue) {
+        return attributeValue;
+    }
 }
@@ -31,6 +31,14 @@ public class NumberComparator {
         return compareUnsafe(o1, o2);
     }
 
+    /**
+     * Converts a valid number to a Double, which compares exactly like the original number. Other values are
+     * returned as they are.
+     */
+    static Object prepare(Object conditionValue) {
+        return isValidNumber(conditionValue) ? Double.valueOf(((Number) conditionValue).doubleValue()) : conditionValue;
+    }
+
     /**
      * compareUnsafe is provided to avoid checking the input values are numbers. It's assumed that the inputs
      * are known to be Numbers.
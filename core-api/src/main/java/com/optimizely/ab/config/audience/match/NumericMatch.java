@@ -0,0 +1,32 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.config.audience.match;
+
+/**
+ * NumericMatch is a {@link Match} that compares numbers. When the condition value and the attribute value are both
+ * valid numbers, {@link #eval(Object, Object)} returns what {@link #evalNumbers(double, double)} returns for their
+ * double values, so compiled audience conditions can compare them as primitives.
+ */
+public interface NumericMatch extends Match {
+
+    /**
+     * @param conditionValue The condition value, a valid number
+     * @param attributeValue The attribute value, a valid number
+     * @return The result of the match
+     */
+    boolean evalNumbers(double conditionValue, double attributeValue);
+}
@@ -16,9 +16,12 @@
  */
 package com.optimizely.ab.config.audience.match;
 
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.internal.UserContextAccessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -28,21 +31,45 @@ import static com.optimizely.ab.internal.AttributesUtil.stringIsNullOrEmpty;
 
 /**
  * SemanticVersion implements the specification for the purpose of comparing two Versions.
+ * <p>
+ * The version is parsed once, when it is created, so comparing two instances neither splits strings nor allocates.
  */
 public final class SemanticVersion {
 
     private static final Logger logger = LoggerFactory.getLogger(SemanticVersion.class);
     private static final String BUILD_SEPERATOR = "\\+";
     private static final String PRE_RELEASE_SEPERATOR = "-";
+    // marks a version part that is not a number
+    private static final long NOT_NUMERIC = Long.MIN_VALUE;
 
     private final String version;
+    // the split version, or null when the version is not valid
+    @Nullable
+    private final String[] parts;
+    private final long[] numericParts;
+    private final boolean preRelease;
 
     public SemanticVersion(String version) {
         this.version = version;
+
+        String[] parts = null;
+        try {
+            parts = splitSemanticVersion();
+        } catch (Exception e) {
+            // left null, comparing reports the invalid version
+        }
+        this.parts = parts;
+        this.numericParts = new long[parts != null ? parts.length : 0];
+        for (int index = 0; index < numericParts.length; index++) {
+            Integer numericPart = parseNumeric(parts[index]);
+            numericParts[index] = numericPart != null ? numericPart : NOT_NUMERIC;
+        }
+        this.preRelease = version != null && isPreRelease();
     }
 
     /**
      * compare takes object inputs and coerces them into SemanticVersion objects before performing the comparison.
+     * Inputs that are already SemanticVersion objects are compared without being parsed again.
      * If the input values cannot be coerced then an {@link UnexpectedValueTypeException} is thrown.
      *
      * @param o1    The object to be compared
@@ -51,9 +78,9 @@ public final class SemanticVersion {
      * @throws UnexpectedValueTypeException when an error is detected while comparing
      */
     public static int compare(Object o1, Object o2) throws UnexpectedValueTypeException {
-        if (o1 instanceof String && o2 instanceof String) {
-            SemanticVersion v1 = new SemanticVersion((String) o1);
-            SemanticVersion v2 = new SemanticVersion((String) o2);
+        SemanticVersion v1 = toSemanticVersion(o1);
+        SemanticVersion v2 = toSemanticVersion(o2);
+        if (v1 != null && v2 != null) {
             try {
                 return v1.compare(v2);
             } catch (Exception e) {
@@ -64,48 +91,89 @@ public final class SemanticVersion {
         throw new UnexpectedValueTypeException();
     }
 
+    /**
+     * Parse a version string into a SemanticVersion, and leave any other value as it is.
+     *
+     * @param value The value to parse
+     * @return The parsed version, or the given value when it is not a String
+     */
+    static Object prepare(Object value) {
+        return value instanceof String ? new SemanticVersion((String) value) : value;
+    }
+
+    /**
+     * Parse a version string of a user attribute once for the user context, and leave any other value as it is.
+     *
+     * @param user  The user context the value belongs to
+     * @param value The value to parse
+     * @return The parsed version, or the given value when it is not a String
+     */
+    static Object prepare(OptimizelyUserContext user, Object value) {
+        return value instanceof String ? UserContextAccessor.getSemanticVersion(user, (String) value) : value;
+    }
+
+    @Nullable
+    private static SemanticVersion toSemanticVersion(Object value) {
+        if (value instanceof SemanticVersion) {
+            return (SemanticVersion) value;
+        }
+        return value instanceof String ? new SemanticVersion((String) value) : null;
+    }
+
     public int compare(SemanticVersion targetedVersion) throws Exception {
 
         if (targetedVersion == null || stringIsNullOrEmpty(targetedVersion.version)) {
             return 0;
         }
 
-        String[] targetedVersionParts = targetedVersion.splitSemanticVersion();
-        String[] userVersionParts = splitSemanticVersion();
+        String[] targetedVersionParts = targetedVersion.getParts();
+        String[] userVersionParts = getParts();
 
         for (int index = 0; index < targetedVersionParts.length; index++) {
 
             if (userVersionParts.length <= index) {
-                return targetedVersion.isPreRelease() ? 1 : -1;
+                return targetedVersion.preRelease ? 1 : -1;
             }
-            Integer targetVersionPartInt = parseNumeric(targetedVersionParts[index]);
-            Integer userVersionPartInt = parseNumeric(userVersionParts[index]);
+            long targetVersionPart = targetedVersion.numericParts[index];
+            long userVersionPart = numericParts[index];
 
-            if (userVersionPartInt == null) {
+            if (userVersionPart == NOT_NUMERIC) {
                 // Compare strings
                 int result = userVersionParts[index].compareTo(targetedVersionParts[index]);
                 if (result < 0) {
-                    return targetedVersion.isPreRelease() && !isPreRelease() ? 1 : -1;
+                    return targetedVersion.preRelease && !preRelease ? 1 : -1;
                 } else if (result > 0) {
-                    return !targetedVersion.isPreRelease() && isPreRelease() ? -1 : 1;
+                    return !targetedVersion.preRelease && preRelease ? -1 : 1;
                 }
-            } else if (targetVersionPartInt != null) {
-                if (!userVersionPartInt.equals(targetVersionPartInt)) {
-                    return userVersionPartInt < targetVersionPartInt ? -1 : 1;
+            } else if (targetVersionPart != NOT_NUMERIC) {
+                if (userVersionPart != targetVersionPart) {
+                    return userVersionPart < targetVersionPart ? -1 : 1;
                 }
             } else {
                 return -1;
             }
         }
 
-        if (!targetedVersion.isPreRelease() &&
-            isPreRelease()) {
+        if (!targetedVersion.preRelease &&
+            preRelease) {
             return -1;
         }
 
         return 0;
     }
 
+    private String[] getParts() throws Exception {
+        if (parts == null) {
+            throw new Exception("Invalid Semantic Version.");
+        }
+        return parts;
+    }
+
+    @Override
+    public String toString() {
+        return version;
+    }
+
     public boolean isPreRelease() {
         int buildIndex = version.indexOf("+");
         int preReleaseIndex = version.indexOf("-");
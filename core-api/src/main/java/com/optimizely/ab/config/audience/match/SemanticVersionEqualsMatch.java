@@ -16,6 +16,8 @@
  */
 package com.optimizely.ab.config.audience.match;
 
+import com.optimizely.ab.OptimizelyUserContext;
+
 import javax.annotation.Nullable;
 
 /**
@@ -27,4 +29,14 @@ class SemanticVersionEqualsMatch implements Match {
         if (attributeValue == null) return null;  // stay silent (no WARNING) when attribute value is missing or empty.
         return SemanticVersion.compare(attributeValue, conditionValue) == 0;
     }
+
+    @Override
+    public Object prepareConditionValue(Object conditionValue) {
+        return SemanticVersion.prepare(conditionValue);
+    }
+
+    @Override
+    public Object prepareAttributeValue(OptimizelyUserContext user, Object attributeValue) {
+        return SemanticVersion.prepare(user, attributeValue);
+    }
 }
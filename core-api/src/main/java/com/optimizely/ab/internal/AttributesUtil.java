@@ -19,6 +19,9 @@ package com.optimizely.ab.internal;
 
 public class AttributesUtil {
 
+    // Math.pow(2, 53), the largest magnitude up to which every integer is exactly representable as a double
+    private static final long MAX_NUMBER = 1L << 53;
+
     /**
      * Validate that value is not infinite, NAN or greater than Math.pow(2, 53).
      *
@@ -27,16 +30,36 @@ public class AttributesUtil {
      */
     public static boolean isValidNumber(Object value) {
         if (value instanceof Integer) {
-            return Math.abs((Integer) value) <= Math.pow(2, 53);
+            // every int is within Math.pow(2, 53)
+            return true;
         } else if (value instanceof Double || value instanceof Float) {
-            Double doubleValue = ((Number) value).doubleValue();
-            return !(doubleValue.isNaN() || doubleValue.isInfinite() || Math.abs(doubleValue) > Math.pow(2, 53));
+            return isValidNumber(((Number) value).doubleValue());
         } else if (value instanceof Long) {
-            return Math.abs((Long) value) <= Math.pow(2, 53);
+            return isValidNumber(((Long) value).longValue());
         }
         return false;
     }
 
+    /**
+     * Validate that a double is not infinite, NAN or greater than Math.pow(2, 53).
+     *
+     * @param value attribute value or condition value.
+     * @return boolean value of is valid or not.
+     */
+    public static boolean isValidNumber(double value) {
+        return !(Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) > MAX_NUMBER);
+    }
+
+    /**
+     * Validate that a long is not greater than Math.pow(2, 53).
+     *
+     * @param value attribute value or condition value.
+     * @return boolean value of is valid or not.
+     */
+    public static boolean isValidNumber(long value) {
+        return Math.abs(value) <= MAX_NUMBER;
+    }
+
     /**
      * Parse and validate that String is parse able to integer.
      *
@@ -26,4 +26,20 @@ public interface Cache<T> {
         // Default implementation does nothing
         // Implementations should override this method to provide actual removal functionality
     }
+
+    /**
+     * Record the time spent fetching a value after a lookup missed, so it is included in {@link #getStats()}.
+     *
+     * @param loadTimeNanos The fetch time in nanoseconds
+     */
+    default void recordLoad(long loadTimeNanos) {
+        // Default implementation does nothing
+    }
+
+    /**
+     * @return A snapshot of the cache statistics, or {@link CacheStats#empty()} when the cache does not record them.
+     */
+    default CacheStats getStats() {
+        return CacheStats.empty();
+    }
 }
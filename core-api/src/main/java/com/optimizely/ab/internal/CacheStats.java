@@ -0,0 +1,143 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.internal;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An immutable snapshot of the statistics of a {@link Cache}.
+ * <p>
+ * Counts are cumulative since the cache was created; {@link Cache#reset()} clears the entries but not the statistics.
+ * Load counts and times are reported by the callers that fetch missing values, see {@link Cache#recordLoad(long)}.
+ */
+@Immutable
+public final class CacheStats {
+
+    private static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long expirationCount;
+    private final long evictionCount;
+    private final int size;
+    private final long loadCount;
+    private final long totalLoadTimeNanos;
+
+    public CacheStats(long hitCount,
+                      long missCount,
+                      long expirationCount,
+                      long evictionCount,
+                      int size,
+                      long loadCount,
+                      long totalLoadTimeNanos) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.expirationCount = expirationCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.loadCount = loadCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+    }
+
+    /**
+     * @return the stats of a cache that does not record statistics.
+     */
+    public static CacheStats empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the number of lookups that returned a cached value.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of lookups that found no value, including lookups of expired values.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of values dropped because they were older than the cache timeout.
+     */
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * @return the number of values dropped to keep the cache within its maximum size.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the number of values in the cache when the snapshot was taken.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of values fetched after a miss.
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * @return the total time spent fetching values after a miss, in nanoseconds.
+     */
+    public long getTotalLoadTimeNanos() {
+        return totalLoadTimeNanos;
+    }
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * @return the ratio of lookups that returned a cached value, or 1.0 when there were no lookups.
+     */
+    public double getHitRate() {
+        long requestCount = getRequestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return the average time spent fetching a value after a miss in nanoseconds, or 0.0 when nothing was loaded.
+     */
+    public double getAverageLoadTimeNanos() {
+        return loadCount == 0 ? 0.0 : (double) totalLoadTimeNanos / loadCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+            "hitCount=" + hitCount +
+            ", missCount=" + missCount +
+            ", expirationCount=" + expirationCount +
+            ", evictionCount=" + evictionCount +
+            ", size=" + size +
+            ", loadCount=" + loadCount +
+            ", totalLoadTimeNanos=" + totalLoadTimeNanos +
+            '}';
+    }
+}
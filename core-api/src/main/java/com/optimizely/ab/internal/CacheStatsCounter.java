@@ -0,0 +1,64 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counters behind the {@link CacheStats} of a {@link Cache} implementation.
+ */
+public class CacheStatsCounter {
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+
+    public void recordHit() {
+        hitCount.increment();
+    }
+
+    public void recordMiss() {
+        missCount.increment();
+    }
+
+    public void recordExpiration() {
+        expirationCount.increment();
+    }
+
+    public void recordEviction() {
+        evictionCount.increment();
+    }
+
+    public void recordLoad(long loadTimeNanos) {
+        loadCount.increment();
+        totalLoadTimeNanos.add(loadTimeNanos);
+    }
+
+    public CacheStats snapshot(int size) {
+        return new CacheStats(
+            hitCount.sum(),
+            missCount.sum(),
+            expirationCount.sum(),
+            evictionCount.sum(),
+            size,
+            loadCount.sum(),
+            totalLoadTimeNanos.sum());
+    }
+}
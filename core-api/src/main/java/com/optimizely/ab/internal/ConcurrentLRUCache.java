@@ -0,0 +1,196 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.optimizely.ab.annotations.VisibleForTesting;
+
+/**
+ * A thread-safe LRU {@link Cache} where lookups do not take a lock.
+ * <p>
+ * Entries are kept in a {@link ConcurrentHashMap}. A hit reads the map and records the access time on the entry, so
+ * concurrent lookups never serialize on a shared lock the way they do in {@link DefaultLRUCache}. When a save grows
+ * the cache beyond its maximum size, the least recently used entries are evicted in one batch by whichever thread
+ * acquires the eviction lock; saves that find eviction already in progress return immediately. Eviction is therefore
+ * approximately LRU, and the cache can briefly hold more than its maximum size while another thread is evicting.
+ * <p>
+ * Entry age is measured with {@link System#nanoTime()}, so expiry is not affected by wall-clock changes.
+ *
+ * @param <T> The type of the cached values
+ */
+public class ConcurrentLRUCache<T> implements Cache<T> {
+
+    /**
+     * Each eviction removes 1/16th of the maximum size beyond the overflow, so its cost is amortized over the saves
+     * that follow it.
+     */
+    private static final int EVICTION_BATCH_SHIFT = 4;
+
+    private final int maxSize;
+
+    private final int evictionTargetSize;
+
+    private final long timeoutNanos;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final CacheStatsCounter statsCounter = new CacheStatsCounter();
+
+    @VisibleForTesting
+    final ConcurrentHashMap<String, CacheEntity<T>> map = new ConcurrentHashMap<>();
+
+    public ConcurrentLRUCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TIMEOUT_SECONDS);
+    }
+
+    public ConcurrentLRUCache(Integer maxSize, Integer timeoutSeconds) {
+        this.maxSize = maxSize < 0 ? 0 : maxSize;
+        this.evictionTargetSize = this.maxSize - (this.maxSize >>> EVICTION_BATCH_SHIFT);
+        this.timeoutNanos = timeoutSeconds < 0 ? 0 : TimeUnit.SECONDS.toNanos(timeoutSeconds);
+    }
+
+    @Override
+    public void save(String key, T value) {
+        if (maxSize == 0) {
+            // Cache is disabled when maxSize = 0
+            return;
+        }
+
+        map.put(key, new CacheEntity<>(value, System.nanoTime()));
+        if (map.size() > maxSize) {
+            evict();
+        }
+    }
+
+    @Override
+    public T lookup(String key) {
+        if (maxSize == 0) {
+            // Cache is disabled when maxSize = 0
+            statsCounter.recordMiss();
+            return null;
+        }
+
+        CacheEntity<T> entity = map.get(key);
+        if (entity == null) {
+            statsCounter.recordMiss();
+            return null;
+        }
+
+        long nowNanos = System.nanoTime();
+        // ttl = 0 means entities never expire.
+        if (timeoutNanos != 0 && nowNanos - entity.createdNanos >= timeoutNanos) {
+            if (map.remove(key, entity)) {
+                statsCounter.recordExpiration();
+            }
+            statsCounter.recordMiss();
+            return null;
+        }
+
+        entity.accessedNanos = nowNanos;
+        statsCounter.recordHit();
+        return entity.value;
+    }
+
+    @Override
+    public void reset() {
+        map.clear();
+    }
+
+    @Override
+    public void remove(String key) {
+        if (maxSize == 0) {
+            // Cache is disabled when maxSize = 0
+            return;
+        }
+        map.remove(key);
+    }
+
+    @Override
+    public void recordLoad(long loadTimeNanos) {
+        statsCounter.recordLoad(loadTimeNanos);
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return statsCounter.snapshot(map.size());
+    }
+
+    /**
+     * Evict the least recently used entries until the cache is back to its eviction target size.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            // another thread is already evicting
+            return;
+        }
+        try {
+            // saves that skipped eviction while the lock was held are covered by checking the size again
+            while (map.size() > maxSize) {
+                evictLeastRecentlyUsed();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        List<CacheEntity<T>> entities = new ArrayList<>(map.values());
+        int evictCount = entities.size() - evictionTargetSize;
+        if (evictCount <= 0) {
+            return;
+        }
+
+        // nanoTime values may only be compared by their difference, so sort the ages relative to now
+        long nowNanos = System.nanoTime();
+        long[] ages = new long[entities.size()];
+        for (int i = 0; i < ages.length; i++) {
+            ages[i] = nowNanos - entities.get(i).accessedNanos;
+        }
+        Arrays.sort(ages);
+        long minAge = ages[ages.length - evictCount];
+
+        for (Map.Entry<String, CacheEntity<T>> entry : map.entrySet()) {
+            if (evictCount == 0) {
+                break;
+            }
+            if (nowNanos - entry.getValue().accessedNanos >= minAge && map.remove(entry.getKey(), entry.getValue())) {
+                statsCounter.recordEviction();
+                evictCount--;
+            }
+        }
+    }
+
+    @VisibleForTesting
+    static class CacheEntity<T> {
+        final T value;
+        final long createdNanos;
+        volatile long accessedNanos;
+
+        CacheEntity(T value, long createdNanos) {
+            this.value = value;
+            this.createdNanos = createdNanos;
+            this.accessedNanos = createdNanos;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.internal;
+
+import com.optimizely.ab.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor running async decisions and segment fetches when none is configured.
+ * <p>
+ * On JDK 21+ every task gets a virtual thread. On older JDKs tasks share a pool of daemon threads, whose threads exit
+ * after a minute without work. Async calls block on CMAB and ODP requests, so the pool has several threads per
+ * processor. Its queue is bounded: once it is full, tasks are rejected and the callers run them on their own thread.
+ * The executor is shared by all Optimizely instances and is never shut down.
+ */
+public final class DefaultAsyncExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultAsyncExecutor.class);
+
+    public static final int DEFAULT_POOL_SIZE = Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private DefaultAsyncExecutor() {
+    }
+
+    /**
+     * @return The shared default executor, created on first use.
+     */
+    public static Executor getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static class Holder {
+        static final ExecutorService INSTANCE = create();
+    }
+
+    private static ExecutorService create() {
+        try {
+            Method newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+            logger.debug("Running async Optimizely calls on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // virtual threads are not available before JDK 21
+        }
+
+        return newThreadPool(DEFAULT_POOL_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    @VisibleForTesting
+    static ExecutorService newThreadPool(int poolSize, int queueCapacity) {
+        final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+        final AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = threadFactory.newThread(runnable);
+                thread.setName("optimizely-async-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -30,12 +30,18 @@ public class DefaultLRUCache<T> implements Cache<T> {
     private final Integer maxSize;
 
     private final Long timeoutMillis;
-    
+
+    private final CacheStatsCounter statsCounter = new CacheStatsCounter();
+
     @VisibleForTesting
     final LinkedHashMap<String, CacheEntity> linkedHashMap = new LinkedHashMap<String, CacheEntity>(16, 0.75f, true) {
         @Override
         protected boolean removeEldestEntry(Map.Entry<String, CacheEntity> eldest) {
-            return this.size() > maxSize;
+            if (this.size() > maxSize) {
+                statsCounter.recordEviction();
+                return true;
+            }
+            return false;
         }
     };
 
@@ -65,6 +71,7 @@ public class DefaultLRUCache<T> implements Cache<T> {
     public T lookup(String key) {
         if (maxSize == 0) {
             // Cache is disabled when maxSize = 0
+            statsCounter.recordMiss();
             return null;
         }
 
@@ -76,11 +83,14 @@ public class DefaultLRUCache<T> implements Cache<T> {
 
                 // ttl = 0 means entities never expire.
                 if (timeoutMillis == 0 || (nowMs - entity.timestamp < timeoutMillis)) {
+                    statsCounter.recordHit();
                     return entity.value;
                 }
 
                 linkedHashMap.remove(key);
+                statsCounter.recordExpiration();
             }
+            statsCounter.recordMiss();
             return null;
         } finally {
             lock.unlock();
@@ -110,6 +120,21 @@ public class DefaultLRUCache<T> implements Cache<T> {
         }
     }
 
+    @Override
+    public void recordLoad(long loadTimeNanos) {
+        statsCounter.recordLoad(loadTimeNanos);
+    }
+
+    @Override
+    public CacheStats getStats() {
+        lock.lock();
+        try {
+            return statsCounter.snapshot(linkedHashMap.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
     private class CacheEntity {
         public T value;
         public Long timestamp;
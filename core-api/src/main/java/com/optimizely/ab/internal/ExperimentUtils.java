@@ -28,6 +28,7 @@ import com.optimizely.ab.OptimizelyUserContext;
 import com.optimizely.ab.config.Experiment;
 import com.optimizely.ab.config.ExperimentCore;
 import com.optimizely.ab.config.ProjectConfig;
+import com.optimizely.ab.config.audience.AudienceEvaluator;
 import com.optimizely.ab.config.audience.AudienceIdCondition;
 import com.optimizely.ab.config.audience.Condition;
 import com.optimizely.ab.config.audience.OrCondition;
@@ -101,17 +102,20 @@ public final class ExperimentUtils {
             return new DecisionResponse(true, reasons);
         }
 
-        List<Condition> conditions = new ArrayList<>();
-        for (String audienceId : experimentAudienceIds) {
-            AudienceIdCondition condition = new AudienceIdCondition(audienceId);
-            conditions.add(condition);
+        AudienceEvaluator audienceEvaluator = projectConfig.getAudienceEvaluator(experiment);
+        List<Condition> conditions = null;
+        // compiled audiences only need the implicit OR conditions for the log
+        if (audienceEvaluator == null || logger.isDebugEnabled()) {
+            conditions = new ArrayList<>();
+            for (String audienceId : experimentAudienceIds) {
+                AudienceIdCondition condition = new AudienceIdCondition(audienceId);
+                conditions.add(condition);
+            }
         }
 
-        OrCondition implicitOr = new OrCondition(conditions);
-
         logger.debug("Evaluating audiences for {} \"{}\": {}.", loggingEntityType, loggingKey, conditions);
 
-        Boolean result = implicitOr.evaluate(projectConfig, user);
+        Boolean result = audienceEvaluator != null ? audienceEvaluator.evaluate(user) : new OrCondition(conditions).evaluate(projectConfig, user);
         String message = reasons.addInfo("Audiences for %s \"%s\" collectively evaluated to %s.", loggingEntityType, loggingKey, result);
         logger.info(message);
 
@@ -129,9 +133,10 @@ public final class ExperimentUtils {
         Condition conditions = experiment.getAudienceConditions();
         if (conditions == null) return new DecisionResponse(null, reasons);
 
+        AudienceEvaluator audienceEvaluator = projectConfig.getAudienceEvaluator(experiment);
         Boolean result = null;
         try {
-            result = conditions.evaluate(projectConfig, user);
+            result = audienceEvaluator != null ? audienceEvaluator.evaluate(user) : conditions.evaluate(projectConfig, user);
             String message = reasons.addInfo("Audiences for %s \"%s\" collectively evaluated to %s.", loggingEntityType, loggingKey, result);
             logger.info(message);
         } catch (Exception e) {
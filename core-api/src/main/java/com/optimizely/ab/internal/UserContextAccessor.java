@@ -0,0 +1,69 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.internal;
+
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.config.audience.AudienceMemo;
+import com.optimizely.ab.config.audience.match.SemanticVersion;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Gives the SDK internals access to the state an {@link OptimizelyUserContext} keeps for audience evaluation, which
+ * is not part of the user context API. The implementation is registered by {@link OptimizelyUserContext} when it is loaded.
+ */
+public abstract class UserContextAccessor {
+
+    private static volatile UserContextAccessor instance;
+
+    /**
+     * Register the implementation. Only the first registration is kept.
+     *
+     * @param accessor The implementation
+     */
+    public static synchronized void register(@Nonnull UserContextAccessor accessor) {
+        if (instance == null) {
+            instance = accessor;
+        }
+    }
+
+    /**
+     * @param user The user context
+     * @return The holder of the audience results of the decision call the user context was created for, or null
+     * outside of one
+     */
+    @Nullable
+    public static AtomicReference<AudienceMemo> getAudienceMemo(@Nonnull OptimizelyUserContext user) {
+        return instance.audienceMemo(user);
+    }
+
+    /**
+     * @param user    The user context
+     * @param version A semantic version attribute value of the user
+     * @return The parsed semantic version, parsed once per user context
+     */
+    @Nonnull
+    public static SemanticVersion getSemanticVersion(@Nonnull OptimizelyUserContext user, @Nonnull String version) {
+        return instance.semanticVersion(user, version);
+    }
+
+    protected abstract AtomicReference<AudienceMemo> audienceMemo(OptimizelyUserContext user);
+
+    protected abstract SemanticVersion semanticVersion(OptimizelyUserContext user, String version);
+}
@@ -0,0 +1,57 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.notification;
+
+import com.optimizely.ab.internal.CacheStats;
+
+/**
+ * CacheStatsNotification carries a snapshot of the statistics of one of the SDK caches.
+ * Sent for each cache by {@link com.optimizely.ab.Optimizely#publishCacheStats()}.
+ */
+public final class CacheStatsNotification {
+
+    public static final String ODP_SEGMENTS_CACHE = "odp-segments";
+    public static final String CMAB_DECISIONS_CACHE = "cmab-decisions";
+
+    private final String cacheName;
+    private final CacheStats stats;
+
+    /**
+     * @param cacheName - The name of the cache, {@link #ODP_SEGMENTS_CACHE} or {@link #CMAB_DECISIONS_CACHE}.
+     * @param stats     - The statistics snapshot of the cache.
+     */
+    public CacheStatsNotification(String cacheName, CacheStats stats) {
+        this.cacheName = cacheName;
+        this.stats = stats;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatsNotification{" +
+            "cacheName='" + cacheName + '\'' +
+            ", stats=" + stats +
+            '}';
+    }
+}
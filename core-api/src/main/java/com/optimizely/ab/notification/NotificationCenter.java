@@ -43,6 +43,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * * {@link ActivateNotification}
  * * {@link TrackNotification}
  * * {@link DecisionNotification} with this class replacing {@link ActivateNotification}
+ * * {@link CacheStatsNotification}
  */
 public class NotificationCenter {
 
@@ -98,6 +99,7 @@ public class NotificationCenter {
         validManagers.put(DecisionNotification.class, new NotificationManager<DecisionNotification>(counter));
         validManagers.put(UpdateConfigNotification.class, new NotificationManager<UpdateConfigNotification>(counter));
         validManagers.put(LogEvent.class, new NotificationManager<LogEvent>(counter));
+        validManagers.put(CacheStatsNotification.class, new NotificationManager<CacheStatsNotification>(counter));
 
         notifierMap = Collections.unmodifiableMap(validManagers);
     }
@@ -18,14 +18,24 @@ package com.optimizely.ab.odp;
 
 import com.optimizely.ab.annotations.VisibleForTesting;
 import com.optimizely.ab.internal.Cache;
-import com.optimizely.ab.internal.DefaultLRUCache;
+import com.optimizely.ab.internal.CacheStats;
+import com.optimizely.ab.internal.ConcurrentLRUCache;
+import com.optimizely.ab.internal.DefaultAsyncExecutor;
 import com.optimizely.ab.odp.parser.ResponseJsonParser;
 import com.optimizely.ab.odp.parser.ResponseJsonParserFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nonnull;
+
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 public class ODPSegmentManager {
 
@@ -39,6 +49,11 @@ public class ODPSegmentManager {
 
     private final Cache<List<String>> segmentsCache;
 
+    private volatile Executor asyncExecutor = DefaultAsyncExecutor.getInstance();
+
+    // Fetches currently on the wire, keyed by cache key, so that concurrent misses for one user share a single call.
+    private final Map<String, CompletableFuture<List<String>>> inFlightFetches = new ConcurrentHashMap<>();
+
     public ODPSegmentManager(ODPApiManager apiManager) {
         this(apiManager, Cache.DEFAULT_MAX_SIZE, Cache.DEFAULT_TIMEOUT_SECONDS);
     }
@@ -50,7 +65,7 @@ public class ODPSegmentManager {
 
     public ODPSegmentManager(ODPApiManager apiManager, Integer cacheSize, Integer cacheTimeoutSeconds) {
         this.apiManager = apiManager;
-        this.segmentsCache = new DefaultLRUCache<>(cacheSize, cacheTimeoutSeconds);
+        this.segmentsCache = new ConcurrentLRUCache<>(cacheSize, cacheTimeoutSeconds);
     }
 
     public List<String> getQualifiedSegments(String userId) {
@@ -94,17 +109,95 @@ public class ODPSegmentManager {
 
         logger.debug("ODP Cache Miss. Making a call to ODP Server.");
 
-        qualifiedSegments = apiManager.fetchQualifiedSegments(odpConfig.getApiKey(), odpConfig.getApiHost() + SEGMENT_URL_PATH, userKey.getKeyString(), userValue, odpConfig.getAllSegments());
-        if (qualifiedSegments != null && !options.contains(ODPSegmentOption.IGNORE_CACHE)) {
-            segmentsCache.save(cacheKey, qualifiedSegments);
+        if (options.contains(ODPSegmentOption.IGNORE_CACHE)) {
+            return apiManager.fetchQualifiedSegments(odpConfig.getApiKey(), odpConfig.getApiHost() + SEGMENT_URL_PATH, userKey.getKeyString(), userValue, odpConfig.getAllSegments());
+        }
+
+        CompletableFuture<List<String>> fetch = new CompletableFuture<>();
+        CompletableFuture<List<String>> inFlight = inFlightFetches.putIfAbsent(cacheKey, fetch);
+        if (inFlight != null) {
+            logger.debug("Joining the in-flight ODP segments fetch for the same user.");
+            return awaitSegments(inFlight);
+        }
+
+        try {
+            long loadStartNanos = System.nanoTime();
+            qualifiedSegments = apiManager.fetchQualifiedSegments(odpConfig.getApiKey(), odpConfig.getApiHost() + SEGMENT_URL_PATH, userKey.getKeyString(), userValue, odpConfig.getAllSegments());
+            segmentsCache.recordLoad(System.nanoTime() - loadStartNanos);
+            if (qualifiedSegments != null) {
+                segmentsCache.save(cacheKey, qualifiedSegments);
+            }
+            fetch.complete(qualifiedSegments);
+            return qualifiedSegments;
+        } catch (Throwable t) {
+            // complete on errors too, or callers joining this fetch would wait forever
+            fetch.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlightFetches.remove(cacheKey, fetch);
+        }
+    }
+
+    private static List<String> awaitSegments(CompletableFuture<List<String>> fetch) {
+        try {
+            return fetch.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Fetch the qualified segments on the async executor.
+     *
+     * @param userKey The key of the user identifier
+     * @param userValue The user identifier
+     * @param options A set of options for fetching qualified segments
+     * @return A future of the qualified segments, completed with null when the fetch fails
+     */
+    public CompletableFuture<List<String>> getQualifiedSegmentsAsync(ODPUserKey userKey, String userValue, List<ODPSegmentOption> options) {
+        CompletableFuture<List<String>> segmentsFuture = new CompletableFuture<>();
+        Runnable fetch = () -> {
+            try {
+                segmentsFuture.complete(getQualifiedSegments(userKey, userValue, options));
+            } catch (Exception e) {
+                logger.error("Audience segments fetch failed", e);
+                segmentsFuture.complete(null);
+            } catch (Throwable t) {
+                segmentsFuture.completeExceptionally(t);
+                throw t;
+            }
+        };
+
+        try {
+            asyncExecutor.execute(fetch);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Audience segments fetch rejected by the async executor, fetching on the calling thread");
+            fetch.run();
         }
+        return segmentsFuture;
+    }
 
-        return qualifiedSegments;
+    public CompletableFuture<List<String>> getQualifiedSegmentsAsync(String userId, List<ODPSegmentOption> options) {
+        if (ODPManager.isVuid(userId)) {
+            return getQualifiedSegmentsAsync(ODPUserKey.VUID, userId, options);
+        } else {
+            return getQualifiedSegmentsAsync(ODPUserKey.FS_USER_ID, userId, options);
+        }
     }
 
     public void getQualifiedSegments(ODPUserKey userKey, String userValue, ODPSegmentFetchCallback callback, List<ODPSegmentOption> options) {
-        AsyncSegmentFetcher segmentFetcher = new AsyncSegmentFetcher(userKey, userValue, options, callback);
-        segmentFetcher.start();
+        getQualifiedSegmentsAsync(userKey, userValue, options).thenAccept(callback::onCompleted).exceptionally(ODPSegmentManager::logCallbackError);
+    }
+
+    private static Void logCallbackError(Throwable e) {
+        logger.error("Error in audience segments fetch callback", e);
+        return null;
     }
 
     public void getQualifiedSegments(ODPUserKey userKey, String userValue, ODPSegmentFetchCallback callback) {
@@ -131,33 +224,28 @@ public class ODPSegmentManager {
         this.odpConfig = odpConfig;
     }
 
+    /**
+     * Set the executor running async segment fetches, {@link DefaultAsyncExecutor} by default.
+     *
+     * @param asyncExecutor The executor for async segment fetches
+     */
+    public void setAsyncExecutor(@Nonnull Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
     public void resetCache() {
         segmentsCache.reset();
     }
 
+    /**
+     * @return A snapshot of the qualified segments cache statistics.
+     */
+    public CacheStats getCacheStats() {
+        return segmentsCache.getStats();
+    }
+
     @FunctionalInterface
     public interface ODPSegmentFetchCallback {
         void onCompleted(List<String> segments);
     }
-
-    private class AsyncSegmentFetcher extends Thread {
-
-        private final ODPUserKey userKey;
-        private final String userValue;
-        private final List<ODPSegmentOption> segmentOptions;
-        private final ODPSegmentFetchCallback callback;
-
-        public AsyncSegmentFetcher(ODPUserKey userKey, String userValue, List<ODPSegmentOption> segmentOptions, ODPSegmentFetchCallback callback) {
-            this.userKey = userKey;
-            this.userValue = userValue;
-            this.segmentOptions = segmentOptions;
-            this.callback = callback;
-        }
-
-        @Override
-        public void run() {
-            List<String> segments = getQualifiedSegments(userKey, userValue, segmentOptions);
-            callback.onCompleted(segments);
-        }
-    }
 }
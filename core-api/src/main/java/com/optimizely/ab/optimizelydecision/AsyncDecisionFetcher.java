@@ -28,8 +28,13 @@ import com.optimizely.ab.OptimizelyUserContext;
 
 /**
  * AsyncDecisionFetcher handles asynchronous decision fetching for single or multiple flag keys.
- * This class follows the same pattern as ODP's async segment fetching.
+ *
+ * @deprecated Async decisions run on the executor of the Optimizely client, see
+ * {@link com.optimizely.ab.Optimizely.Builder#withAsyncExecutor(java.util.concurrent.Executor)} and
+ * {@link OptimizelyUserContext#decideAsync(String, List)}. This class starts a new thread per call and is no longer
+ * used by the SDK.
  */
+@Deprecated
 public class AsyncDecisionFetcher extends Thread {
     private static final Logger logger = LoggerFactory.getLogger(AsyncDecisionFetcher.class);
 
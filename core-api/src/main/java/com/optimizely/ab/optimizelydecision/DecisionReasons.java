@@ -36,10 +36,21 @@ public class DecisionReasons {
     }
 
     public void merge(DecisionReasons target) {
+        if (target == this) return;
         errors.addAll(target.errors);
         infos.addAll(target.infos);
     }
 
+    /**
+     * Returns true if info messages passed to {@link #addInfo(String, Object...)} are collected.
+     * Callers can use this to skip formatting messages that would only be discarded.
+     *
+     * @return true if info messages are collected
+     */
+    public boolean isInfoEnabled() {
+        return true;
+    }
+
     public List<String> toReport() {
         List<String> reasons = new ArrayList<>(errors);
         reasons.addAll(infos);
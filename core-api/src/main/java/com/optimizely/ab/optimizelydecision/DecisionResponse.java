@@ -37,11 +37,11 @@ public class DecisionResponse<T> {
     }
 
     public static <E> DecisionResponse<E> responseNoReasons(@Nullable E result) {
-        return new DecisionResponse<>(result, DefaultDecisionReasons.newInstance(), false, null);
+        return new DecisionResponse<>(result, NoOpDecisionReasons.getInstance(), false, null);
     }
 
     public static <E> DecisionResponse<E> nullNoReasons() {
-        return new DecisionResponse<>(null, DefaultDecisionReasons.newInstance(), false, null);
+        return new DecisionResponse<>(null, NoOpDecisionReasons.getInstance(), false, null);
     }
 
     @Nullable
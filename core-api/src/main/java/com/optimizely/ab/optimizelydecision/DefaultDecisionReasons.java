@@ -54,8 +54,14 @@ public class DefaultDecisionReasons extends DecisionReasons {
 
     @Override
     public void merge(DecisionReasons target) {
+        if (target == this) return;
         // ignore infos
         errors.addAll(target.errors);
     }
 
+    @Override
+    public boolean isInfoEnabled() {
+        return false;
+    }
+
 }
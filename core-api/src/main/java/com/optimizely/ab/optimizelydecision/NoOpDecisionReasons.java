@@ -0,0 +1,45 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.optimizelydecision;
+
+/**
+ * A shared {@link DecisionReasons} that discards everything, including errors.
+ *
+ * Use it where a {@link DecisionResponse} must carry reasons but none will ever be reported,
+ * so that no per-call instance has to be allocated.
+ */
+public final class NoOpDecisionReasons extends DefaultDecisionReasons {
+
+    private static final NoOpDecisionReasons INSTANCE = new NoOpDecisionReasons();
+
+    private NoOpDecisionReasons() {
+    }
+
+    public static NoOpDecisionReasons getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void addError(String format, Object... args) {
+        // ignore errors
+    }
+
+    @Override
+    public void merge(DecisionReasons target) {
+        // ignore all reasons
+    }
+}
@@ -16,6 +16,7 @@
 package com.optimizely.ab;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import static java.util.Arrays.asList;
 import java.util.Collection;
@@ -23,8 +24,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
@@ -34,6 +38,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assume.assumeTrue;
 import org.junit.Before;
 import org.junit.Rule;
@@ -69,6 +74,8 @@ import com.optimizely.ab.bucketing.Bucketer;
 import com.optimizely.ab.bucketing.DecisionPath;
 import com.optimizely.ab.bucketing.DecisionService;
 import com.optimizely.ab.bucketing.FeatureDecision;
+import com.optimizely.ab.cmab.client.CmabClient;
+import com.optimizely.ab.cmab.service.DefaultCmabService;
 import com.optimizely.ab.config.Attribute;
 import com.optimizely.ab.config.DatafileProjectConfig;
 import static com.optimizely.ab.config.DatafileProjectConfigTestUtils.invalidProjectConfigV5;
@@ -132,10 +139,12 @@ import com.optimizely.ab.event.EventProcessor;
 import com.optimizely.ab.event.LogEvent;
 import com.optimizely.ab.event.LogEvent.RequestMethod;
 import com.optimizely.ab.event.internal.UserEventFactory;
+import com.optimizely.ab.internal.CacheStats;
 import com.optimizely.ab.internal.ControlAttribute;
 import com.optimizely.ab.internal.LogbackVerifier;
 import com.optimizely.ab.notification.ActivateNotification;
 import com.optimizely.ab.notification.ActivateNotificationListener;
+import com.optimizely.ab.notification.CacheStatsNotification;
 import com.optimizely.ab.notification.DecisionNotification;
 import static com.optimizely.ab.notification.DecisionNotification.ExperimentDecisionNotificationBuilder.EXPERIMENT_KEY;
 import static com.optimizely.ab.notification.DecisionNotification.ExperimentDecisionNotificationBuilder.VARIATION_KEY;
@@ -155,6 +164,7 @@ import com.optimizely.ab.notification.UpdateConfigNotification;
 import com.optimizely.ab.odp.ODPEvent;
 import com.optimizely.ab.odp.ODPEventManager;
 import com.optimizely.ab.odp.ODPManager;
+import com.optimizely.ab.odp.ODPSegmentManager;
 import com.optimizely.ab.optimizelydecision.DecisionReasons;
 import com.optimizely.ab.optimizelydecision.DecisionResponse;
 import com.optimizely.ab.optimizelydecision.DefaultDecisionReasons;
@@ -504,7 +514,7 @@ public class OptimizelyTest {
         Experiment activatedExperiment = validProjectConfig.getExperiments().get(0);
         Map<String, String> testUserAttributes = Collections.singletonMap("browser_type", "chromey");
 
-        when(mockBucketer.bucket(eq(activatedExperiment), eq(testUserId), eq(validProjectConfig), any(DecisionPath.class))).thenReturn(DecisionResponse.nullNoReasons());
+        when(mockBucketer.bucket(eq(activatedExperiment), eq(testUserId), eq(validProjectConfig), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.nullNoReasons());
 
         logbackVerifier.expectMessage(Level.INFO, "Not activating user \"userId\" for experiment \"" +
             activatedExperiment.getKey() + "\".");
@@ -1063,7 +1073,7 @@ public class OptimizelyTest {
         assertNull(expectedVariation);
 
         // make sure we didn't even attempt to bucket the user
-        verify(mockBucketer, never()).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class));
+        verify(mockBucketer, never()).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class));
     }
 
     //======== track tests ========//
@@ -1364,7 +1374,7 @@ public class OptimizelyTest {
         optimizely.track("event_with_launched_and_running_experiments", genericUserId);
 
         // make sure we didn't even attempt to bucket the user or fire any conversion events
-        verify(mockBucketer, never()).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class));
+        verify(mockBucketer, never()).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class));
         verify(mockEventHandler, never()).dispatchEvent(any(LogEvent.class));
     }
 
@@ -1381,7 +1391,7 @@ public class OptimizelyTest {
 
         Optimizely optimizely = optimizelyBuilder.withBucketing(mockBucketer).build();
 
-        when(mockBucketer.bucket(eq(activatedExperiment), eq(testUserId), eq(validProjectConfig), any(DecisionPath.class))).thenReturn(DecisionResponse.responseNoReasons(bucketedVariation));
+        when(mockBucketer.bucket(eq(activatedExperiment), eq(testUserId), eq(validProjectConfig), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(bucketedVariation));
 
         Map<String, String> testUserAttributes = new HashMap<>();
         testUserAttributes.put("browser_type", "chrome");
@@ -1391,7 +1401,7 @@ public class OptimizelyTest {
             testUserAttributes);
 
         // verify that the bucketing algorithm was called correctly
-        verify(mockBucketer).bucket(eq(activatedExperiment), eq(testUserId), eq(validProjectConfig), any(DecisionPath.class));
+        verify(mockBucketer).bucket(eq(activatedExperiment), eq(testUserId), eq(validProjectConfig), any(DecisionPath.class), any(DecisionReasons.class));
         assertThat(actualVariation, is(bucketedVariation));
 
         // verify that we didn't attempt to dispatch an event
@@ -1412,13 +1422,13 @@ public class OptimizelyTest {
             .withConfig(noAudienceProjectConfig)
             .build();
 
-        when(mockBucketer.bucket(eq(activatedExperiment), eq(testUserId), eq(noAudienceProjectConfig), any(DecisionPath.class))).thenReturn(DecisionResponse.responseNoReasons(bucketedVariation));
+        when(mockBucketer.bucket(eq(activatedExperiment), eq(testUserId), eq(noAudienceProjectConfig), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(bucketedVariation));
 
         // activate the experiment
         Variation actualVariation = optimizely.getVariation(activatedExperiment.getKey(), testUserId);
 
         // verify that the bucketing algorithm was called correctly
-        verify(mockBucketer).bucket(eq(activatedExperiment), eq(testUserId), eq(noAudienceProjectConfig), any(DecisionPath.class));
+        verify(mockBucketer).bucket(eq(activatedExperiment), eq(testUserId), eq(noAudienceProjectConfig), any(DecisionPath.class), any(DecisionReasons.class));
         assertThat(actualVariation, is(bucketedVariation));
 
         // verify that we didn't attempt to dispatch an event
@@ -1473,7 +1483,7 @@ public class OptimizelyTest {
         Experiment experiment = validProjectConfig.getExperiments().get(0);
         Variation bucketedVariation = experiment.getVariations().get(0);
 
-        when(mockBucketer.bucket(eq(experiment), eq(testUserId), eq(validProjectConfig), any(DecisionPath.class))).thenReturn(DecisionResponse.responseNoReasons(bucketedVariation));
+        when(mockBucketer.bucket(eq(experiment), eq(testUserId), eq(validProjectConfig), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(bucketedVariation));
 
         Optimizely optimizely = optimizelyBuilder.withBucketing(mockBucketer).build();
 
@@ -1482,7 +1492,7 @@ public class OptimizelyTest {
 
         Variation actualVariation = optimizely.getVariation(experiment.getKey(), testUserId, testUserAttributes);
 
-        verify(mockBucketer).bucket(eq(experiment), eq(testUserId), eq(validProjectConfig), any(DecisionPath.class));
+        verify(mockBucketer).bucket(eq(experiment), eq(testUserId), eq(validProjectConfig), any(DecisionPath.class), any(DecisionReasons.class));
         assertThat(actualVariation, is(bucketedVariation));
     }
 
@@ -1523,7 +1533,7 @@ public class OptimizelyTest {
         Experiment experiment = noAudienceProjectConfig.getExperiments().get(0);
         Variation bucketedVariation = experiment.getVariations().get(0);
 
-        when(mockBucketer.bucket(eq(experiment), eq(testUserId), eq(noAudienceProjectConfig), any(DecisionPath.class))).thenReturn(DecisionResponse.responseNoReasons(bucketedVariation));
+        when(mockBucketer.bucket(eq(experiment), eq(testUserId), eq(noAudienceProjectConfig), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(bucketedVariation));
 
         Optimizely optimizely = optimizelyBuilder
             .withConfig(noAudienceProjectConfig)
@@ -1532,7 +1542,7 @@ public class OptimizelyTest {
 
         Variation actualVariation = optimizely.getVariation(experiment.getKey(), testUserId);
 
-        verify(mockBucketer).bucket(eq(experiment), eq(testUserId), eq(noAudienceProjectConfig), any(DecisionPath.class));
+        verify(mockBucketer).bucket(eq(experiment), eq(testUserId), eq(noAudienceProjectConfig), any(DecisionPath.class), any(DecisionReasons.class));
         assertThat(actualVariation, is(bucketedVariation));
     }
 
@@ -1590,7 +1600,7 @@ public class OptimizelyTest {
             attributes.put("browser_type", "chrome");
         }
 
-        when(mockBucketer.bucket(eq(experiment), eq("user"), eq(validProjectConfig), any(DecisionPath.class))).thenReturn(DecisionResponse.responseNoReasons(variation));
+        when(mockBucketer.bucket(eq(experiment), eq("user"), eq(validProjectConfig), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(variation));
 
         Optimizely optimizely = optimizelyBuilder.withBucketing(mockBucketer).build();
 
@@ -1648,7 +1658,7 @@ public class OptimizelyTest {
         assertNull(variation);
 
         // make sure we didn't even attempt to bucket the user
-        verify(mockBucketer, never()).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class));
+        verify(mockBucketer, never()).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class));
     }
 
     //======== Notification listeners ========//
@@ -4704,6 +4714,35 @@ public class OptimizelyTest {
         assertTrue(manager.remove(notificationId));
     }
 
+    @Test
+    public void publishCacheStatsSendsNotificationPerCache() {
+        CacheStats segmentsStats = new CacheStats(3, 1, 0, 0, 1, 1, 1000);
+        ODPSegmentManager mockSegmentManager = mock(ODPSegmentManager.class);
+        Mockito.when(mockSegmentManager.getCacheStats()).thenReturn(segmentsStats);
+        ODPManager mockODPManager = mock(ODPManager.class);
+        Mockito.when(mockODPManager.getEventManager()).thenReturn(mock(ODPEventManager.class));
+        Mockito.when(mockODPManager.getSegmentManager()).thenReturn(mockSegmentManager);
+        DefaultCmabService cmabService = DefaultCmabService.builder()
+            .withClient(mock(CmabClient.class))
+            .build();
+
+        Optimizely optimizely = Optimizely.builder()
+            .withConfigManager(projectConfigManagerReturningNull)
+            .withODPManager(mockODPManager)
+            .withCmabService(cmabService)
+            .build();
+        List<CacheStatsNotification> notifications = new ArrayList<>();
+        optimizely.addCacheStatsNotificationHandler(notifications::add);
+
+        optimizely.publishCacheStats();
+
+        assertEquals(2, notifications.size());
+        assertEquals(CacheStatsNotification.ODP_SEGMENTS_CACHE, notifications.get(0).getCacheName());
+        assertSame(segmentsStats, notifications.get(0).getStats());
+        assertEquals(CacheStatsNotification.CMAB_DECISIONS_CACHE, notifications.get(1).getCacheName());
+        assertEquals(0, notifications.get(1).getStats().getRequestCount());
+    }
+
     //======== Helper methods ========//
 
     private Experiment createUnknownExperiment() {
@@ -5240,4 +5279,49 @@ public class OptimizelyTest {
         assertNotNull("Decisions should not be null", decisionsRef.get());
         assertFalse("Decisions should not be empty", decisionsRef.get().isEmpty());
     }
+
+    @Test
+    public void decideAsyncRunsOnConfiguredAsyncExecutor() throws Exception {
+        assumeTrue(datafileVersion >= Integer.parseInt(ProjectConfig.Version.V4.toString()));
+        ProjectConfigManager mockProjectConfigManager = mock(ProjectConfigManager.class);
+        Mockito.when(mockProjectConfigManager.getConfig()).thenReturn(validProjectConfig);
+        AtomicInteger asyncTasks = new AtomicInteger();
+        Optimizely optimizely = Optimizely.builder()
+            .withConfigManager(mockProjectConfigManager)
+            .withAsyncExecutor(task -> {
+                asyncTasks.incrementAndGet();
+                task.run();
+            })
+            .build();
+        OptimizelyUserContext userContext = optimizely.createUserContext(testUserId);
+
+        OptimizelyDecision decision = userContext.decideAsync(FEATURE_MULTI_VARIATE_FEATURE_KEY).get(5, TimeUnit.SECONDS);
+        int numDecisions = userContext.decideAllAsync()
+            .thenApply(Map::size)
+            .get(5, TimeUnit.SECONDS);
+
+        assertEquals(FEATURE_MULTI_VARIATE_FEATURE_KEY, decision.getFlagKey());
+        assertTrue(numDecisions > 0);
+        assertEquals(2, asyncTasks.get());
+    }
+
+    @Test
+    public void decideAsyncDecidesOnCallingThreadWhenExecutorRejects() throws Exception {
+        assumeTrue(datafileVersion >= Integer.parseInt(ProjectConfig.Version.V4.toString()));
+        ProjectConfigManager mockProjectConfigManager = mock(ProjectConfigManager.class);
+        Mockito.when(mockProjectConfigManager.getConfig()).thenReturn(validProjectConfig);
+        Optimizely optimizely = Optimizely.builder()
+            .withConfigManager(mockProjectConfigManager)
+            .withAsyncExecutor(task -> {
+                throw new RejectedExecutionException();
+            })
+            .build();
+        OptimizelyUserContext userContext = optimizely.createUserContext(testUserId);
+
+        CompletableFuture<Map<String, OptimizelyDecision>> decisions = userContext.decideForKeysAsync(
+            Arrays.asList(FEATURE_MULTI_VARIATE_FEATURE_KEY, FEATURE_SINGLE_VARIABLE_STRING_KEY));
+
+        assertTrue(decisions.isDone());
+        assertEquals(2, decisions.get().size());
+    }
 }
@@ -24,12 +24,15 @@ import com.optimizely.ab.bucketing.UserProfile;
 import com.optimizely.ab.bucketing.UserProfileService;
 import com.optimizely.ab.bucketing.UserProfileUtils;
 import com.optimizely.ab.config.*;
+import com.optimizely.ab.config.audience.AudienceEvaluator;
+import com.optimizely.ab.config.audience.match.SemanticVersion;
 import com.optimizely.ab.config.parser.ConfigParseException;
 import com.optimizely.ab.event.EventProcessor;
 import com.optimizely.ab.event.ForwardingEventProcessor;
 import com.optimizely.ab.event.internal.ImpressionEvent;
 import com.optimizely.ab.event.internal.payload.DecisionMetadata;
 import com.optimizely.ab.internal.LogbackVerifier;
+import com.optimizely.ab.internal.UserContextAccessor;
 import com.optimizely.ab.notification.NotificationCenter;
 import com.optimizely.ab.odp.*;
 import com.optimizely.ab.optimizelydecision.DecisionMessage;
@@ -167,6 +170,113 @@ public class OptimizelyUserContextTest {
         assertEquals(newAttributes.get("k1"), null);
     }
 
+    @Test
+    public void copyIsIsolatedSnapshot() {
+        OptimizelyUserContext user = new OptimizelyUserContext(optimizely, userId, Collections.singletonMap("k1", "v1"));
+        OptimizelyDecisionContext context = new OptimizelyDecisionContext("flag", "rule");
+        user.setForcedDecision(context, new OptimizelyForcedDecision("variation"));
+        user.setQualifiedSegments(Collections.singletonList("segment1"));
+
+        OptimizelyUserContext copy = user.copy();
+        assertEquals(user, copy);
+        assertEquals(user.getAttributes(), copy.getAttributes());
+        assertEquals("variation", copy.getForcedDecision(context).getVariationKey());
+        assertTrue(copy.isQualifiedFor("segment1"));
+
+        user.setAttribute("k2", "v2");
+        user.removeAllForcedDecisions();
+        user.setQualifiedSegments(null);
+        assertFalse(copy.getAttributes().containsKey("k2"));
+        assertEquals("variation", copy.getForcedDecision(context).getVariationKey());
+        assertTrue(copy.isQualifiedFor("segment1"));
+
+        copy.setAttribute("k3", "v3");
+        assertFalse(user.getAttributes().containsKey("k3"));
+
+        Map<String, Object> copyAttributes = copy.getAttributes();
+        copyAttributes.put("k4", "v4");
+        assertEquals("v4", copy.getAttributes().get("k4"));
+        assertFalse(user.getAttributes().containsKey("k4"));
+        copyAttributes.remove("k1");
+        assertFalse(copy.getAttributes().containsKey("k1"));
+        assertEquals("v1", user.getAttributes().get("k1"));
+    }
+
+    @Test
+    public void attributesViewWritesThroughItsCollections() {
+        Map<String, Object> initial = new HashMap<>();
+        initial.put("k1", "v1");
+        initial.put("k2", "v2");
+        initial.put("k3", "v3");
+        initial.put("k4", "v4");
+        OptimizelyUserContext user = new OptimizelyUserContext(optimizely, userId, initial);
+        Map<String, Object> attributes = user.getAttributes();
+        assertSame(attributes, user.getAttributes());
+
+        Iterator<Map.Entry<String, Object>> iterator = attributes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Object> entry = iterator.next();
+            if (entry.getKey().equals("k1")) {
+                iterator.remove();
+            } else if (entry.getKey().equals("k2")) {
+                assertEquals("v2", entry.setValue("v2-updated"));
+                assertEquals("v2-updated", entry.getValue());
+            }
+        }
+        assertFalse(user.getAttributes().containsKey("k1"));
+        assertEquals("v2-updated", user.getAttributes().get("k2"));
+
+        assertTrue(attributes.keySet().remove("k3"));
+        assertTrue(attributes.values().remove("v4"));
+        assertEquals(Collections.singletonMap("k2", "v2-updated"), user.getAttributes());
+
+        // a copy is not affected by writes through the views of the original
+        OptimizelyUserContext copy = user.copy();
+        attributes.entrySet().clear();
+        assertTrue(user.getAttributes().isEmpty());
+        assertEquals(Collections.singletonMap("k2", "v2-updated"), copy.getAttributes());
+    }
+
+    @Test
+    public void audienceMemoIsScopedToDecisionCopy() {
+        OptimizelyUserContext user = new OptimizelyUserContext(optimizely, userId, Collections.singletonMap("k1", "v1"));
+
+        OptimizelyUserContext decisionUser = user.copyForDecision();
+        assertEquals(user, decisionUser);
+        assertNull(user.getAudienceMemo());
+        assertNotNull(decisionUser.getAudienceMemo());
+        assertSame(decisionUser.getAudienceMemo(), UserContextAccessor.getAudienceMemo(decisionUser));
+        assertNull(decisionUser.copy().getAudienceMemo());
+
+        // the memo itself is created on the first audience evaluation of the call
+        assertNull(decisionUser.getAudienceMemo().get());
+        ProjectConfig projectConfig = optimizely.getProjectConfig();
+        AudienceEvaluator.compile(projectConfig.getExperiments().get(0), projectConfig).evaluate(decisionUser);
+        assertNotNull(decisionUser.getAudienceMemo().get());
+
+        decisionUser.setAttribute("k2", "v2");
+        assertNull(decisionUser.getAudienceMemo());
+
+        decisionUser = user.copyForDecision();
+        decisionUser.setQualifiedSegments(Collections.singletonList("segment1"));
+        assertNull(decisionUser.getAudienceMemo());
+    }
+
+    @Test
+    public void semanticVersionsParsedOncePerUserContext() {
+        OptimizelyUserContext user = new OptimizelyUserContext(optimizely, userId);
+        // copies made before the first version is parsed share the parsed versions too
+        OptimizelyUserContext earlyCopy = user.copy();
+        SemanticVersion version = user.getSemanticVersion("1.2.3-beta");
+        assertSame(version, earlyCopy.getSemanticVersion("1.2.3-beta"));
+
+        assertEquals("1.2.3-beta", version.toString());
+        assertSame(version, user.getSemanticVersion("1.2.3-beta"));
+        assertSame(version, user.copy().getSemanticVersion("1.2.3-beta"));
+        assertNotSame(version, new OptimizelyUserContext(optimizely, userId).getSemanticVersion("1.2.3-beta"));
+        assertSame(version, UserContextAccessor.getSemanticVersion(user.copy(), "1.2.3-beta"));
+    }
+
     // decide
 
     @Test
@@ -1108,7 +1218,11 @@ public class OptimizelyUserContextTest {
         String flagKey = "feature_2";
 
         Experiment experiment = getSpyExperiment(flagKey);
-        when(experiment.getTrafficAllocation()).thenReturn(Arrays.asList(new TrafficAllocation("any-id", 0)));
+        List<TrafficAllocation> trafficAllocations = Arrays.asList(new TrafficAllocation("any-id", 0));
+        TrafficAllocationIndex<Variation> trafficAllocationIndex =
+            new TrafficAllocationIndex<>(trafficAllocations, experiment.getVariationIdToVariationMap());
+        when(experiment.getTrafficAllocation()).thenReturn(trafficAllocations);
+        when(experiment.getTrafficAllocationIndex()).thenReturn(trafficAllocationIndex);
         addSpyExperiment(experiment);
         OptimizelyDecision decision = callDecideWithIncludeReasons(flagKey, Collections.singletonMap("age", 25));
 
@@ -1159,6 +1273,8 @@ public class OptimizelyUserContextTest {
 
         Group group = getSpyGroup(groupId);
         when(group.getTrafficAllocation()).thenReturn(Collections.emptyList());
+        when(group.getTrafficAllocationIndex()).thenReturn(
+            new TrafficAllocationIndex<>(Collections.emptyList(), Collections.emptyMap()));
         addSpyGroup(group);
         OptimizelyDecision decision = callDecideWithIncludeReasons(flagKey);
 
@@ -1703,6 +1819,35 @@ public class OptimizelyUserContextTest {
     }
     /********************************************[END DECIDE TESTS WITH FDs]******************************************/
 
+    @Test
+    public void setQualifiedSegmentsReplacesSnapshot() {
+        OptimizelyUserContext userContext = new OptimizelyUserContext(optimizely, userId);
+        assertNull(userContext.getQualifiedSegments());
+        assertFalse(userContext.isQualifiedFor("segment1"));
+
+        userContext.setQualifiedSegments(Arrays.asList("segment1", "segment2"));
+        List<String> segments = userContext.getQualifiedSegments();
+        assertEquals(Arrays.asList("segment1", "segment2"), segments);
+        assertTrue(userContext.isQualifiedFor("segment1"));
+        assertFalse(userContext.isQualifiedFor("segment3"));
+
+        userContext.setQualifiedSegments(Collections.singletonList("segment3"));
+        assertTrue(userContext.isQualifiedFor("segment3"));
+        assertFalse(userContext.isQualifiedFor("segment1"));
+        // the returned list is a live view
+        assertEquals(Collections.singletonList("segment3"), segments);
+
+        userContext.getQualifiedSegments().add("segment4");
+        assertTrue(userContext.isQualifiedFor("segment4"));
+        segments.remove("segment3");
+        assertFalse(userContext.isQualifiedFor("segment3"));
+        assertEquals(Collections.singletonList("segment4"), userContext.getQualifiedSegments());
+
+        userContext.setQualifiedSegments(null);
+        assertNull(userContext.getQualifiedSegments());
+        assertFalse(userContext.isQualifiedFor("segment3"));
+    }
+
     @Test
     public void fetchQualifiedSegments() {
         ODPEventManager mockODPEventManager = mock(ODPEventManager.class);
@@ -2063,6 +2208,9 @@ public class OptimizelyUserContextTest {
         try {
             configReal = new DatafileProjectConfig.Builder().withDatafile(datafile).build();
             config = spy(configReal);
+            // flag decision plans are compiled with the config, so compile them again from the spied mappings
+            doAnswer(invocation -> FlagDecisionPlan.compile((FeatureFlag) invocation.getArguments()[0], config))
+                .when(config).getFlagDecisionPlan(any(FeatureFlag.class));
             optimizely = Optimizely.builder().withConfig(config).build();
             experimentIdMapping = new HashMap<>(config.getExperimentIdMapping());
             groupIdMapping = new HashMap<>(config.getGroupIdMapping());
@@ -20,10 +20,16 @@ import ch.qos.logback.classic.Level;
 import com.optimizely.ab.bucketing.internal.MurmurHash3;
 import com.optimizely.ab.categories.ExhaustiveTest;
 import com.optimizely.ab.config.Experiment;
+import com.optimizely.ab.config.ExperimentCore;
+import com.optimizely.ab.config.Group;
 import com.optimizely.ab.config.ProjectConfig;
 import com.optimizely.ab.config.TrafficAllocation;
 import com.optimizely.ab.config.Variation;
 import com.optimizely.ab.internal.LogbackVerifier;
+import com.optimizely.ab.optimizelydecision.DecisionReasons;
+import com.optimizely.ab.optimizelydecision.DecisionResponse;
+import com.optimizely.ab.optimizelydecision.DefaultDecisionReasons;
+import com.optimizely.ab.optimizelydecision.OptimizelyDecideOption;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.junit.Assume;
 import org.junit.Before;
@@ -32,9 +38,11 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.optimizely.ab.config.DatafileProjectConfigTestUtils.validProjectConfigV2;
@@ -42,6 +50,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -104,6 +113,42 @@ public class BucketerTest {
         assertThat(Math.round(((double) lowerHalfCount / totalCount) * 100), is(50L));
     }
 
+    /**
+     * Verify that {@link Bucketer#generateBucketValue(int)} matches the floating point reference at the range boundaries
+     * and over a random sample of hashCodes.
+     */
+    @Test
+    public void generateBucketValueMatchesFloatingPointReference() throws Exception {
+        int[] hashCodes = {0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 429496, 429497, -429496, -429497};
+        for (int hashCode : hashCodes) {
+            assertThat(algorithm.generateBucketValue(hashCode), is(floatingPointBucketValue(hashCode)));
+        }
+
+        Random random = new Random();
+        for (int i = 0; i < 1000000; i++) {
+            int hashCode = random.nextInt();
+            assertThat(algorithm.generateBucketValue(hashCode), is(floatingPointBucketValue(hashCode)));
+        }
+    }
+
+    /**
+     * Verify that across the entire 32-bit hashCode space, {@link Bucketer#generateBucketValue(int)} produces exactly
+     * the same bucket values as the floating point reference.
+     */
+    @Test
+    @Category(ExhaustiveTest.class)
+    public void generateBucketValueMatchesFloatingPointReferenceExhaustively() throws Exception {
+        int mismatchCount = 0;
+        int hashCode = Integer.MIN_VALUE;
+        do {
+            if (algorithm.generateBucketValue(hashCode) != floatingPointBucketValue(hashCode)) {
+                mismatchCount++;
+            }
+        } while (hashCode++ != Integer.MAX_VALUE);
+
+        assertThat(mismatchCount, is(0));
+    }
+
     /**
      * Verify that generated bucket values match expected output.
      */
@@ -252,6 +297,31 @@ public class BucketerTest {
         assertThat(algorithm.bucket(groupExperiment, "blah", projectConfig).getResult(), is(groupExperiment.getVariations().get(0)));
     }
 
+    /**
+     * Verify that {@link Bucketer#bucket(ExperimentCore, String, ProjectConfig, DecisionPath, DecisionReasons)} adds its
+     * reasons to the given reasons, and only keeps infos when they are enabled.
+     */
+    @Test
+    public void bucketAddsToGivenReasons() throws Exception {
+        final AtomicInteger bucketValue = new AtomicInteger();
+        Bucketer algorithm = testBucketAlgorithm(bucketValue);
+        bucketValue.set(3000);
+
+        Experiment groupExperiment = projectConfig.getGroups().get(0).getExperiments().get(0);
+
+        DecisionReasons reasons = DefaultDecisionReasons.newInstance();
+        DecisionResponse<Variation> response = algorithm.bucket(groupExperiment, "blah", projectConfig, DecisionPath.WITHOUT_CMAB, reasons);
+        assertSame(reasons, response.getReasons());
+        assertThat(reasons.toReport(), is(Arrays.asList(
+            "User with bucketingId \"blah\" is in experiment \"group_etag2\" of group 42.",
+            "User with bucketingId \"blah\" is in variation \"e2_vtag1\" of experiment \"group_etag2\".")));
+
+        reasons = DefaultDecisionReasons.newInstance(Collections.<OptimizelyDecideOption>emptyList());
+        response = algorithm.bucket(groupExperiment, "blah", projectConfig, DecisionPath.WITHOUT_CMAB, reasons);
+        assertThat(response.getResult(), is(groupExperiment.getVariations().get(0)));
+        assertTrue(reasons.toReport().isEmpty());
+    }
+
     /**
      * Verify that {@link Bucketer#bucket(Experiment, String, ProjectConfig)} doesn't return a variation when a user isn't bucketed
      * into the group experiment.
@@ -274,6 +344,45 @@ public class BucketerTest {
         assertNull(algorithm.bucket(groupExperiment, "blah", projectConfig).getResult());
     }
 
+    /**
+     * Verify that {@link Bucketer#bucket(ExperimentCore, String, ProjectConfig)} reports typed events to the
+     * {@link DecisionTracer} it was created with.
+     */
+    @Test
+    public void bucketReportsEventsToDecisionTracer() throws Exception {
+        final List<String> events = new ArrayList<String>();
+        Bucketer algorithm = new Bucketer(new DecisionTracer() {
+            @Override
+            public void inGroup(String bucketingId, Group group, ExperimentCore experiment) {
+                events.add("inGroup:" + bucketingId + ":" + group.getId() + ":" + experiment.getKey());
+            }
+
+            @Override
+            public void notInGroup(String bucketingId, Group group, ExperimentCore experiment) {
+                events.add("notInGroup:" + bucketingId + ":" + group.getId() + ":" + experiment.getKey());
+            }
+
+            @Override
+            public void bucketed(String bucketingId, ExperimentCore experiment, Variation variation) {
+                events.add("bucketed:" + bucketingId + ":" + experiment.getKey() + ":" + variation.getKey());
+            }
+        }) {
+            @Override
+            int generateBucketValue(int hashCode) {
+                return 3000;
+            }
+        };
+
+        List<Experiment> groupExperiments = projectConfig.getGroups().get(0).getExperiments();
+        algorithm.bucket(groupExperiments.get(0), "blah", projectConfig);
+        algorithm.bucket(groupExperiments.get(1), "blah", projectConfig);
+
+        assertThat(events, is(Arrays.asList(
+            "inGroup:blah:42:group_etag2",
+            "bucketed:blah:group_etag2:e2_vtag1",
+            "notInGroup:blah:42:group_etag1")));
+    }
+
     /**
      * Verify that {@link Bucketer#bucket(Experiment, String, ProjectConfig)} doesn't return a variation when the user is bucketed to
      * the traffic space of a deleted experiment within a random group.
@@ -374,6 +483,14 @@ public class BucketerTest {
 
     //======== Helper methods ========//
 
+    /**
+     * The original floating point mapping of a hashCode into the range [0, {@link Bucketer#MAX_TRAFFIC_VALUE}).
+     */
+    private static int floatingPointBucketValue(int hashCode) {
+        double ratio = (double) (hashCode & 0xFFFFFFFFL) / Math.pow(2, 32);
+        return (int) Math.floor(Bucketer.MAX_TRAFFIC_VALUE * ratio);
+    }
+
     /**
      * Sets up a mock algorithm that returns an expected bucket value.
      *
@@ -22,6 +22,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -93,6 +95,7 @@ import com.optimizely.ab.internal.ControlAttribute;
 import com.optimizely.ab.internal.LogbackVerifier;
 import com.optimizely.ab.optimizelydecision.DecisionReasons;
 import com.optimizely.ab.optimizelydecision.DecisionResponse;
+import com.optimizely.ab.optimizelydecision.OptimizelyDecideOption;
 
 import ch.qos.logback.classic.Level;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -338,7 +341,8 @@ public class DecisionServiceTest {
         assertNull(featureDecision.decisionSource);
 
         verify(emptyFeatureFlag, times(1)).getExperimentIds();
-        verify(emptyFeatureFlag, times(1)).getRolloutId();
+        // once to compile the decision plan of the flag, once to check it is not in a rollout
+        verify(emptyFeatureFlag, times(2)).getRolloutId();
         verify(emptyFeatureFlag, times(3)).getKey();
     }
 
@@ -365,7 +369,8 @@ public class DecisionServiceTest {
         doReturn(DecisionResponse.responseNoReasons(new FeatureDecision(null, null, null))).when(decisionService).getVariationForFeatureInRollout(
             any(FeatureFlag.class),
             any(OptimizelyUserContext.class),
-            any(ProjectConfig.class)
+            any(ProjectConfig.class),
+            any(DecisionReasons.class)
         );
 
         // try to get a variation back from the decision service for the feature flag
@@ -381,7 +386,7 @@ public class DecisionServiceTest {
             "The user \"" + genericUserId + "\" was not bucketed into a rollout for feature flag \"" +
                 FEATURE_MULTI_VARIATE_FEATURE_KEY + "\".");
 
-        verify(spyFeatureFlag, times(2)).getExperimentIds();
+        verify(spyFeatureFlag, times(1)).getExperimentIds();
         verify(spyFeatureFlag, times(2)).getKey();
     }
 
@@ -418,7 +423,7 @@ public class DecisionServiceTest {
         assertEquals(ValidProjectConfigV4.VARIATION_MUTEX_GROUP_EXP_2_VAR_1, featureDecision.variation);
         assertEquals(FeatureDecision.DecisionSource.FEATURE_TEST, featureDecision.decisionSource);
 
-        verify(spyFeatureFlag, times(2)).getExperimentIds();
+        verify(spyFeatureFlag, times(1)).getExperimentIds();
         verify(spyFeatureFlag, times(2)).getKey();
     }
 
@@ -456,7 +461,8 @@ public class DecisionServiceTest {
             .when(decisionService).getVariationForFeatureInRollout(
             eq(featureFlag),
             any(OptimizelyUserContext.class),
-            any(ProjectConfig.class)
+            any(ProjectConfig.class),
+            any(DecisionReasons.class)
         );
 
         // make sure we get the right variation back
@@ -472,7 +478,8 @@ public class DecisionServiceTest {
         verify(decisionService, never()).getVariationForFeatureInRollout(
             any(FeatureFlag.class),
             any(OptimizelyUserContext.class),
-            any(ProjectConfig.class)
+            any(ProjectConfig.class),
+            any(DecisionReasons.class)
         );
 
         // make sure we ask for experiment bucketing once
@@ -519,7 +526,8 @@ public class DecisionServiceTest {
             .when(decisionService).getVariationForFeatureInRollout(
             eq(featureFlag),
             any(OptimizelyUserContext.class),
-            any(ProjectConfig.class)
+            any(ProjectConfig.class),
+            any(DecisionReasons.class)
         );
 
         // make sure we get the right variation back
@@ -535,7 +543,8 @@ public class DecisionServiceTest {
         verify(decisionService, times(1)).getVariationForFeatureInRollout(
             any(FeatureFlag.class),
             any(OptimizelyUserContext.class),
-            any(ProjectConfig.class)
+            any(ProjectConfig.class),
+            any(DecisionReasons.class)
         );
 
         // make sure we ask for experiment bucketing once
@@ -582,6 +591,70 @@ public class DecisionServiceTest {
         verify(mockUserProfileService, times(1)).save(anyObject());
     }
 
+    @Test
+    public void getVariationsForFeatureListWithExecutorKeepsOrderAndBatchesUps() throws Exception {
+        UserProfileService mockUserProfileService = mock(UserProfileService.class);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            DecisionService sequentialService = new DecisionService(new Bucketer(), mock(ErrorHandler.class), null, mockCmabService);
+            DecisionService concurrentService = new DecisionService(new Bucketer(), mock(ErrorHandler.class), mockUserProfileService,
+                mockCmabService, new NoOpDecisionTracer(), executor);
+            List<FeatureFlag> featureFlags = Arrays.asList(
+                FEATURE_FLAG_MULTI_VARIATE_FEATURE,
+                FEATURE_FLAG_MULTI_VARIATE_FUTURE_FEATURE,
+                FEATURE_FLAG_MUTEX_GROUP_FEATURE,
+                FEATURE_FLAG_SINGLE_VARIABLE_INTEGER);
+
+            List<DecisionResponse<FeatureDecision>> expected = sequentialService.getVariationsForFeatureList(
+                featureFlags,
+                optimizely.createUserContext(genericUserId),
+                v4ProjectConfig,
+                Collections.<OptimizelyDecideOption>emptyList()
+            );
+            List<DecisionResponse<FeatureDecision>> decisions = concurrentService.getVariationsForFeatureList(
+                featureFlags,
+                optimizely.createUserContext(genericUserId),
+                v4ProjectConfig,
+                Collections.<OptimizelyDecideOption>emptyList()
+            );
+
+            assertEquals(expected.size(), decisions.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getResult(), decisions.get(i).getResult());
+            }
+            verify(mockUserProfileService, times(1)).lookup(genericUserId);
+            verify(mockUserProfileService, times(1)).save(anyObject());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getVariationsForFeatureListCollectsInfosOnlyWithIncludeReasons() {
+        DecisionService decisionService = new DecisionService(new Bucketer(), mock(ErrorHandler.class), null, mockCmabService);
+        List<FeatureFlag> featureFlags = Arrays.asList(FEATURE_FLAG_MULTI_VARIATE_FEATURE, FEATURE_FLAG_MUTEX_GROUP_FEATURE);
+
+        List<DecisionResponse<FeatureDecision>> decisions = decisionService.getVariationsForFeatureList(
+            featureFlags,
+            optimizely.createUserContext(genericUserId),
+            v4ProjectConfig,
+            Collections.<OptimizelyDecideOption>emptyList()
+        );
+        for (DecisionResponse<FeatureDecision> decision : decisions) {
+            assertTrue(decision.getReasons().toReport().isEmpty());
+        }
+
+        decisions = decisionService.getVariationsForFeatureList(
+            featureFlags,
+            optimizely.createUserContext(genericUserId),
+            v4ProjectConfig,
+            Collections.singletonList(OptimizelyDecideOption.INCLUDE_REASONS)
+        );
+        for (DecisionResponse<FeatureDecision> decision : decisions) {
+            assertFalse(decision.getReasons().toReport().isEmpty());
+        }
+    }
+
 
     //========== getVariationForFeatureInRollout tests ==========//
 
@@ -618,7 +691,7 @@ public class DecisionServiceTest {
     @Test
     public void getVariationForFeatureInRolloutReturnsNullWhenUserIsExcludedFromAllTraffic() {
         Bucketer mockBucketer = mock(Bucketer.class);
-        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class))).thenReturn(DecisionResponse.nullNoReasons());
+        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.nullNoReasons());
 
         DecisionService decisionService = new DecisionService(
             mockBucketer,
@@ -638,7 +711,7 @@ public class DecisionServiceTest {
         // with fall back bucketing, the user has at most 2 chances to get bucketed with traffic allocation
         // one chance with the audience rollout rule
         // one chance with the everyone else rule
-        verify(mockBucketer, atMost(2)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class));
+        verify(mockBucketer, atMost(2)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class));
     }
 
     /**
@@ -649,7 +722,7 @@ public class DecisionServiceTest {
     @Test
     public void getVariationForFeatureInRolloutReturnsNullWhenUserFailsAllAudiencesAndTraffic() {
         Bucketer mockBucketer = mock(Bucketer.class);
-        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class))).thenReturn(DecisionResponse.nullNoReasons());
+        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.nullNoReasons());
 
         DecisionService decisionService = new DecisionService(mockBucketer, mockErrorHandler, null, mockCmabService);
 
@@ -662,7 +735,7 @@ public class DecisionServiceTest {
         assertNull(featureDecision.decisionSource);
 
         // user is only bucketed once for the everyone else rule
-        verify(mockBucketer, times(1)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class));
+        verify(mockBucketer, times(1)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class));
     }
 
     /**
@@ -676,7 +749,7 @@ public class DecisionServiceTest {
         Rollout rollout = ROLLOUT_2;
         Experiment everyoneElseRule = rollout.getExperiments().get(rollout.getExperiments().size() - 1);
         Variation expectedVariation = everyoneElseRule.getVariations().get(0);
-        when(mockBucketer.bucket(eq(everyoneElseRule), anyString(), any(ProjectConfig.class))).thenReturn(DecisionResponse.responseNoReasons(expectedVariation));
+        when(mockBucketer.bucket(eq(everyoneElseRule), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(expectedVariation));
 
         DecisionService decisionService = new DecisionService(
             mockBucketer,
@@ -702,7 +775,7 @@ public class DecisionServiceTest {
         assertEquals(FeatureDecision.DecisionSource.ROLLOUT, featureDecision.decisionSource);
 
         // verify user is only bucketed once for everyone else rule
-        verify(mockBucketer, times(1)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class));
+        verify(mockBucketer, times(1)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class));
     }
 
     /**
@@ -717,8 +790,8 @@ public class DecisionServiceTest {
         Rollout rollout = ROLLOUT_2;
         Experiment everyoneElseRule = rollout.getExperiments().get(rollout.getExperiments().size() - 1);
         Variation expectedVariation = everyoneElseRule.getVariations().get(0);
-        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class))).thenReturn(DecisionResponse.nullNoReasons());
-        when(mockBucketer.bucket(eq(everyoneElseRule), anyString(), any(ProjectConfig.class))).thenReturn(DecisionResponse.responseNoReasons(expectedVariation));
+        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.nullNoReasons());
+        when(mockBucketer.bucket(eq(everyoneElseRule), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(expectedVariation));
 
         DecisionService decisionService = new DecisionService(
             mockBucketer,
@@ -738,7 +811,7 @@ public class DecisionServiceTest {
         logbackVerifier.expectMessage(Level.DEBUG, "User \"genericUserId\" meets conditions for targeting rule \"Everyone Else\".");
 
         // verify user is only bucketed once for everyone else rule
-        verify(mockBucketer, times(2)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class));
+        verify(mockBucketer, times(2)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class));
     }
 
     /**
@@ -757,9 +830,9 @@ public class DecisionServiceTest {
         Variation englishCitizenVariation = englishCitizensRule.getVariations().get(0);
         Experiment everyoneElseRule = rollout.getExperiments().get(rollout.getExperiments().size() - 1);
         Variation expectedVariation = everyoneElseRule.getVariations().get(0);
-        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class))).thenReturn(DecisionResponse.nullNoReasons());
-        when(mockBucketer.bucket(eq(everyoneElseRule), anyString(), any(ProjectConfig.class))).thenReturn(DecisionResponse.responseNoReasons(expectedVariation));
-        when(mockBucketer.bucket(eq(englishCitizensRule), anyString(), any(ProjectConfig.class))).thenReturn(DecisionResponse.responseNoReasons(englishCitizenVariation));
+        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.nullNoReasons());
+        when(mockBucketer.bucket(eq(everyoneElseRule), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(expectedVariation));
+        when(mockBucketer.bucket(eq(englishCitizensRule), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(englishCitizenVariation));
 
         DecisionService decisionService = new DecisionService(
             mockBucketer,
@@ -784,7 +857,7 @@ public class DecisionServiceTest {
         assertEquals(FeatureDecision.DecisionSource.ROLLOUT, featureDecision.decisionSource);
 
         // verify user is only bucketed once for everyone else rule
-        verify(mockBucketer, times(2)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class));
+        verify(mockBucketer, times(2)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class));
     }
 
     /**
@@ -800,9 +873,9 @@ public class DecisionServiceTest {
         Variation englishCitizenVariation = englishCitizensRule.getVariations().get(0);
         Experiment everyoneElseRule = rollout.getExperiments().get(rollout.getExperiments().size() - 1);
         Variation everyoneElseVariation = everyoneElseRule.getVariations().get(0);
-        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class))).thenReturn(DecisionResponse.nullNoReasons());
-        when(mockBucketer.bucket(eq(everyoneElseRule), anyString(), any(ProjectConfig.class))).thenReturn(DecisionResponse.responseNoReasons(everyoneElseVariation));
-        when(mockBucketer.bucket(eq(englishCitizensRule), anyString(), any(ProjectConfig.class))).thenReturn(DecisionResponse.responseNoReasons(englishCitizenVariation));
+        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.nullNoReasons());
+        when(mockBucketer.bucket(eq(everyoneElseRule), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(everyoneElseVariation));
+        when(mockBucketer.bucket(eq(englishCitizensRule), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(englishCitizenVariation));
 
         DecisionService decisionService = new DecisionService(mockBucketer, mockErrorHandler, null, mockCmabService);
 
@@ -819,7 +892,7 @@ public class DecisionServiceTest {
         logbackVerifier.expectMessage(Level.DEBUG, "Audience \"4194404272\" evaluated to true.");
         logbackVerifier.expectMessage(Level.INFO, "Audiences for rule \"3\" collectively evaluated to true");
         // verify user is only bucketed once for everyone else rule
-        verify(mockBucketer, times(1)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class));
+        verify(mockBucketer, times(1)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class));
     }
 
     @Test
@@ -1039,7 +1112,7 @@ public class DecisionServiceTest {
             Collections.singletonMap(experiment.getId(), decision));
 
         Bucketer mockBucketer = mock(Bucketer.class);
-        when(mockBucketer.bucket(eq(experiment), eq(userProfileId), eq(noAudienceProjectConfig), any(DecisionPath.class))).thenReturn(DecisionResponse.responseNoReasons(variation));
+        when(mockBucketer.bucket(eq(experiment), eq(userProfileId), eq(noAudienceProjectConfig), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(variation));
 
         DecisionService decisionService = new DecisionService(mockBucketer, mockErrorHandler, userProfileService, mockCmabService);
 
@@ -1105,7 +1178,7 @@ public class DecisionServiceTest {
         UserProfileService userProfileService = mock(UserProfileService.class);
         DecisionService decisionService = new DecisionService(bucketer, mockErrorHandler, userProfileService, mockCmabService);
 
-        when(bucketer.bucket(eq(experiment), eq(userProfileId), eq(noAudienceProjectConfig), any(DecisionPath.class))).thenReturn(DecisionResponse.responseNoReasons(variation));
+        when(bucketer.bucket(eq(experiment), eq(userProfileId), eq(noAudienceProjectConfig), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(variation));
         when(userProfileService.lookup(userProfileId)).thenReturn(null);
 
         assertEquals(variation, decisionService.getVariation(experiment, optimizely.createUserContext(userProfileId, Collections.emptyMap()), noAudienceProjectConfig).getResult());
@@ -1119,7 +1192,7 @@ public class DecisionServiceTest {
         Experiment experiment = validProjectConfig.getExperiments().get(0);
         Variation expectedVariation = experiment.getVariations().get(0);
 
-        when(bucketer.bucket(eq(experiment), eq("bucketId"), eq(validProjectConfig), any(DecisionPath.class))).thenReturn(DecisionResponse.responseNoReasons(expectedVariation));
+        when(bucketer.bucket(eq(experiment), eq("bucketId"), eq(validProjectConfig), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(expectedVariation));
 
         Map<String, Object> attr = new HashMap();
         attr.put(ControlAttribute.BUCKETING_ATTRIBUTE.toString(), "bucketId");
@@ -1143,8 +1216,8 @@ public class DecisionServiceTest {
         attributes.put(ControlAttribute.BUCKETING_ATTRIBUTE.toString(), bucketingId);
 
         Bucketer bucketer = mock(Bucketer.class);
-        when(bucketer.bucket(eq(rolloutRuleExperiment), eq(userId), eq(v4ProjectConfig))).thenReturn(DecisionResponse.nullNoReasons());
-        when(bucketer.bucket(eq(rolloutRuleExperiment), eq(bucketingId), eq(v4ProjectConfig))).thenReturn(DecisionResponse.responseNoReasons(rolloutVariation));
+        when(bucketer.bucket(eq(rolloutRuleExperiment), eq(userId), eq(v4ProjectConfig), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.nullNoReasons());
+        when(bucketer.bucket(eq(rolloutRuleExperiment), eq(bucketingId), eq(v4ProjectConfig), any(DecisionPath.class), any(DecisionReasons.class))).thenReturn(DecisionResponse.responseNoReasons(rolloutVariation));
 
         DecisionService decisionService = spy(new DecisionService(
             bucketer,
@@ -1483,7 +1556,7 @@ public class DecisionServiceTest {
         // Bucketer bucketer = new Bucketer();
         Bucketer mockBucketer = mock(Bucketer.class);
         Variation bucketedVariation = new Variation("$", "$");
-        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class)))
+        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class)))
             .thenReturn(DecisionResponse.responseNoReasons(bucketedVariation));
         DecisionService decisionServiceWithMockCmabService = new DecisionService(
             mockBucketer,
@@ -1548,7 +1621,7 @@ public class DecisionServiceTest {
         // Mock bucketer to return a variation (user is in CMAB traffic)
         Variation bucketedVariation = new Variation("$", "$");
         Bucketer mockBucketer = mock(Bucketer.class);
-        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), eq(DecisionPath.WITH_CMAB)))
+        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), eq(DecisionPath.WITH_CMAB), any(DecisionReasons.class)))
             .thenReturn(DecisionResponse.responseNoReasons(bucketedVariation));
         
         DecisionService decisionServiceWithMockCmabService = new DecisionService(
@@ -1619,7 +1692,7 @@ public class DecisionServiceTest {
         
         // Mock bucketer to return null for CMAB allocation (user not in CMAB traffic)
         Bucketer mockBucketer = mock(Bucketer.class);
-        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class)))
+        when(mockBucketer.bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class)))
             .thenReturn(DecisionResponse.nullNoReasons());
         
         DecisionService decisionServiceWithMockCmabService = new DecisionService(
@@ -1646,7 +1719,7 @@ public class DecisionServiceTest {
         verify(mockCmabService, never()).getDecision(any(), any(), any(), any());
         
         // Verify that bucketer was called for CMAB allocation
-        verify(mockBucketer, times(1)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class));
+        verify(mockBucketer, times(1)).bucket(any(Experiment.class), anyString(), any(ProjectConfig.class), any(DecisionPath.class), any(DecisionReasons.class));
     }
 
     /**
@@ -1665,7 +1738,7 @@ public class DecisionServiceTest {
         
         // Setup bucketer to return a variation (pass traffic allocation)
         Bucketer mockBucketer = mock(Bucketer.class);
-        when(mockBucketer.bucket(eq(cmabExperiment), anyString(), eq(v4ProjectConfig), any(DecisionPath.class)))
+        when(mockBucketer.bucket(eq(cmabExperiment), anyString(), eq(v4ProjectConfig), any(DecisionPath.class), any(DecisionReasons.class)))
             .thenReturn(DecisionResponse.responseNoReasons(variation1));
         
         // Setup CMAB service to return a decision
@@ -1716,7 +1789,7 @@ public class DecisionServiceTest {
         when(mockUserProfileService.lookup(genericUserId)).thenReturn(null);
         
         Bucketer mockBucketer = mock(Bucketer.class);
-        when(mockBucketer.bucket(eq(experiment), eq(genericUserId), eq(noAudienceProjectConfig), any(DecisionPath.class)))
+        when(mockBucketer.bucket(eq(experiment), eq(genericUserId), eq(noAudienceProjectConfig), any(DecisionPath.class), any(DecisionReasons.class)))
             .thenReturn(DecisionResponse.responseNoReasons(variation));
         
         DecisionService decisionServiceWithUPS = new DecisionService(
@@ -123,6 +123,44 @@ public class MurmurHash3Test {
         }
 
     }
+
+    @Test
+    public void testTwoSegmentHash() {
+        doSegments("", "");
+        doSegments("user1", "");
+        doSegments("", "1886780721");
+        doSegments("ppid1", "1886780721");
+        doSegments("\u2345", "\u1234abc");
+        doSegments(null, "1886780721");
+        // a surrogate pair split across the two segments hashes the same as the joined string
+        doSegments("abc\ud83d", "\ude00");
+        doSegments("abc\ud83d", "");
+
+        Random r = new Random();
+        StringBuilder sb = new StringBuilder(40);
+        for (int i = 0; i < 100000; i++) {
+            sb.setLength(0);
+            int len = r.nextInt(24);
+            for (int j = 0; j < len; j++) {
+                int codePoint;
+                do {
+                    codePoint = r.nextInt((r.nextInt() & 0x1) == 0 ? 0x80 : Character.MAX_CODE_POINT + 1);
+                }
+                while (codePoint < 0xffff && (Character.isHighSurrogate((char) codePoint) || Character.isLowSurrogate((char) codePoint)));
+                sb.appendCodePoint(codePoint);
+            }
+
+            String s = sb.toString();
+            int split = s.isEmpty() ? 0 : r.nextInt(s.length() + 1);
+            doSegments(s.substring(0, split), s.substring(split));
+        }
+    }
+
+    private void doSegments(String first, String second) {
+        String combined = first + second;
+        int expected = MurmurHash3.murmurhash3_x86_32(combined, 0, combined.length(), 1);
+        assertEquals(expected, MurmurHash3.murmurhash3_x86_32(first, second, 1));
+    }
 }
 
 
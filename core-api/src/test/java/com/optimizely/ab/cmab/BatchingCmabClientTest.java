@@ -0,0 +1,237 @@
+/**
+ * Copyright 2026, Optimizely
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.optimizely.ab.cmab;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+import com.optimizely.ab.cmab.client.BatchingCmabClient;
+import com.optimizely.ab.cmab.client.CmabClient;
+import com.optimizely.ab.cmab.client.CmabFetchException;
+import com.optimizely.ab.cmab.client.CmabPredictionRequest;
+
+public class BatchingCmabClientTest {
+
+    /**
+     * Returns "variation-<userId>" for every request and records the batches it was called with.
+     */
+    private static class RecordingCmabClient implements CmabClient {
+        final List<List<CmabPredictionRequest>> batches = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String fetchDecision(String ruleId, String userId, Map<String, Object> attributes, String cmabUuid) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CompletableFuture<String>> fetchDecisions(List<CmabPredictionRequest> requests) {
+            batches.add(requests);
+            List<CompletableFuture<String>> variationIds = new ArrayList<>();
+            for (CmabPredictionRequest request : requests) {
+                variationIds.add(CompletableFuture.completedFuture("variation-" + request.getUserId()));
+            }
+            return variationIds;
+        }
+    }
+
+    @Test
+    public void testLoneRequestIsNotDelayedByBatchWindow() {
+        RecordingCmabClient delegate = new RecordingCmabClient();
+        BatchingCmabClient cmabClient = new BatchingCmabClient(delegate, 10, 10, TimeUnit.SECONDS);
+
+        long startNanos = System.nanoTime();
+        assertEquals("variation-user1", cmabClient.fetchDecision("rule1", "user1", Collections.emptyMap(), "uuid1"));
+        assertEquals("variation-user2", cmabClient.fetchDecision("rule2", "user2", Collections.emptyMap(), "uuid2"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        assertTrue("sequential requests waited for the batch window: " + elapsedMillis + " ms", elapsedMillis < 5000);
+        assertEquals(2, delegate.batches.size());
+        assertEquals("uuid1", delegate.batches.get(0).get(0).getCmabUuid());
+        assertEquals("uuid2", delegate.batches.get(1).get(0).getCmabUuid());
+    }
+
+    @Test
+    public void testRequestsWhileBatchOutstandingAreSentTogether() throws Exception {
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        RecordingCmabClient delegate = new RecordingCmabClient() {
+            @Override
+            public List<CompletableFuture<String>> fetchDecisions(List<CmabPredictionRequest> requests) {
+                if ("first".equals(requests.get(0).getUserId())) {
+                    firstSent.countDown();
+                    try {
+                        releaseFirst.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.fetchDecisions(requests);
+            }
+        };
+        int numRequests = 4;
+        // a full batch is sent right away, so the long window is never waited out
+        BatchingCmabClient cmabClient = new BatchingCmabClient(delegate, numRequests, 10, TimeUnit.SECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(numRequests + 1);
+        try {
+            Future<String> first = executor.submit(() -> cmabClient.fetchDecision("rule0", "first", Collections.emptyMap(), "uuid"));
+            assertTrue(firstSent.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < numRequests; i++) {
+                String userId = "user" + i;
+                results.add(executor.submit(() -> cmabClient.fetchDecision("rule0", userId, Collections.emptyMap(), "uuid")));
+            }
+
+            for (int i = 0; i < numRequests; i++) {
+                assertEquals("variation-user" + i, results.get(i).get(5, TimeUnit.SECONDS));
+            }
+            releaseFirst.countDown();
+            assertEquals("variation-first", first.get(5, TimeUnit.SECONDS));
+        } finally {
+            releaseFirst.countDown();
+            executor.shutdownNow();
+        }
+
+        // the recording delegate records the first batch only once it is released
+        assertEquals(2, delegate.batches.size());
+        assertEquals(numRequests, delegate.batches.get(0).size());
+        assertEquals(1, delegate.batches.get(1).size());
+    }
+
+    @Test
+    public void testRulesAreBatchedSeparately() throws Exception {
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        RecordingCmabClient delegate = new RecordingCmabClient() {
+            @Override
+            public List<CompletableFuture<String>> fetchDecisions(List<CmabPredictionRequest> requests) {
+                if ("rule1".equals(requests.get(0).getRuleId())) {
+                    firstSent.countDown();
+                    try {
+                        releaseFirst.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.fetchDecisions(requests);
+            }
+        };
+        BatchingCmabClient cmabClient = new BatchingCmabClient(delegate, 10, 10, TimeUnit.SECONDS);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = executor.submit(() -> cmabClient.fetchDecision("rule1", "user1", Collections.emptyMap(), "uuid1"));
+            assertTrue(firstSent.await(5, TimeUnit.SECONDS));
+
+            // an outstanding batch of another rule does not hold this request back
+            assertEquals("variation-user2", cmabClient.fetchDecision("rule2", "user2", Collections.emptyMap(), "uuid2"));
+
+            releaseFirst.countDown();
+            assertEquals("variation-user1", first.get(5, TimeUnit.SECONDS));
+        } finally {
+            releaseFirst.countDown();
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, delegate.batches.size());
+        assertEquals("rule2", delegate.batches.get(0).get(0).getRuleId());
+        assertEquals("rule1", delegate.batches.get(1).get(0).getRuleId());
+    }
+
+    @Test
+    public void testFailedPredictionOnlyFailsItsRequest() throws Exception {
+        CountDownLatch blockerSent = new CountDownLatch(1);
+        CountDownLatch bothQueued = new CountDownLatch(1);
+        CmabClient delegate = new RecordingCmabClient() {
+            @Override
+            public List<CompletableFuture<String>> fetchDecisions(List<CmabPredictionRequest> requests) {
+                if ("blocker".equals(requests.get(0).getUserId())) {
+                    blockerSent.countDown();
+                    try {
+                        bothQueued.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                List<CompletableFuture<String>> variationIds = super.fetchDecisions(requests);
+                for (int i = 0; i < requests.size(); i++) {
+                    if ("user2".equals(requests.get(i).getUserId())) {
+                        CompletableFuture<String> failed = new CompletableFuture<>();
+                        failed.completeExceptionally(new CmabFetchException("timeout"));
+                        variationIds.set(i, failed);
+                    }
+                }
+                return variationIds;
+            }
+        };
+        BatchingCmabClient cmabClient = new BatchingCmabClient(delegate, 2, 10, TimeUnit.SECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<String> blocker = executor.submit(() -> cmabClient.fetchDecision("rule1", "blocker", Collections.emptyMap(), "uuid"));
+            assertTrue(blockerSent.await(5, TimeUnit.SECONDS));
+            // a batch of two, sent as soon as it is full
+            Future<String> user1 = executor.submit(() -> cmabClient.fetchDecision("rule1", "user1", Collections.emptyMap(), "uuid"));
+            Future<String> user2 = executor.submit(() -> cmabClient.fetchDecision("rule1", "user2", Collections.emptyMap(), "uuid"));
+
+            assertEquals("variation-user1", user1.get(5, TimeUnit.SECONDS));
+            try {
+                user2.get(5, TimeUnit.SECONDS);
+                fail("Expected CmabFetchException");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof CmabFetchException);
+            }
+            bothQueued.countDown();
+            assertEquals("variation-blocker", blocker.get(5, TimeUnit.SECONDS));
+        } finally {
+            bothQueued.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedBatchFailsEveryRequest() {
+        CmabClient delegate = new RecordingCmabClient() {
+            @Override
+            public List<CompletableFuture<String>> fetchDecisions(List<CmabPredictionRequest> requests) {
+                throw new CmabFetchException("timeout");
+            }
+        };
+        BatchingCmabClient cmabClient = new BatchingCmabClient(delegate, 10, 1, TimeUnit.MILLISECONDS);
+
+        try {
+            cmabClient.fetchDecision("rule1", "user1", Collections.emptyMap(), "uuid1");
+            fail("Expected CmabFetchException");
+        } catch (CmabFetchException e) {
+            assertEquals("timeout", e.getMessage());
+        }
+    }
+}
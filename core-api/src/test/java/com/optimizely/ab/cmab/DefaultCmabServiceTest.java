@@ -15,11 +15,14 @@
  */
 package com.optimizely.ab.cmab;
 
-import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import org.junit.Before;
@@ -29,6 +32,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
@@ -39,6 +43,7 @@ import org.slf4j.Logger;
 
 import com.optimizely.ab.OptimizelyUserContext;
 import com.optimizely.ab.cmab.client.CmabClient;
+import com.optimizely.ab.cmab.client.CmabFetchException;
 import com.optimizely.ab.cmab.service.CmabCacheValue;
 import com.optimizely.ab.cmab.service.CmabDecision;
 import com.optimizely.ab.cmab.service.DefaultCmabService;
@@ -374,60 +379,157 @@ public class DefaultCmabServiceTest {
         verify(mockCmabCache).save(eq(cacheKey), any(CmabCacheValue.class));
     }
     @Test
-    public void testLockStripingDistribution() {
-        // Test different combinations to ensure they get different lock indices
-        String[][] testCases = {
-            {"user1", "rule1"},
-            {"user2", "rule1"},
-            {"user1", "rule2"},
-            {"user3", "rule3"},
-            {"user4", "rule4"}
-        };
-
-        Set<Integer> lockIndices = new HashSet<>();
-        for (String[] testCase : testCases) {
-            String userId = testCase[0];
-            String ruleId = testCase[1];
-
-            // Use reflection to access the private getLockIndex method
-            try {
-                Method getLockIndexMethod = DefaultCmabService.class.getDeclaredMethod("getLockIndex", String.class, String.class);
-                getLockIndexMethod.setAccessible(true);
-
-                int index = (Integer) getLockIndexMethod.invoke(cmabService, userId, ruleId);
-
-                // Verify index is within expected range
-                assertTrue("Lock index should be non-negative", index >= 0);
-                assertTrue("Lock index should be less than NUM_LOCK_STRIPES", index < 1000);
-
-                lockIndices.add(index);
-            } catch (Exception e) {
-                fail("Failed to invoke getLockIndex method: " + e.getMessage());
-            }
-        }
+    public void testConcurrentRequestsShareInFlightFetch() {
+        List<Runnable> fetches = new ArrayList<>();
+        DefaultCmabService asyncCmabService = new DefaultCmabService(mockCmabClient, mockCmabCache, mockLogger, fetches::add);
+        when(mockCmabClient.fetchDecision(eq("exp1"), eq("user123"), any(Map.class), anyString())).thenReturn("varA");
+
+        CompletableFuture<CmabDecision> first = asyncCmabService.getDecisionAsync(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+        CompletableFuture<CmabDecision> second = asyncCmabService.getDecisionAsync(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+
+        assertSame(first, second);
+        assertEquals(1, fetches.size());
+        assertFalse(first.isDone());
 
-        assertTrue("Different user/rule combinations should generally use different locks", lockIndices.size() > 1);
+        fetches.get(0).run();
+
+        assertEquals("varA", first.join().getVariationId());
+        verify(mockCmabClient, times(1)).fetchDecision(eq("exp1"), eq("user123"), any(Map.class), anyString());
+        verify(mockCmabCache).save(eq("7-user123-exp1"), any(CmabCacheValue.class));
     }
 
     @Test
-    public void testSameUserRuleCombinationUsesConsistentLock() {
-        String userId = "test_user";
-        String ruleId = "test_rule";
+    public void testInFlightFetchDoesNotBlockOtherUsers() {
+        List<Runnable> fetches = new ArrayList<>();
+        DefaultCmabService asyncCmabService = new DefaultCmabService(mockCmabClient, mockCmabCache, mockLogger, fetches::add);
+        OptimizelyUserContext otherUserContext = mock(OptimizelyUserContext.class);
+        when(otherUserContext.getUserId()).thenReturn("user456");
+        when(otherUserContext.getAttributes()).thenReturn(Collections.singletonMap("age", 30));
+        when(mockCmabClient.fetchDecision(eq("exp1"), anyString(), any(Map.class), anyString())).thenReturn("varA");
+
+        CompletableFuture<CmabDecision> first = asyncCmabService.getDecisionAsync(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+        CompletableFuture<CmabDecision> other = asyncCmabService.getDecisionAsync(mockProjectConfig, otherUserContext, "exp1", Collections.emptyList());
+
+        assertEquals(2, fetches.size());
+        fetches.get(1).run();
+
+        assertTrue(other.isDone());
+        assertFalse(first.isDone());
+    }
+
+    @Test
+    public void testFailedFetchIsNotReused() {
+        when(mockCmabClient.fetchDecision(eq("exp1"), eq("user123"), any(Map.class), anyString()))
+            .thenThrow(new CmabFetchException("timeout"))
+            .thenReturn("varA");
 
         try {
-            Method getLockIndexMethod = DefaultCmabService.class.getDeclaredMethod("getLockIndex", String.class, String.class);
-            getLockIndexMethod.setAccessible(true);
-
-            // Get lock index multiple times
-            int index1 = (Integer) getLockIndexMethod.invoke(cmabService, userId, ruleId);
-            int index2 = (Integer) getLockIndexMethod.invoke(cmabService, userId, ruleId);
-            int index3 = (Integer) getLockIndexMethod.invoke(cmabService, userId, ruleId);
-
-            // All should be the same
-            assertEquals("Same user/rule should always use same lock", index1, index2);
-            assertEquals("Same user/rule should always use same lock", index2, index3);
-        } catch (Exception e) {
-            fail("Failed to invoke getLockIndex method: " + e.getMessage());
+            cmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+            fail("Expected CmabFetchException");
+        } catch (CmabFetchException e) {
+            assertEquals("timeout", e.getMessage());
+        }
+
+        CmabDecision decision = cmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+        assertEquals("varA", decision.getVariationId());
+        verify(mockCmabClient, times(2)).fetchDecision(eq("exp1"), eq("user123"), any(Map.class), anyString());
+    }
+
+    @Test
+    public void testStaleCachedDecisionIsServedWhileRefreshing() {
+        List<Runnable> refreshes = new ArrayList<>();
+        DefaultCmabService refreshingCmabService =
+            new DefaultCmabService(mockCmabClient, mockCmabCache, mockLogger, null, 1000, refreshes::add);
+        String cacheKey = "7-user123-exp1";
+        when(mockCmabClient.fetchDecision(eq("exp1"), eq("user123"), any(Map.class), anyString()))
+            .thenReturn("varA")
+            .thenReturn("varB");
+
+        refreshingCmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+        ArgumentCaptor<CmabCacheValue> cacheCaptor = ArgumentCaptor.forClass(CmabCacheValue.class);
+        verify(mockCmabCache).save(eq(cacheKey), cacheCaptor.capture());
+        CmabCacheValue savedValue = cacheCaptor.getValue();
+
+        // a fresh entry is served without a refresh
+        when(mockCmabCache.lookup(cacheKey)).thenReturn(savedValue);
+        refreshingCmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+        assertTrue(refreshes.isEmpty());
+
+        // a stale entry is still served, and refreshed once in the background
+        CmabCacheValue staleValue = new CmabCacheValue(savedValue.getAttributesHash(), savedValue.getVariationId(),
+            savedValue.getCmabUuid(), savedValue.getFetchedAtMillis() - 5000);
+        when(mockCmabCache.lookup(cacheKey)).thenReturn(staleValue);
+        CmabDecision staleDecision = refreshingCmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+        refreshingCmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+
+        assertEquals("varA", staleDecision.getVariationId());
+        assertEquals(savedValue.getCmabUuid(), staleDecision.getCmabUuid());
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+        verify(mockCmabCache, times(2)).save(eq(cacheKey), cacheCaptor.capture());
+        assertEquals("varB", cacheCaptor.getValue().getVariationId());
+        verify(mockCmabClient, times(2)).fetchDecision(eq("exp1"), eq("user123"), any(Map.class), anyString());
+    }
+
+    @Test
+    public void testRejectedRefreshKeepsServingCachedDecision() {
+        DefaultCmabService refreshingCmabService = new DefaultCmabService(mockCmabClient, mockCmabCache, mockLogger, null, 1000,
+            runnable -> {
+                throw new RejectedExecutionException();
+            });
+        when(mockCmabClient.fetchDecision(eq("exp1"), eq("user123"), any(Map.class), anyString())).thenReturn("varA");
+        refreshingCmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+        ArgumentCaptor<CmabCacheValue> cacheCaptor = ArgumentCaptor.forClass(CmabCacheValue.class);
+        verify(mockCmabCache).save(eq("7-user123-exp1"), cacheCaptor.capture());
+        CmabCacheValue savedValue = cacheCaptor.getValue();
+        when(mockCmabCache.lookup("7-user123-exp1")).thenReturn(new CmabCacheValue(savedValue.getAttributesHash(),
+            "varA", savedValue.getCmabUuid(), savedValue.getFetchedAtMillis() - 5000));
+
+        CmabDecision decision = refreshingCmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+
+        assertEquals("varA", decision.getVariationId());
+        verify(mockCmabClient, times(1)).fetchDecision(eq("exp1"), eq("user123"), any(Map.class), anyString());
+    }
+
+    @Test
+    public void testAttributesHashDependsOnValuesAndTheirTypes() {
+        when(mockCmabClient.fetchDecision(eq("exp1"), eq("user123"), any(Map.class), anyString())).thenReturn("varA");
+        ArgumentCaptor<CmabCacheValue> cacheCaptor = ArgumentCaptor.forClass(CmabCacheValue.class);
+
+        Map<String, Object> numericAge = new LinkedHashMap<>();
+        numericAge.put("location", "USA");
+        numericAge.put("age", 25);
+        when(mockUserContext.getAttributes()).thenReturn(numericAge);
+        cmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+
+        Map<String, Object> stringAge = new HashMap<>();
+        stringAge.put("age", "25");
+        stringAge.put("location", "USA");
+        when(mockUserContext.getAttributes()).thenReturn(stringAge);
+        cmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+
+        Map<String, Object> otherAge = new HashMap<>();
+        otherAge.put("age", 26);
+        otherAge.put("location", "USA");
+        when(mockUserContext.getAttributes()).thenReturn(otherAge);
+        cmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+
+        verify(mockCmabCache, times(3)).save(eq("7-user123-exp1"), cacheCaptor.capture());
+        List<CmabCacheValue> savedValues = cacheCaptor.getAllValues();
+        Set<String> hashes = new HashSet<>();
+        for (CmabCacheValue savedValue : savedValues) {
+            hashes.add(savedValue.getAttributesHash());
         }
+        assertEquals(3, hashes.size());
+
+        // the same attributes in another order hash the same
+        Map<String, Object> reorderedAge = new LinkedHashMap<>();
+        reorderedAge.put("age", 25);
+        reorderedAge.put("location", "USA");
+        when(mockUserContext.getAttributes()).thenReturn(reorderedAge);
+        when(mockCmabCache.lookup("7-user123-exp1")).thenReturn(savedValues.get(0));
+        CmabDecision cachedDecision = cmabService.getDecision(mockProjectConfig, mockUserContext, "exp1", Collections.emptyList());
+        assertEquals(savedValues.get(0).getCmabUuid(), cachedDecision.getCmabUuid());
     }
 }
@@ -187,4 +187,36 @@ public class DatafileProjectConfigTest {
         }
     }
 
+
+    @Test
+    public void getFlagDecisionPlanResolvesFlagRules() {
+        ProjectConfig v4ProjectConfig = DatafileProjectConfigTestUtils.validProjectConfigV4();
+        FeatureFlag featureFlag = v4ProjectConfig.getFeatureKeyMapping().get(ValidProjectConfigV4.FEATURE_MULTI_VARIATE_FEATURE_KEY);
+
+        FlagDecisionPlan plan = v4ProjectConfig.getFlagDecisionPlan(featureFlag);
+        assertSame(plan, v4ProjectConfig.getFlagDecisionPlan(featureFlag));
+        assertSame(featureFlag, plan.getFeatureFlag());
+
+        assertEquals(featureFlag.getExperimentIds().size(), plan.getExperimentRules().size());
+        for (int i = 0; i < plan.getExperimentRules().size(); i++) {
+            assertSame(v4ProjectConfig.getExperimentIdMapping().get(featureFlag.getExperimentIds().get(i)), plan.getExperimentRules().get(i));
+        }
+        Rollout rollout = v4ProjectConfig.getRolloutIdMapping().get(featureFlag.getRolloutId());
+        assertSame(rollout, plan.getRollout());
+        assertEquals(rollout.getExperiments(), plan.getRolloutRules());
+        assertEquals(v4ProjectConfig.getHoldoutForFlag(featureFlag.getId()), plan.getHoldouts());
+    }
+
+    @Test
+    public void getFlagDecisionPlanCompilesFlagsNotInConfig() {
+        ProjectConfig v4ProjectConfig = DatafileProjectConfigTestUtils.validProjectConfigV4();
+        FeatureFlag featureFlag = new FeatureFlag("unknown-id", "unknown_flag", "", Collections.<String>emptyList(),
+            Collections.<FeatureVariable>emptyList());
+
+        FlagDecisionPlan plan = v4ProjectConfig.getFlagDecisionPlan(featureFlag);
+        assertSame(featureFlag, plan.getFeatureFlag());
+        assertTrue(plan.getExperimentRules().isEmpty());
+        assertNull(plan.getRollout());
+        assertTrue(plan.getRolloutRules().isEmpty());
+    }
 }
@@ -21,6 +21,7 @@ import com.optimizely.ab.internal.LogbackVerifier;
 import com.optimizely.ab.internal.NotificationRegistry;
 import com.optimizely.ab.notification.NotificationCenter;
 import com.optimizely.ab.notification.UpdateConfigNotification;
+import com.optimizely.ab.optimizelyconfig.OptimizelyConfig;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.junit.*;
 import org.junit.rules.ExpectedException;
@@ -185,6 +186,30 @@ public class PollingProjectConfigManagerTest {
         assertEquals("new", testProjectConfigManager.getOptimizelyConfig().getRevision());
     }
 
+    @Test
+    public void testOptimizelyConfigIsBuiltOncePerRevision() {
+        testProjectConfigManager.setConfig(projectConfig);
+        OptimizelyConfig optimizelyConfig = testProjectConfigManager.getOptimizelyConfig();
+        assertSame(optimizelyConfig, testProjectConfigManager.getOptimizelyConfig());
+
+        ProjectConfig newerProjectConfig = mock(ProjectConfig.class);
+        when(newerProjectConfig.getRevision()).thenReturn("new");
+        testProjectConfigManager.setConfig(newerProjectConfig);
+        assertNotSame(optimizelyConfig, testProjectConfigManager.getOptimizelyConfig());
+        assertEquals("new", testProjectConfigManager.getOptimizelyConfig().getRevision());
+    }
+
+    @Test
+    public void testOptimizelyConfigDisabled() {
+        testProjectConfigManager.setOptimizelyConfigEnabled(false);
+        testProjectConfigManager.setConfig(projectConfig);
+        assertEquals(projectConfig, testProjectConfigManager.getCachedConfig());
+        assertNull(testProjectConfigManager.getOptimizelyConfig());
+
+        testProjectConfigManager.setOptimizelyConfigEnabled(true);
+        assertEquals("1480511547", testProjectConfigManager.getOptimizelyConfig().getRevision());
+    }
+
     @Test
     public void testErroringProjectConfigManagerWithTimeout() throws Exception {
         testProjectConfigManager = new TestProjectConfigManager() {
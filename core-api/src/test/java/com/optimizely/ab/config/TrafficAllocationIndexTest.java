@@ -0,0 +1,105 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.config;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for {@link TrafficAllocationIndex}.
+ */
+public class TrafficAllocationIndexTest {
+
+    private static final List<Variation> VARIATIONS = Arrays.asList(
+        new Variation("1", "var1"),
+        new Variation("2", "var2"),
+        new Variation("3", "var3")
+    );
+
+    private static final Map<String, Variation> VARIATION_ID_MAPPING = ProjectConfigUtils.generateIdMapping(VARIATIONS);
+
+    @Test
+    public void indexOfMatchesLinearScan() {
+        List<TrafficAllocation> trafficAllocations = Arrays.asList(
+            new TrafficAllocation("1", 1000),
+            new TrafficAllocation("", 5000),
+            new TrafficAllocation("2", 6000),
+            new TrafficAllocation("3", 9000)
+        );
+        TrafficAllocationIndex<Variation> index = new TrafficAllocationIndex<>(trafficAllocations, VARIATION_ID_MAPPING);
+
+        for (int bucketValue = 0; bucketValue < 10000; bucketValue++) {
+            assertEquals(linearScan(bucketValue, trafficAllocations), index.indexOf(bucketValue));
+        }
+    }
+
+    @Test
+    public void indexOfMatchesLinearScanForUnsortedRanges() {
+        List<TrafficAllocation> trafficAllocations = Arrays.asList(
+            new TrafficAllocation("1", 5000),
+            new TrafficAllocation("2", 2000),
+            new TrafficAllocation("3", 8000)
+        );
+        TrafficAllocationIndex<Variation> index = new TrafficAllocationIndex<>(trafficAllocations, VARIATION_ID_MAPPING);
+
+        for (int bucketValue = 0; bucketValue < 10000; bucketValue++) {
+            assertEquals(linearScan(bucketValue, trafficAllocations), index.indexOf(bucketValue));
+        }
+    }
+
+    @Test
+    public void resolvesEntities() {
+        List<TrafficAllocation> trafficAllocations = Arrays.asList(
+            new TrafficAllocation("2", 5000),
+            new TrafficAllocation("unknown", 10000)
+        );
+        TrafficAllocationIndex<Variation> index = new TrafficAllocationIndex<>(trafficAllocations, VARIATION_ID_MAPPING);
+
+        assertEquals(2, index.size());
+        assertEquals("2", index.getEntityId(0));
+        assertSame(VARIATIONS.get(1), index.getEntity(0));
+        assertEquals("unknown", index.getEntityId(1));
+        assertNull(index.getEntity(1));
+    }
+
+    @Test
+    public void emptyAllocation() {
+        TrafficAllocationIndex<Variation> index = new TrafficAllocationIndex<>(Collections.emptyList(), VARIATION_ID_MAPPING);
+        assertEquals(-1, index.indexOf(0));
+
+        index = new TrafficAllocationIndex<>(null, null);
+        assertEquals(0, index.size());
+        assertEquals(-1, index.indexOf(5000));
+    }
+
+    private static int linearScan(int bucketValue, List<TrafficAllocation> trafficAllocations) {
+        for (int i = 0; i < trafficAllocations.size(); i++) {
+            if (bucketValue < trafficAllocations.get(i).getEndOfRange()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
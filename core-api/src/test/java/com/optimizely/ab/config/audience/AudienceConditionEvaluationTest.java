@@ -18,6 +18,7 @@ package com.optimizely.ab.config.audience;
 
 import ch.qos.logback.classic.Level;
 import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.config.ProjectConfig;
 import com.optimizely.ab.internal.LogbackVerifier;
 import com.optimizely.ab.testutils.OTUtils;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -26,7 +27,6 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.internal.matchers.Or;
-import org.mockito.internal.util.reflection.Whitebox;
 
 import java.math.BigInteger;
 import java.util.*;
@@ -76,6 +76,29 @@ public class AudienceConditionEvaluationTest {
         assertEquals(true, emptyCondition.evaluate(null, null));
     }
 
+    /**
+     * Verify that AudienceIdCondition.evaluate resolves the audience without storing it in the condition.
+     */
+    @Test
+    public void audienceIdConditionEvaluateDoesNotWriteAudience() throws Exception {
+        Audience audience = new Audience("1", "chrome users",
+            new UserAttribute("browser_type", "custom_attribute", "exact", "chrome"));
+        ProjectConfig projectConfig = mock(ProjectConfig.class);
+        when(projectConfig.getAudienceIdMapping()).thenReturn(Collections.singletonMap("1", audience));
+        OptimizelyUserContext user = OTUtils.user(testUserAttributes);
+
+        AudienceIdCondition condition = new AudienceIdCondition("1");
+        assertEquals(true, condition.evaluate(projectConfig, user));
+        assertNull(condition.getAudience());
+        assertNull(condition.evaluate(null, user));
+        logbackVerifier.expectMessage(Level.ERROR, "Audience 1 could not be found.");
+
+        AudienceIdCondition resolved = new AudienceIdCondition("1", audience);
+        assertSame(audience, resolved.getAudience());
+        assertEquals(true, resolved.evaluate(null, user));
+        assertEquals(false, resolved.evaluate(null, OTUtils.user(Collections.singletonMap("browser_type", "firefox"))));
+    }
+
     /**
      * Verify that UserAttribute.toJson returns a json represented string of conditions.
      */
@@ -1518,7 +1541,7 @@ public class AudienceConditionEvaluationTest {
         AndCondition andCondition = new AndCondition(userConditions);
 
         // Should evaluate true if qualified segment exist
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", Collections.singletonList("odp-segment-1"));
+        mockedUser.setQualifiedSegments(Collections.singletonList("odp-segment-1"));
 
         assertTrue(andCondition.evaluate(null, mockedUser));
     }
@@ -1537,7 +1560,7 @@ public class AudienceConditionEvaluationTest {
         AndCondition andCondition = new AndCondition(userConditions);
 
         // Should evaluate false if qualified segment does not exist
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", Collections.singletonList("odp-segment-2"));
+        mockedUser.setQualifiedSegments(Collections.singletonList("odp-segment-2"));
 
         assertFalse(andCondition.evaluate(null, mockedUser));
     }
@@ -1555,7 +1578,7 @@ public class AudienceConditionEvaluationTest {
         AndCondition andCondition = new AndCondition(userConditions);
 
         // Should evaluate false if qualified segment does not exist
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", Collections.emptyList());
+        mockedUser.setQualifiedSegments(Collections.emptyList());
 
         assertFalse(andCondition.evaluate(null, mockedUser));
     }
@@ -1574,7 +1597,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-2");
         qualifiedSegments.add("odp-segment-3");
 
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertTrue(andCondition.evaluate(null, mockedUser));
 
         qualifiedSegments = new ArrayList<>();
@@ -1582,7 +1605,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-2");
         qualifiedSegments.add("odp-segment-4");
 
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertTrue(andCondition.evaluate(null, mockedUser));
 
         qualifiedSegments = new ArrayList<>();
@@ -1591,7 +1614,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-3");
         qualifiedSegments.add("odp-segment-4");
 
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertTrue(andCondition.evaluate(null, mockedUser));
     }
 
@@ -1609,7 +1632,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-3");
         qualifiedSegments.add("odp-segment-4");
 
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertFalse(andCondition.evaluate(null, mockedUser));
 
         qualifiedSegments = new ArrayList<>();
@@ -1617,7 +1640,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-3");
         qualifiedSegments.add("odp-segment-4");
 
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertFalse(andCondition.evaluate(null, mockedUser));
     }
 
@@ -1659,7 +1682,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-1");
         qualifiedSegments.add("odp-segment-2");
 
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertTrue(implicitOr.evaluate(null, mockedUser));
 
 
@@ -1670,7 +1693,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-1");
         qualifiedSegments.add("odp-segment-2");
 
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertFalse(implicitAnd.evaluate(null, mockedUser));
 
         // Should evaluate correctly based on the given segments
@@ -1681,7 +1704,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-4");
         qualifiedSegments.add("odp-segment-6");
 
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertTrue(implicitAnd.evaluate(null, mockedUser));
 
 
@@ -1698,7 +1721,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-2");
         qualifiedSegments.add("odp-segment-3");
         qualifiedSegments.add("odp-segment-4");
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertTrue(implicitAnd.evaluate(null, mockedUser));
 
         // Should evaluate correctly based on the given segments
@@ -1708,7 +1731,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-3");
         qualifiedSegments.add("odp-segment-4");
         qualifiedSegments.add("odp-segment-5");
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertFalse(implicitAnd.evaluate(null, mockedUser));
     }
 
@@ -1750,7 +1773,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-1");
         qualifiedSegments.add("odp-segment-2");
 
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertTrue(implicitOr.evaluate(null, mockedUser));
 
 
@@ -1762,7 +1785,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-2");
 
         mockedUser = OTUtils.user(Collections.singletonMap("browser_type", "chrome"));
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertFalse(implicitAnd.evaluate(null, mockedUser));
 
         // Should evaluate correctly based on the given segments
@@ -1773,7 +1796,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-4");
 
         mockedUser = OTUtils.user(Collections.singletonMap("browser_type", "chrome"));
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertTrue(implicitAnd.evaluate(null, mockedUser));
 
         // Should evaluate correctly based on the given segments
@@ -1784,7 +1807,7 @@ public class AudienceConditionEvaluationTest {
         qualifiedSegments.add("odp-segment-4");
 
         mockedUser = OTUtils.user(Collections.singletonMap("browser_type", "not_chrome"));
-        Whitebox.setInternalState(mockedUser, "qualifiedSegments", qualifiedSegments);
+        mockedUser.setQualifiedSegments(qualifiedSegments);
         assertFalse(implicitAnd.evaluate(null, mockedUser));
     }
 
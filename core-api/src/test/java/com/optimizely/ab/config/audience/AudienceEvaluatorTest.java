@@ -0,0 +1,233 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.config.audience;
+
+import ch.qos.logback.classic.Level;
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.config.Experiment;
+import com.optimizely.ab.config.ExperimentCore;
+import com.optimizely.ab.config.ProjectConfig;
+import com.optimizely.ab.config.Rollout;
+import com.optimizely.ab.internal.LogbackVerifier;
+import com.optimizely.ab.testutils.OTUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.optimizely.ab.config.DatafileProjectConfigTestUtils.validProjectConfigV4;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AudienceEvaluatorTest {
+
+    @Rule
+    public LogbackVerifier logbackVerifier = new LogbackVerifier();
+
+    @Test
+    public void compiledConditionsMatchConditionTree() {
+        ProjectConfig projectConfig = validProjectConfigV4();
+        List<ExperimentCore> experiments = new ArrayList<>(projectConfig.getExperiments());
+        for (Rollout rollout : projectConfig.getRollouts()) {
+            experiments.addAll(rollout.getExperiments());
+        }
+
+        List<Map<String, Object>> users = new ArrayList<>();
+        users.add(Collections.emptyMap());
+        users.add(attributes("house", "Gryffindor", "nationality", "English"));
+        users.add(attributes("house", "Slytherin House", "booleanKey", true, "integerKey", 2, "doubleKey", 99.5));
+        users.add(attributes("house", 7, "booleanKey", "true", "integerKey", 1L, "doubleKey", 100));
+        users.add(attributes("nationality", null, "integerKey", 1.0f, "doubleKey", Double.NaN));
+
+        int compared = 0;
+        for (ExperimentCore experiment : experiments) {
+            AudienceEvaluator audienceEvaluator = projectConfig.getAudienceEvaluator(experiment);
+            assertNotNull(audienceEvaluator);
+            for (Map<String, Object> attributes : users) {
+                OptimizelyUserContext user = OTUtils.user(attributes);
+                assertEquals(experiment.getKey() + " " + attributes,
+                    evaluateConditionTree(projectConfig, experiment, user), audienceEvaluator.evaluate(user));
+                compared++;
+            }
+        }
+        assertTrue(compared > 0);
+    }
+
+    @Test
+    public void numericLeavesMatchConditionTree() {
+        ProjectConfig projectConfig = mock(ProjectConfig.class);
+        when(projectConfig.getAudienceIdMapping()).thenReturn(Collections.<String, Audience>emptyMap());
+        Object[] conditionValues = {10, 10L, 10.0, 10.5f, 1L << 53, Double.NaN, "10"};
+        Object[] attributeValues = {9, 10, 11, 10L, Long.MAX_VALUE, 10.0, -0.0, 10.5f, Double.NaN,
+            Double.POSITIVE_INFINITY, "10", true, null};
+
+        for (String match : Arrays.asList("gt", "ge", "lt", "le", "exact")) {
+            for (Object conditionValue : conditionValues) {
+                UserAttribute attribute = new UserAttribute("number", "custom_attribute", match, conditionValue);
+                AudienceEvaluator audienceEvaluator = AudienceEvaluator.compile(experiment(Collections.<String>emptyList(), attribute), projectConfig);
+                for (Object attributeValue : attributeValues) {
+                    OptimizelyUserContext user = OTUtils.user(Collections.singletonMap("number", attributeValue));
+                    assertEquals(match + " " + conditionValue + " " + attributeValue,
+                        attribute.evaluate(projectConfig, user), audienceEvaluator.evaluate(user));
+                }
+                OptimizelyUserContext user = OTUtils.user();
+                assertEquals(attribute.evaluate(projectConfig, user), audienceEvaluator.evaluate(user));
+            }
+        }
+    }
+
+    @Test
+    public void experimentOutsideConfigIsNotCompiled() {
+        ProjectConfig projectConfig = validProjectConfigV4();
+        Experiment experiment = new Experiment("id", "key", "layer");
+        assertNull(projectConfig.getAudienceEvaluator(experiment));
+    }
+
+    @Test
+    public void missingAudienceEvaluatesToNull() {
+        ProjectConfig projectConfig = mock(ProjectConfig.class);
+        when(projectConfig.getAudienceIdMapping()).thenReturn(Collections.<String, Audience>emptyMap());
+        Experiment experiment = experiment(Collections.singletonList("missing"), null);
+
+        assertNull(AudienceEvaluator.compile(experiment, projectConfig).evaluate(OTUtils.user()));
+        logbackVerifier.expectMessage(Level.ERROR, "Audience missing could not be found.");
+    }
+
+    @Test
+    public void unknownMatchTypeEvaluatesToNull() {
+        UserAttribute unknownMatch = new UserAttribute("house", "custom_attribute", "unknown_match", "Gryffindor");
+        UserAttribute gryffindor = new UserAttribute("house", "custom_attribute", "exact", "Gryffindor");
+        Audience audience = new Audience("1", "audience", new OrCondition(Arrays.<Condition>asList(unknownMatch, gryffindor)));
+        ProjectConfig projectConfig = mock(ProjectConfig.class);
+        when(projectConfig.getAudienceIdMapping()).thenReturn(Collections.singletonMap("1", audience));
+        Experiment experiment = experiment(Collections.singletonList("1"),
+            new NotCondition(new AudienceIdCondition("1")));
+
+        AudienceEvaluator audienceEvaluator = AudienceEvaluator.compile(experiment, projectConfig);
+        assertEquals(false, audienceEvaluator.evaluate(OTUtils.user(Collections.singletonMap("house", "Gryffindor"))));
+        assertNull(audienceEvaluator.evaluate(OTUtils.user(Collections.singletonMap("house", "Hufflepuff"))));
+        logbackVerifier.expectMessage(Level.WARN,
+            "Audience condition \"{name='house', type='custom_attribute', match='unknown_match', value='Gryffindor'}\" uses an unknown match type. You may need to upgrade to a newer release of the Optimizely SDK.");
+    }
+
+    @Test
+    public void qualifiedSegmentLeaf() {
+        UserAttribute segment = new UserAttribute("odp.audiences", "third_party_dimension", "qualified", "segment-1");
+        Audience audience = new Audience("1", "audience", segment);
+        ProjectConfig projectConfig = mock(ProjectConfig.class);
+        when(projectConfig.getAudienceIdMapping()).thenReturn(Collections.singletonMap("1", audience));
+        AudienceEvaluator audienceEvaluator = AudienceEvaluator.compile(experiment(Collections.singletonList("1"), null), projectConfig);
+
+        OptimizelyUserContext user = OTUtils.user();
+        assertEquals(false, audienceEvaluator.evaluate(user));
+        user.setQualifiedSegments(Collections.singletonList("segment-1"));
+        assertEquals(true, audienceEvaluator.evaluate(user));
+    }
+
+    @Test
+    public void sharedAudienceEvaluatedOncePerMemo() {
+        CountingCondition counting = new CountingCondition();
+        Audience audience = new Audience("1", "audience", counting);
+        ProjectConfig projectConfig = mock(ProjectConfig.class);
+        when(projectConfig.getAudienceIdMapping()).thenReturn(Collections.singletonMap("1", audience));
+        Experiment experiment = experiment(Collections.singletonList("1"), null);
+        Experiment rule = experiment(Collections.<String>emptyList(),
+            new AndCondition(Arrays.<Condition>asList(new AudienceIdCondition("1"), new EmptyCondition())));
+        Map<ExperimentCore, AudienceEvaluator> audienceEvaluators =
+            AudienceEvaluator.compileAll(Arrays.asList(experiment, rule), projectConfig);
+        OptimizelyUserContext user = OTUtils.user();
+
+        AudienceMemo memo = new AudienceMemo(projectConfig);
+        assertEquals(true, audienceEvaluators.get(experiment).evaluate(user, memo));
+        assertEquals(true, audienceEvaluators.get(rule).evaluate(user, memo));
+        assertEquals(1, counting.evaluations);
+        logbackVerifier.expectMessage(Level.DEBUG, "Audience \"1\" already evaluated to true.");
+
+        assertEquals(true, audienceEvaluators.get(rule).evaluate(user, new AudienceMemo(projectConfig)));
+        assertEquals(true, audienceEvaluators.get(rule).evaluate(user));
+        assertEquals(3, counting.evaluations);
+    }
+
+    @Test
+    public void memoOfAnotherConfigIsIgnored() {
+        CountingCondition counting = new CountingCondition();
+        Map<String, Audience> audienceIdMapping = Collections.singletonMap("1", new Audience("1", "audience", counting));
+        ProjectConfig projectConfig = mock(ProjectConfig.class);
+        when(projectConfig.getAudienceIdMapping()).thenReturn(audienceIdMapping);
+        ProjectConfig otherConfig = mock(ProjectConfig.class);
+        when(otherConfig.getAudienceIdMapping()).thenReturn(audienceIdMapping);
+        AudienceEvaluator audienceEvaluator = AudienceEvaluator.compile(experiment(Collections.singletonList("1"), null), projectConfig);
+
+        AudienceMemo memo = new AudienceMemo(otherConfig);
+        audienceEvaluator.evaluate(OTUtils.user(), memo);
+        audienceEvaluator.evaluate(OTUtils.user(), memo);
+        assertEquals(2, counting.evaluations);
+    }
+
+    private static Boolean evaluateConditionTree(ProjectConfig projectConfig, ExperimentCore experiment, OptimizelyUserContext user) {
+        if (experiment.getAudienceConditions() != null) {
+            return experiment.getAudienceConditions().evaluate(projectConfig, user);
+        }
+        if (experiment.getAudienceIds().isEmpty()) {
+            return true;
+        }
+        List<Condition> conditions = new ArrayList<>();
+        for (String audienceId : experiment.getAudienceIds()) {
+            conditions.add(new AudienceIdCondition(audienceId));
+        }
+        return new OrCondition(conditions).evaluate(projectConfig, user);
+    }
+
+    private static Experiment experiment(List<String> audienceIds, Condition audienceConditions) {
+        return new Experiment("1", "experiment", "Running", "layer", audienceIds, audienceConditions,
+            Collections.emptyList(), Collections.emptyMap(), Collections.emptyList());
+    }
+
+    private static Map<String, Object> attributes(Object... keyValues) {
+        Map<String, Object> attributes = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            attributes.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return attributes;
+    }
+
+    private static final class CountingCondition extends LeafCondition<Object> {
+        private int evaluations;
+
+        @Override
+        public Boolean evaluate(ProjectConfig config, OptimizelyUserContext user) {
+            evaluations++;
+            return true;
+        }
+
+        @Override
+        public String toJson() {
+            return null;
+        }
+
+        @Override
+        public String getOperandOrId() {
+            return null;
+        }
+    }
+}
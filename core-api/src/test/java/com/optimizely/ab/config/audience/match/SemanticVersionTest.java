@@ -176,4 +176,39 @@ public class SemanticVersionTest {
         assertNull(new SemanticVersionLTMatch().eval("1.2.3", null));
     }
 
+    @Test
+    public void testPreparedVersionsCompareLikeStrings() throws Exception {
+        String[] versions = {"3.7", "3.7.0", "3.7.1", "3.7.1-beta", "3.7.1-alpha", "3.7.1+build", "3.7.1-beta.2",
+            "2.1.3-beta+1", "2.1.3-beta+1.2.3", "2.1.3-beta-1", "10", "1.a.2", "", "3.7.1-"};
+        for (String userVersion : versions) {
+            for (String targetedVersion : versions) {
+                Integer expected;
+                try {
+                    expected = SemanticVersion.compare(userVersion, targetedVersion);
+                } catch (UnexpectedValueTypeException e) {
+                    expected = null;
+                }
+                Integer actual;
+                try {
+                    actual = SemanticVersion.compare(SemanticVersion.prepare(userVersion), SemanticVersion.prepare(targetedVersion));
+                } catch (UnexpectedValueTypeException e) {
+                    actual = null;
+                }
+                assertEquals(userVersion + " vs " + targetedVersion, expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testPreparedInvalidVersionThrows() throws Exception {
+        thrown.expect(UnexpectedValueTypeException.class);
+        SemanticVersion.compare(SemanticVersion.prepare("3.7.1"), SemanticVersion.prepare("3.7.1.2"));
+    }
+
+    @Test
+    public void testPrepareLeavesOtherValues() {
+        assertEquals(3, SemanticVersion.prepare(3));
+        assertNull(SemanticVersion.prepare(null));
+        assertTrue(new SemanticVersionGEMatch().prepareConditionValue("1.2.3") instanceof SemanticVersion);
+    }
 }
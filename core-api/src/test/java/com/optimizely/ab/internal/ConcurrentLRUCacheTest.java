@@ -0,0 +1,219 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ConcurrentLRUCacheTest {
+
+    @Test
+    public void createSaveAndLookupOneItem() {
+        Cache<String> cache = new ConcurrentLRUCache<>();
+        assertNull(cache.lookup("key1"));
+        cache.save("key1", "value1");
+        assertEquals("value1", cache.lookup("key1"));
+    }
+
+    @Test
+    public void saveOverwritesItem() {
+        Cache<String> cache = new ConcurrentLRUCache<>();
+        cache.save("key1", "value1");
+        cache.save("key1", "value2");
+        assertEquals("value2", cache.lookup("key1"));
+    }
+
+    @Test
+    public void whenCacheIsDisabled() {
+        ConcurrentLRUCache<List<String>> cache = new ConcurrentLRUCache<>(0, Cache.DEFAULT_TIMEOUT_SECONDS);
+
+        cache.save("user1", Arrays.asList("segment1", "segment2"));
+        cache.save("user2", Arrays.asList("segment3", "segment4"));
+
+        assertNull(cache.lookup("user1"));
+        assertNull(cache.lookup("user2"));
+        assertEquals(0, cache.map.size());
+    }
+
+    @Test
+    public void whenItemsExpire() throws InterruptedException {
+        ConcurrentLRUCache<List<String>> cache = new ConcurrentLRUCache<>(Cache.DEFAULT_MAX_SIZE, 1);
+        cache.save("user1", Arrays.asList("segment1", "segment2"));
+        assertEquals(Arrays.asList("segment1", "segment2"), cache.lookup("user1"));
+        assertEquals(1, cache.map.size());
+        Thread.sleep(1000);
+        assertNull(cache.lookup("user1"));
+        assertEquals(0, cache.map.size());
+    }
+
+    @Test
+    public void whenCacheReachesMaxSize() {
+        ConcurrentLRUCache<List<String>> cache = new ConcurrentLRUCache<>(2, Cache.DEFAULT_TIMEOUT_SECONDS);
+
+        cache.save("user1", Arrays.asList("segment1", "segment2"));
+        cache.save("user2", Arrays.asList("segment3", "segment4"));
+        cache.save("user3", Arrays.asList("segment5", "segment6"));
+
+        assertEquals(2, cache.map.size());
+
+        assertEquals(Arrays.asList("segment5", "segment6"), cache.lookup("user3"));
+        assertEquals(Arrays.asList("segment3", "segment4"), cache.lookup("user2"));
+        assertNull(cache.lookup("user1"));
+    }
+
+    @Test
+    public void lookupKeepsItemFromEviction() {
+        ConcurrentLRUCache<Integer> cache = new ConcurrentLRUCache<>(3, Cache.DEFAULT_TIMEOUT_SECONDS);
+
+        cache.save("1", 100);
+        cache.save("2", 200);
+        cache.save("3", 300);
+        assertEquals(Integer.valueOf(100), cache.lookup("1"));
+
+        cache.save("4", 400);
+
+        assertEquals(3, cache.map.size());
+        assertNull(cache.lookup("2"));
+        assertEquals(Integer.valueOf(100), cache.lookup("1"));
+        assertEquals(Integer.valueOf(300), cache.lookup("3"));
+        assertEquals(Integer.valueOf(400), cache.lookup("4"));
+    }
+
+    @Test
+    public void evictionRemovesLeastRecentlyUsedBatch() {
+        int maxSize = 64;
+        ConcurrentLRUCache<Integer> cache = new ConcurrentLRUCache<>(maxSize, Cache.DEFAULT_TIMEOUT_SECONDS);
+
+        for (int i = 0; i < maxSize; i++) {
+            cache.save(String.valueOf(i), i);
+        }
+        cache.save("new", -1);
+
+        // one save beyond the maximum evicts the overflow plus 1/16th of the maximum size, oldest first
+        assertEquals(maxSize - maxSize / 16, cache.map.size());
+        for (int i = 0; i <= maxSize / 16; i++) {
+            assertNull(cache.lookup(String.valueOf(i)));
+        }
+        for (int i = maxSize / 16 + 1; i < maxSize; i++) {
+            assertEquals(Integer.valueOf(i), cache.lookup(String.valueOf(i)));
+        }
+        assertEquals(Integer.valueOf(-1), cache.lookup("new"));
+    }
+
+    @Test
+    public void whenCacheIsReset() {
+        ConcurrentLRUCache<List<String>> cache = new ConcurrentLRUCache<>();
+        cache.save("user1", Arrays.asList("segment1", "segment2"));
+        cache.save("user2", Arrays.asList("segment3", "segment4"));
+
+        assertEquals(2, cache.map.size());
+
+        cache.reset();
+
+        assertNull(cache.lookup("user1"));
+        assertNull(cache.lookup("user2"));
+        assertEquals(0, cache.map.size());
+    }
+
+    @Test
+    public void testRemoveExistingKey() {
+        ConcurrentLRUCache<Integer> cache = new ConcurrentLRUCache<>(3, 1000);
+
+        cache.save("1", 100);
+        cache.save("2", 200);
+        cache.save("3", 300);
+
+        cache.remove("2");
+        cache.remove("4"); // Doesn't exist
+
+        assertEquals(Integer.valueOf(100), cache.lookup("1"));
+        assertNull(cache.lookup("2"));
+        assertEquals(Integer.valueOf(300), cache.lookup("3"));
+    }
+
+    @Test
+    public void testConcurrentSaveAndLookup() throws InterruptedException {
+        final int maxSize = 100;
+        final ConcurrentLRUCache<Integer> cache = new ConcurrentLRUCache<>(maxSize, 1000);
+        final AtomicInteger wrongValues = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t * 1000;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 10000; i++) {
+                    String key = String.valueOf(offset + i % 500);
+                    Integer value = cache.lookup(key);
+                    if (value == null) {
+                        cache.save(key, offset + i % 500);
+                    } else if (value != offset + i % 500) {
+                        wrongValues.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, wrongValues.get());
+        // eviction may miss saves that race with its end, at most about one per thread
+        assertTrue(cache.map.size() <= maxSize + threads.length);
+    }
+
+    @Test
+    public void statsCountHitsMissesExpirationsAndEvictions() throws InterruptedException {
+        ConcurrentLRUCache<String> cache = new ConcurrentLRUCache<>(16, 1);
+        for (int i = 0; i < 17; i++) {
+            cache.save("key" + i, "value" + i);
+        }
+        assertEquals("value16", cache.lookup("key16"));
+        cache.recordLoad(1000);
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(0, stats.getMissCount());
+        // one batch evicts down to 15 entries
+        assertEquals(2, stats.getEvictionCount());
+        assertEquals(15, stats.getSize());
+        assertEquals(1, stats.getLoadCount());
+
+        Thread.sleep(1000);
+        assertNull(cache.lookup("key16"));
+        assertNull(cache.lookup("missing"));
+
+        stats = cache.getStats();
+        assertEquals(2, stats.getMissCount());
+        assertEquals(1, stats.getExpirationCount());
+        assertEquals(14, stats.getSize());
+    }
+}
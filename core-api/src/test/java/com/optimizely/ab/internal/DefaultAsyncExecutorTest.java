@@ -0,0 +1,78 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.internal;
+
+import ch.qos.logback.classic.Level;
+import com.optimizely.ab.odp.ODPApiManager;
+import com.optimizely.ab.odp.ODPSegmentManager;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class DefaultAsyncExecutorTest {
+
+    @Rule
+    public LogbackVerifier logbackVerifier = new LogbackVerifier();
+
+    @Test
+    public void saturatedPoolFallsBackToCallerThread() throws Exception {
+        ExecutorService executor = DefaultAsyncExecutor.newThreadPool(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // one task holds the only thread, another fills the queue
+            executor.execute(() -> awaitQuietly(release));
+            executor.execute(() -> awaitQuietly(release));
+            try {
+                executor.execute(() -> { });
+                fail("a saturated pool should reject tasks");
+            } catch (RejectedExecutionException e) {
+                // expected
+            }
+
+            ODPSegmentManager segmentManager = new ODPSegmentManager(mock(ODPApiManager.class));
+            segmentManager.setAsyncExecutor(executor);
+            CompletableFuture<List<String>> segments = segmentManager.getQualifiedSegmentsAsync("user", Collections.emptyList());
+
+            // the rejected fetch ran on this thread
+            assertTrue(segments.isDone());
+            logbackVerifier.expectMessage(Level.WARN,
+                "Audience segments fetch rejected by the async executor, fetching on the calling thread");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -255,4 +255,40 @@ public class DefaultLRUCacheTest {
 
         assertEquals(maxSize / 2, cache.linkedHashMap.size());
     }
+
+    @Test
+    public void statsCountHitsMissesEvictionsAndLoads() {
+        DefaultLRUCache<String> cache = new DefaultLRUCache<>(2, 1000);
+        cache.save("key1", "value1");
+        cache.save("key2", "value2");
+        cache.save("key3", "value3");
+        cache.lookup("key1");
+        cache.lookup("key3");
+        cache.recordLoad(1000);
+        cache.recordLoad(3000);
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(0, stats.getExpirationCount());
+        assertEquals(1, stats.getEvictionCount());
+        assertEquals(2, stats.getSize());
+        assertEquals(2, stats.getLoadCount());
+        assertEquals(0.5, stats.getHitRate(), 0.0);
+        assertEquals(2000.0, stats.getAverageLoadTimeNanos(), 0.0);
+    }
+
+    @Test
+    public void statsCountExpirationsAsMisses() throws InterruptedException {
+        DefaultLRUCache<String> cache = new DefaultLRUCache<>(10, 1);
+        cache.save("key1", "value1");
+        Thread.sleep(1000);
+        assertNull(cache.lookup("key1"));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(0, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getExpirationCount());
+        assertEquals(0, stats.getSize());
+    }
 }
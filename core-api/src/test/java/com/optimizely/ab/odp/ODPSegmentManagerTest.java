@@ -31,6 +31,11 @@ import static org.junit.Assert.*;
 
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class ODPSegmentManagerTest {
 
@@ -399,6 +404,21 @@ public class ODPSegmentManagerTest {
         logbackVerifier.expectMessage(Level.DEBUG, "No Segments are used in the project, Not Fetching segments. Returning empty list");
     }
 
+    @Test
+    public void callbackErrorIsLogged() {
+        Mockito.when(mockCache.lookup(any())).thenReturn(Arrays.asList("segment1-cached", "segment2-cached"));
+
+        ODPConfig odpConfig = new ODPConfig("testKey", "testHost", new HashSet<>(Arrays.asList("segment1", "segment2")));
+        ODPSegmentManager segmentManager = new ODPSegmentManager(mockApiManager, mockCache);
+        segmentManager.updateSettings(odpConfig);
+        segmentManager.setAsyncExecutor(Runnable::run);
+        segmentManager.getQualifiedSegments(ODPUserKey.FS_USER_ID, "testId", segments -> {
+            throw new IllegalStateException("callback failed");
+        });
+
+        logbackVerifier.expectMessage(Level.ERROR, "Error in audience segments fetch callback");
+    }
+
     @Test
     public void getQualifiedSegmentsWithUserId() {
         ODPSegmentManager segmentManager = spy(new ODPSegmentManager(mockApiManager, mockCache));
@@ -414,4 +434,76 @@ public class ODPSegmentManagerTest {
         verify(segmentManager).getQualifiedSegments(ODPUserKey.VUID, "vuid_123", Collections.emptyList());
     }
 
+    @Test
+    public void concurrentMissesShareOneFetch() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        Mockito.when(mockApiManager.fetchQualifiedSegments(anyString(), anyString(), anyString(), anyString(), anySet()))
+            .thenAnswer(invocation -> {
+                fetchStarted.countDown();
+                releaseFetch.await(5, TimeUnit.SECONDS);
+                return API_RESPONSE;
+            });
+
+        ODPConfig odpConfig = new ODPConfig("testKey", "testHost", new HashSet<>(Arrays.asList("segment1", "segment2")));
+        ODPSegmentManager segmentManager = new ODPSegmentManager(mockApiManager);
+        segmentManager.updateSettings(odpConfig);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<String>> first = executor.submit(() -> segmentManager.getQualifiedSegments(ODPUserKey.FS_USER_ID, "testId"));
+            assertTrue(fetchStarted.await(5, TimeUnit.SECONDS));
+            Future<List<String>> second = executor.submit(() -> segmentManager.getQualifiedSegments(ODPUserKey.FS_USER_ID, "testId"));
+            Thread.sleep(50);
+            releaseFetch.countDown();
+
+            assertEquals(API_RESPONSE, first.get(5, TimeUnit.SECONDS));
+            assertEquals(API_RESPONSE, second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(mockApiManager, times(1)).fetchQualifiedSegments(anyString(), anyString(), anyString(), anyString(), anySet());
+    }
+
+    @Test
+    public void errorInFetchCompletesJoinedFetch() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        Mockito.when(mockApiManager.fetchQualifiedSegments(anyString(), anyString(), anyString(), anyString(), anySet()))
+            .thenAnswer(invocation -> {
+                fetchStarted.countDown();
+                releaseFetch.await(5, TimeUnit.SECONDS);
+                throw new AssertionError("fetch failed");
+            })
+            .thenReturn(API_RESPONSE);
+
+        ODPConfig odpConfig = new ODPConfig("testKey", "testHost", new HashSet<>(Arrays.asList("segment1", "segment2")));
+        ODPSegmentManager segmentManager = new ODPSegmentManager(mockApiManager);
+        segmentManager.updateSettings(odpConfig);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<String>> first = executor.submit(() -> segmentManager.getQualifiedSegments(ODPUserKey.FS_USER_ID, "testId"));
+            assertTrue(fetchStarted.await(5, TimeUnit.SECONDS));
+            Future<List<String>> second = executor.submit(() -> segmentManager.getQualifiedSegments(ODPUserKey.FS_USER_ID, "testId"));
+            Thread.sleep(50);
+            releaseFetch.countDown();
+
+            for (Future<List<String>> future : Arrays.asList(first, second)) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                    fail("the error should reach every caller of the fetch");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof AssertionError);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // the failed fetch is no longer in flight
+        assertEquals(API_RESPONSE, segmentManager.getQualifiedSegments(ODPUserKey.FS_USER_ID, "testId"));
+    }
+
 }
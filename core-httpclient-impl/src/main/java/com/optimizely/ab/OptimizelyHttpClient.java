@@ -89,6 +89,8 @@ public class OptimizelyHttpClient implements Closeable {
         HttpRequestRetryHandler customRetryHandler = null;
         TimeUnit evictConnectionIdleTimeUnit = TimeUnit.MILLISECONDS;
         private int timeoutMillis = HttpClientUtils.CONNECTION_TIMEOUT_MS;
+        // transparent gzip/deflate decompression of responses (enabled by default)
+        boolean contentCompression = true;
 
 
         private Builder() {
@@ -122,6 +124,18 @@ public class OptimizelyHttpClient implements Closeable {
             return this;
         }
         
+        /**
+         * Enable or disable the transparent decompression of compressed responses. When disabled, the client no
+         * longer sends Accept-Encoding by itself and response bodies are returned as received.
+         *
+         * @param contentCompression Whether responses are decompressed by the client
+         * @return  An OptimizelyHttpClient builder
+         */
+        public Builder withContentCompression(boolean contentCompression) {
+            this.contentCompression = contentCompression;
+            return this;
+        }
+
         public Builder setTimeoutMillis(int timeoutMillis) {
             this.timeoutMillis = timeoutMillis;
             return this;
@@ -141,6 +155,9 @@ public class OptimizelyHttpClient implements Closeable {
             if (customRetryHandler != null) {
                 builder.setRetryHandler(customRetryHandler);
             }
+            if (!contentCompression) {
+                builder.disableContentCompression();
+            }
 
             logger.debug("Creating HttpClient with timeout: " + timeoutMillis);
 
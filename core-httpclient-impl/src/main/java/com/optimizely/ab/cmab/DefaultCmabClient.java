@@ -17,7 +17,12 @@ package com.optimizely.ab.cmab;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.apache.http.ParseException;
 import org.apache.http.StatusLine;
@@ -34,6 +39,7 @@ import com.optimizely.ab.cmab.client.CmabClientConfig;
 import com.optimizely.ab.cmab.client.CmabClientHelper;
 import com.optimizely.ab.cmab.client.CmabFetchException;
 import com.optimizely.ab.cmab.client.CmabInvalidResponseException;
+import com.optimizely.ab.cmab.client.CmabPredictionRequest;
 import com.optimizely.ab.cmab.client.RetryConfig;
 
 public class DefaultCmabClient implements CmabClient {
@@ -81,15 +87,57 @@ public class DefaultCmabClient implements CmabClient {
         String url = String.format(cmabEndpoint, ruleId);
         String requestBody = CmabClientHelper.buildRequestJson(userId, ruleId, attributes, cmabUuid);
 
+        return fetch(url, requestBody, CmabClientHelper::parseVariationId);
+    }
+
+    /**
+     * Sends the requests for each rule endpoint as one prediction call with an instance per request. A failed call
+     * only fails the requests of its endpoint.
+     */
+    @Override
+    public List<CompletableFuture<String>> fetchDecisions(List<CmabPredictionRequest> requests) {
+        Map<String, List<Integer>> requestIndexesByUrl = new LinkedHashMap<>();
+        List<CompletableFuture<String>> variationIds = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String url = String.format(cmabEndpoint, requests.get(i).getRuleId());
+            requestIndexesByUrl.computeIfAbsent(url, key -> new ArrayList<>()).add(i);
+            variationIds.add(new CompletableFuture<>());
+        }
+
+        for (Map.Entry<String, List<Integer>> entry : requestIndexesByUrl.entrySet()) {
+            List<Integer> requestIndexes = entry.getValue();
+            List<CmabPredictionRequest> urlRequests = new ArrayList<>(requestIndexes.size());
+            for (int index : requestIndexes) {
+                urlRequests.add(requests.get(index));
+            }
+
+            try {
+                String requestBody = CmabClientHelper.buildBatchRequestJson(urlRequests);
+                List<String> urlVariationIds = fetch(entry.getKey(), requestBody,
+                    responseBody -> CmabClientHelper.parseVariationIds(responseBody, urlRequests.size()));
+                for (int i = 0; i < requestIndexes.size(); i++) {
+                    variationIds.get(requestIndexes.get(i)).complete(urlVariationIds.get(i));
+                }
+            } catch (RuntimeException e) {
+                for (int index : requestIndexes) {
+                    variationIds.get(index).completeExceptionally(e);
+                }
+            }
+        }
+
+        return variationIds;
+    }
+
+    private <T> T fetch(String url, String requestBody, Function<String, T> responseParser) {
         // Use retry logic if configured, otherwise single request
         if (retryConfig != null && retryConfig.getMaxRetries() > 0) {
-            return doFetchWithRetry(url, requestBody, retryConfig.getMaxRetries());
+            return doFetchWithRetry(url, requestBody, retryConfig.getMaxRetries(), responseParser);
         } else {
-            return doFetch(url, requestBody);
+            return doFetch(url, requestBody, responseParser);
         }
     }
 
-    private String doFetch(String url, String requestBody) {
+    private <T> T doFetch(String url, String requestBody, Function<String, T> responseParser) {
         HttpPost request = new HttpPost(url);
         try {
             request.setEntity(new StringEntity(requestBody));
@@ -119,7 +167,7 @@ public class DefaultCmabClient implements CmabClient {
                     logger.error(CmabClientHelper.INVALID_CMAB_FETCH_RESPONSE);
                     throw new CmabInvalidResponseException(CmabClientHelper.INVALID_CMAB_FETCH_RESPONSE);
                 }
-                return CmabClientHelper.parseVariationId(responseBody);
+                return responseParser.apply(responseBody);
             } catch (IOException | ParseException e) {
                 logger.error(CmabClientHelper.CMAB_FETCH_FAILED);
                 throw new CmabInvalidResponseException(CmabClientHelper.INVALID_CMAB_FETCH_RESPONSE);
@@ -134,13 +182,13 @@ public class DefaultCmabClient implements CmabClient {
         }
     }
 
-    private String doFetchWithRetry(String url, String requestBody, int maxRetries) {
+    private <T> T doFetchWithRetry(String url, String requestBody, int maxRetries, Function<String, T> responseParser) {
         double backoff = retryConfig.getBackoffBaseMs();
         Exception lastException = null;
         
         for (int attempt = 0; attempt <= maxRetries; attempt++) {
             try {
-                return doFetch(url, requestBody);
+                return doFetch(url, requestBody, responseParser);
             } catch (CmabFetchException | CmabInvalidResponseException e) {
                 lastException = e;
                 
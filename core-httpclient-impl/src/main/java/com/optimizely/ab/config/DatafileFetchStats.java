@@ -0,0 +1,75 @@
+/**
+ *
+ *    Copyright 2026, Optimizely and contributors
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.optimizely.ab.config;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An immutable snapshot of the datafile fetch statistics of a {@link HttpProjectConfigManager}.
+ * <p>
+ * Counts are cumulative since the manager was created.
+ */
+@Immutable
+public final class DatafileFetchStats {
+
+    private final long responseCount;
+    private final long notModifiedCount;
+    private final long bytesReceived;
+
+    public DatafileFetchStats(long responseCount, long notModifiedCount, long bytesReceived) {
+        this.responseCount = responseCount;
+        this.notModifiedCount = notModifiedCount;
+        this.bytesReceived = bytesReceived;
+    }
+
+    /**
+     * @return the number of datafile responses received, whatever their status.
+     */
+    public long getResponseCount() {
+        return responseCount;
+    }
+
+    /**
+     * @return the number of 304 Not Modified responses.
+     */
+    public long getNotModifiedCount() {
+        return notModifiedCount;
+    }
+
+    /**
+     * @return the number of datafile body bytes read from the http client, before decompression by the manager.
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * @return the ratio of responses that were 304 Not Modified, or 0.0 when there were no responses.
+     */
+    public double getNotModifiedRate() {
+        return responseCount == 0 ? 0.0 : (double) notModifiedCount / responseCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DatafileFetchStats{" +
+            "responseCount=" + responseCount +
+            ", notModifiedCount=" + notModifiedCount +
+            ", bytesReceived=" + bytesReceived +
+            '}';
+    }
+}
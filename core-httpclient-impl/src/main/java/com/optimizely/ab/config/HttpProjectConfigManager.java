@@ -29,13 +29,21 @@ import org.apache.http.*;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.util.EntityUtils;
+import org.apache.http.entity.ContentType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
 
 /**
  * HttpProjectConfigManager is an implementation of a {@link PollingProjectConfigManager}
@@ -67,8 +75,13 @@ public class HttpProjectConfigManager extends PollingProjectConfigManager {
     private final URI uri;
     private final String datafileAccessToken;
     private String datafileLastModified;
+    private String datafileETag;
     private final ReentrantLock lock = new ReentrantLock();
 
+    private final LongAdder responseCount = new LongAdder();
+    private final LongAdder notModifiedCount = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+
     private HttpProjectConfigManager(long period,
                                      TimeUnit timeUnit,
                                      OptimizelyHttpClient httpClient,
@@ -92,6 +105,17 @@ public class HttpProjectConfigManager extends PollingProjectConfigManager {
         return datafileLastModified;
     }
 
+    public String getETag() {
+        return datafileETag;
+    }
+
+    /**
+     * @return A snapshot of the datafile fetch statistics.
+     */
+    public DatafileFetchStats getFetchStats() {
+        return new DatafileFetchStats(responseCount.sum(), notModifiedCount.sum(), bytesReceived.sum());
+    }
+
     public String getDatafileFromResponse(HttpResponse response) throws NullPointerException, IOException {
         StatusLine statusLine = response.getStatusLine();
 
@@ -100,9 +124,11 @@ public class HttpProjectConfigManager extends PollingProjectConfigManager {
         }
 
         int status = statusLine.getStatusCode();
+        responseCount.increment();
 
         // Datafile has not updated
         if (status == HttpStatus.SC_NOT_MODIFIED) {
+            notModifiedCount.increment();
             logger.debug("Not updating ProjectConfig as datafile has not updated since " + datafileLastModified);
             return null;
         }
@@ -114,12 +140,48 @@ public class HttpProjectConfigManager extends PollingProjectConfigManager {
             if (lastModifiedHeader != null) {
                 datafileLastModified = lastModifiedHeader.getValue();
             }
-            return EntityUtils.toString(entity, "UTF-8");
+            Header eTagHeader = response.getFirstHeader(HttpHeaders.ETAG);
+            if (eTagHeader != null) {
+                datafileETag = eTagHeader.getValue();
+            }
+            return readDatafile(entity);
         } else {
             throw new ClientProtocolException("unexpected response when trying to fetch datafile, status: " + status);
         }
     }
 
+    /**
+     * Reads the datafile from the response body, decompressing it on the fly when the http client left it gzip
+     * encoded. Bytes are counted as read from the client, before decompression.
+     */
+    private String readDatafile(HttpEntity entity) throws IOException {
+        Charset charset = StandardCharsets.UTF_8;
+        ContentType contentType = ContentType.get(entity);
+        if (contentType != null && contentType.getCharset() != null) {
+            charset = contentType.getCharset();
+        }
+
+        InputStream content = new CountingInputStream(entity.getContent(), bytesReceived);
+        Header contentEncoding = entity.getContentEncoding();
+        if (contentEncoding != null && isGzip(contentEncoding.getValue())) {
+            content = new GZIPInputStream(content);
+        }
+
+        try (Reader reader = new InputStreamReader(content, charset)) {
+            StringBuilder datafile = new StringBuilder(entity.getContentLength() > 0 ? (int) entity.getContentLength() : 4096);
+            char[] buffer = new char[4096];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                datafile.append(buffer, 0, read);
+            }
+            return datafile.toString();
+        }
+    }
+
+    private static boolean isGzip(String contentEncoding) {
+        return "gzip".equalsIgnoreCase(contentEncoding) || "x-gzip".equalsIgnoreCase(contentEncoding);
+    }
+
     static ProjectConfig parseProjectConfig(String datafile) throws ConfigParseException {
         return new DatafileProjectConfig.Builder().withDatafile(datafile).build();
     }
@@ -179,9 +241,42 @@ public class HttpProjectConfigManager extends PollingProjectConfigManager {
             httpGet.setHeader(HttpHeaders.IF_MODIFIED_SINCE, datafileLastModified);
         }
 
+        if (datafileETag != null) {
+            httpGet.setHeader(HttpHeaders.IF_NONE_MATCH, datafileETag);
+        }
+
+        httpGet.setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
         return httpGet;
     }
 
+    private static class CountingInputStream extends FilterInputStream {
+        private final LongAdder counter;
+
+        private CountingInputStream(InputStream in, LongAdder counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counter.increment();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                counter.add(read);
+            }
+            return read;
+        }
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -206,6 +301,7 @@ public class HttpProjectConfigManager extends PollingProjectConfigManager {
         long evictConnectionIdleTimePeriod = PropertyUtils.getLong(CONFIG_EVICT_DURATION, DEFAULT_EVICT_DURATION);
         TimeUnit evictConnectionIdleTimeUnit = PropertyUtils.getEnum(CONFIG_EVICT_UNIT, TimeUnit.class, DEFAULT_EVICT_UNIT);
         ThreadFactory threadFactory = null;
+        boolean optimizelyConfigEnabled = true;
 
         public Builder withDatafile(String datafile) {
             this.datafile = datafile;
@@ -321,6 +417,19 @@ public class HttpProjectConfigManager extends PollingProjectConfigManager {
             return this;
         }
 
+        /**
+         * Enable or disable the OptimizelyConfig of the built manager. It is enabled by default and built lazily,
+         * once per datafile revision. When disabled, {@link PollingProjectConfigManager#getOptimizelyConfig()}
+         * returns null.
+         *
+         * @param optimizelyConfigEnabled Whether OptimizelyConfig is available
+         * @return  A HttpProjectConfigManager builder
+         */
+        public Builder withOptimizelyConfigEnabled(boolean optimizelyConfigEnabled) {
+            this.optimizelyConfigEnabled = optimizelyConfigEnabled;
+            return this;
+        }
+
         /**
          * HttpProjectConfigManager.Builder that builds and starts a HttpProjectConfigManager.
          * This is the default builder which will block until a config is available.
@@ -354,8 +463,10 @@ public class HttpProjectConfigManager extends PollingProjectConfigManager {
             }
 
             if (httpClient == null) {
+                // the manager negotiates gzip and decompresses the datafile itself, see readDatafile
                 httpClient = OptimizelyHttpClient.builder()
                     .withEvictIdleConnections(evictConnectionIdleTimePeriod, evictConnectionIdleTimeUnit)
+                    .withContentCompression(false)
                     .build();
             }
             if (sdkKey == null) {
@@ -385,6 +496,7 @@ public class HttpProjectConfigManager extends PollingProjectConfigManager {
                 notificationCenter,
                 threadFactory);
             httpProjectManager.setSdkKey(sdkKey);
+            httpProjectManager.setOptimizelyConfigEnabled(optimizelyConfigEnabled);
             if (datafile != null) {
                 try {
                     ProjectConfig projectConfig = HttpProjectConfigManager.parseProjectConfig(datafile);
@@ -21,6 +21,8 @@ import com.optimizely.ab.NamedThreadFactory;
 import com.optimizely.ab.OptimizelyHttpClient;
 import com.optimizely.ab.annotations.VisibleForTesting;
 
+import com.optimizely.ab.event.internal.payload.EventBatch;
+import com.optimizely.ab.event.internal.payload.Visitor;
 import com.optimizely.ab.internal.PropertyUtils;
 import java.util.concurrent.ThreadFactory;
 import javax.annotation.Nullable;
@@ -39,18 +41,29 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.CheckForNull;
 
 /**
  * {@link EventHandler} implementation that queues events and has a separate pool of threads responsible
  * for the dispatch.
+ * <p>
+ * By default every event is sent in its own request. With a max batch size greater than 1, queued events are
+ * drained in batches by at most one dispatcher per worker, and the POST events of a batch that share an endpoint
+ * and payload header are merged into a single request. This bounds the requests in flight to the number of workers
+ * and sends fewer, larger requests when events arrive faster than they can be dispatched one by one.
  */
 public class AsyncEventHandler implements EventHandler, AutoCloseable {
 
@@ -59,9 +72,11 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
     public static final String CONFIG_MAX_CONNECTIONS           = "async.event.handler.max.connections";
     public static final String CONFIG_MAX_PER_ROUTE             = "async.event.handler.event.max.per.route";
     public static final String CONFIG_VALIDATE_AFTER_INACTIVITY = "async.event.handler.validate.after";
+    public static final String CONFIG_MAX_BATCH_SIZE            = "async.event.handler.max.batch.size";
 
     public static final int DEFAULT_QUEUE_CAPACITY = 10000;
     public static final int DEFAULT_NUM_WORKERS = 2;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1;
 
 
     private static final Logger logger = LoggerFactory.getLogger(AsyncEventHandler.class);
@@ -71,6 +86,13 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
     public final OptimizelyHttpClient httpClient;
     private final ExecutorService workerExecutor;
 
+    // events waiting for a batch dispatcher, null when events are dispatched one by one
+    @Nullable
+    private final BlockingQueue<LogEvent> pendingEvents;
+    private final AtomicInteger activeBatchDispatchers = new AtomicInteger();
+    private final int maxBatchDispatchers;
+    private final int maxBatchSize;
+
     private final long closeTimeout;
     private final TimeUnit closeTimeoutUnit;
 
@@ -131,6 +153,40 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
                              TimeUnit closeTimeoutUnit,
                              @Nullable OptimizelyHttpClient httpClient,
                              @Nullable ThreadFactory threadFactory) {
+        this(queueCapacity,
+            numWorkers,
+            maxConnections,
+            connectionsPerRoute,
+            validateAfter,
+            closeTimeout,
+            closeTimeoutUnit,
+            httpClient,
+            threadFactory,
+            DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * @param queueCapacity       A depth of the event queue
+     * @param numWorkers          The number of workers, which is also the max number of requests in flight
+     * @param maxConnections      The max number of concurrent connections
+     * @param connectionsPerRoute The max number of concurrent connections per route
+     * @param validateAfter       An inactivity period in milliseconds after which persistent connections must be re-validated prior to being leased to the consumer.
+     * @param closeTimeout        The max time to wait for queued events to be dispatched on close
+     * @param closeTimeoutUnit    The time unit of the close timeout
+     * @param httpClient          The http client to dispatch with, or null to create one
+     * @param threadFactory       The factory of the worker threads, or null for the default
+     * @param maxBatchSize        The max number of queued events merged into one request, 1 to send every event on its own
+     */
+    public AsyncEventHandler(int queueCapacity,
+                             int numWorkers,
+                             int maxConnections,
+                             int connectionsPerRoute,
+                             int validateAfter,
+                             long closeTimeout,
+                             TimeUnit closeTimeoutUnit,
+                             @Nullable OptimizelyHttpClient httpClient,
+                             @Nullable ThreadFactory threadFactory,
+                             int maxBatchSize) {
         if (httpClient != null) {
             this.httpClient = httpClient;
         } else {
@@ -150,6 +206,7 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
 
         queueCapacity       = validateInput("queueCapacity", queueCapacity, DEFAULT_QUEUE_CAPACITY);
         numWorkers          = validateInput("numWorkers", numWorkers, DEFAULT_NUM_WORKERS);
+        maxBatchSize        = validateInput("maxBatchSize", maxBatchSize, DEFAULT_MAX_BATCH_SIZE);
 
         NamedThreadFactory namedThreadFactory = new NamedThreadFactory("optimizely-event-dispatcher-thread-%s", true, threadFactory);
         this.workerExecutor = new ThreadPoolExecutor(numWorkers, numWorkers,
@@ -157,20 +214,47 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
                                                      new ArrayBlockingQueue<>(queueCapacity),
                                                      namedThreadFactory);
 
+        this.pendingEvents = maxBatchSize > 1 ? new ArrayBlockingQueue<>(queueCapacity) : null;
+        this.maxBatchDispatchers = numWorkers;
+        this.maxBatchSize = maxBatchSize;
         this.closeTimeout = closeTimeout;
         this.closeTimeoutUnit = closeTimeoutUnit;
     }
 
     @VisibleForTesting
     public AsyncEventHandler(OptimizelyHttpClient httpClient, ExecutorService workerExecutor) {
+        this(httpClient, workerExecutor, DEFAULT_QUEUE_CAPACITY, DEFAULT_NUM_WORKERS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    @VisibleForTesting
+    AsyncEventHandler(OptimizelyHttpClient httpClient,
+                      ExecutorService workerExecutor,
+                      int queueCapacity,
+                      int numWorkers,
+                      int maxBatchSize) {
         this.httpClient = httpClient;
         this.workerExecutor = workerExecutor;
+        this.pendingEvents = maxBatchSize > 1 ? new ArrayBlockingQueue<>(queueCapacity) : null;
+        this.maxBatchDispatchers = numWorkers;
+        this.maxBatchSize = maxBatchSize;
         this.closeTimeout = Long.MAX_VALUE;
         this.closeTimeoutUnit = TimeUnit.MILLISECONDS;
     }
 
     @Override
     public void dispatchEvent(LogEvent logEvent) {
+        if (pendingEvents != null) {
+            if (!pendingEvents.offer(logEvent)) {
+                logger.error("event dispatch rejected");
+                return;
+            }
+            // take the event back unless a dispatcher has already picked it up
+            if (!scheduleBatchDispatcher() && pendingEvents.remove(logEvent)) {
+                logger.error("event dispatch rejected");
+            }
+            return;
+        }
+
         try {
             // attempt to enqueue the log event for processing
             workerExecutor.execute(new EventDispatcher(logEvent));
@@ -179,6 +263,103 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
         }
     }
 
+    /**
+     * Start a batch dispatcher unless the max number of them are already draining the pending events.
+     *
+     * @return false if the executor rejected the new dispatcher
+     */
+    private boolean scheduleBatchDispatcher() {
+        while (true) {
+            int active = activeBatchDispatchers.get();
+            if (active >= maxBatchDispatchers) {
+                return true;
+            }
+            if (activeBatchDispatchers.compareAndSet(active, active + 1)) {
+                break;
+            }
+        }
+
+        try {
+            workerExecutor.execute(new BatchDispatcher());
+            return true;
+        } catch (RejectedExecutionException e) {
+            activeBatchDispatchers.decrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Dispatch the pending events in batches until none are left.
+     */
+    private void drainPendingEvents() {
+        List<LogEvent> batch = new ArrayList<>(maxBatchSize);
+        while (pendingEvents.drainTo(batch, maxBatchSize) > 0) {
+            for (LogEvent logEvent : mergeLogEvents(batch)) {
+                new EventDispatcher(logEvent).run();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Merge the POST events that share an endpoint and payload header into one event with all their visitors.
+     * Other events are kept as they are. Events keep the order of their first occurrence.
+     *
+     * @param logEvents The events to merge
+     * @return The events to dispatch
+     */
+    @VisibleForTesting
+    static List<LogEvent> mergeLogEvents(List<LogEvent> logEvents) {
+        Map<Object, List<LogEvent>> groups = new LinkedHashMap<>();
+        for (LogEvent logEvent : logEvents) {
+            EventBatch eventBatch = logEvent.getEventBatch();
+            Object key;
+            if (logEvent.getRequestMethod() == LogEvent.RequestMethod.POST && eventBatch != null && eventBatch.getVisitors() != null) {
+                key = Arrays.asList(
+                    logEvent.getEndpointUrl(),
+                    logEvent.getRequestParams(),
+                    eventBatch.getAccountId(),
+                    eventBatch.getProjectId(),
+                    eventBatch.getRevision(),
+                    eventBatch.getClientName(),
+                    eventBatch.getClientVersion(),
+                    eventBatch.getAnonymizeIp(),
+                    eventBatch.getEnrichDecisions());
+            } else {
+                // not mergeable, keep it on its own
+                key = new Object();
+            }
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(logEvent);
+        }
+
+        List<LogEvent> mergedEvents = new ArrayList<>(groups.size());
+        for (List<LogEvent> group : groups.values()) {
+            LogEvent first = group.get(0);
+            if (group.size() == 1) {
+                mergedEvents.add(first);
+                continue;
+            }
+
+            List<Visitor> visitors = new ArrayList<>();
+            for (LogEvent logEvent : group) {
+                visitors.addAll(logEvent.getEventBatch().getVisitors());
+            }
+            EventBatch firstBatch = first.getEventBatch();
+            EventBatch mergedBatch = new EventBatch.Builder()
+                .setClientName(firstBatch.getClientName())
+                .setClientVersion(firstBatch.getClientVersion())
+                .setAccountId(firstBatch.getAccountId())
+                .setVisitors(visitors)
+                .setAnonymizeIp(firstBatch.getAnonymizeIp())
+                .setProjectId(firstBatch.getProjectId())
+                .setRevision(firstBatch.getRevision())
+                .build();
+            mergedBatch.setEnrichDecisions(firstBatch.getEnrichDecisions());
+            mergedEvents.add(new LogEvent(first.getRequestMethod(), first.getEndpointUrl(), first.getRequestParams(), mergedBatch));
+        }
+        return mergedEvents;
+    }
+
     /**
      * Attempts to gracefully terminate all event dispatch workers and close all resources.
      * This method blocks, awaiting the completion of any queued or ongoing event dispatches.
@@ -198,6 +379,10 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
             // Wait a while for existing tasks to terminate
             if (!workerExecutor.awaitTermination(timeout, unit)) {
                 int unprocessedCount = workerExecutor.shutdownNow().size();
+                if (pendingEvents != null) {
+                    unprocessedCount += pendingEvents.size();
+                    pendingEvents.clear();
+                }
                 logger.warn("timed out waiting for previously submitted events to be dispatched. "
                     + "{} events were dropped. "
                     + "Interrupting dispatch worker(s)", unprocessedCount);
@@ -206,6 +391,9 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
                 if (!workerExecutor.awaitTermination(timeout, unit)) {
                     logger.error("unable to gracefully shutdown event handler");
                 }
+            } else if (pendingEvents != null) {
+                // events queued after the last dispatcher finished have no dispatcher left to send them
+                drainPendingEvents();
             }
         } catch (InterruptedException ie) {
             // (Re-)Cancel if current thread also interrupted
@@ -284,6 +472,26 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
         }
     }
 
+    /**
+     * Drains the pending events in batches until none are left.
+     */
+    private class BatchDispatcher implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                drainPendingEvents();
+            } finally {
+                activeBatchDispatchers.decrementAndGet();
+            }
+
+            // an event queued while this dispatcher was finishing may have found no free dispatcher slot
+            if (!pendingEvents.isEmpty() && !workerExecutor.isShutdown()) {
+                scheduleBatchDispatcher();
+            }
+        }
+    }
+
     /**
      * Handler for the event request.
      */
@@ -314,6 +522,7 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
         int maxTotalConnections = PropertyUtils.getInteger(CONFIG_MAX_CONNECTIONS, HttpClientUtils.DEFAULT_MAX_CONNECTIONS);
         int maxPerRoute = PropertyUtils.getInteger(CONFIG_MAX_PER_ROUTE, HttpClientUtils.DEFAULT_MAX_PER_ROUTE);
         int validateAfterInactivity = PropertyUtils.getInteger(CONFIG_VALIDATE_AFTER_INACTIVITY, HttpClientUtils.DEFAULT_VALIDATE_AFTER_INACTIVITY);
+        int maxBatchSize = PropertyUtils.getInteger(CONFIG_MAX_BATCH_SIZE, DEFAULT_MAX_BATCH_SIZE);
         private long closeTimeout = Long.MAX_VALUE;
         private TimeUnit closeTimeoutUnit = TimeUnit.MILLISECONDS;
         private OptimizelyHttpClient httpClient;
@@ -353,6 +562,24 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
             return this;
         }
 
+        /**
+         * Merge up to this many queued events into one request. Events are merged when they are POSTed to the
+         * same endpoint with the same account, project, revision and client. Defaults to 1, which sends every
+         * event in its own request.
+         *
+         * @param maxBatchSize The max number of events merged into one request
+         * @return An AsyncEventHandler builder
+         */
+        public Builder withMaxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                logger.warn("Max batch size cannot be <= 0. Keeping default value: {}", this.maxBatchSize);
+                return this;
+            }
+
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
         public Builder withCloseTimeout(long closeTimeout, TimeUnit unit) {
             this.closeTimeout = closeTimeout;
             this.closeTimeoutUnit = unit;
@@ -374,7 +601,8 @@ public class AsyncEventHandler implements EventHandler, AutoCloseable {
                 closeTimeout,
                 closeTimeoutUnit,
                 httpClient,
-                null
+                null,
+                maxBatchSize
             );
         }
     }
@@ -16,8 +16,13 @@
 package com.optimizely.ab.cmab;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -31,16 +36,21 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.HttpRequest;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
 
 import com.optimizely.ab.OptimizelyHttpClient;
 import com.optimizely.ab.cmab.client.CmabClientConfig;
 import com.optimizely.ab.cmab.client.CmabFetchException;
 import com.optimizely.ab.cmab.client.CmabInvalidResponseException;
+import com.optimizely.ab.cmab.client.CmabPredictionRequest;
 import com.optimizely.ab.cmab.client.RetryConfig;
 import com.optimizely.ab.internal.LogbackVerifier;
 
@@ -277,4 +287,90 @@ public class DefaultCmabClientTest {
             assertEquals("Invalid CMAB fetch response", e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fetchDecisionsSendsOneRequestPerRule() throws Exception {
+        int port = 9997;
+        ClientAndServer mockServer = ClientAndServer.startClientAndServer(port);
+        try {
+            mockServer
+                .when(request().withMethod("POST").withPath("/predict/rule_1"))
+                .respond(response().withStatusCode(200)
+                    .withBody("{\"predictions\":[{\"variation_id\":\"var_a\"},{\"variation_id\":\"var_b\"}]}"));
+            mockServer
+                .when(request().withMethod("POST").withPath("/predict/rule_2"))
+                .respond(response().withStatusCode(200)
+                    .withBody("{\"predictions\":[{\"variation_id\":\"var_c\"}]}"));
+
+            DefaultCmabClient client = new DefaultCmabClient(
+                new CmabClientConfig(null, "http://localhost:" + port + "/predict/%s"));
+            List<CompletableFuture<String>> variationIds = client.fetchDecisions(Arrays.asList(
+                new CmabPredictionRequest("rule_1", "user_1", Collections.emptyMap(), "uuid_1"),
+                new CmabPredictionRequest("rule_2", "user_2", Collections.emptyMap(), "uuid_2"),
+                new CmabPredictionRequest("rule_1", "user_3", Collections.emptyMap(), "uuid_3")));
+
+            assertEquals("var_a", variationIds.get(0).join());
+            assertEquals("var_c", variationIds.get(1).join());
+            assertEquals("var_b", variationIds.get(2).join());
+            HttpRequest[] rule1Requests = mockServer.retrieveRecordedRequests(request().withPath("/predict/rule_1"));
+            assertEquals(1, rule1Requests.length);
+            String rule1Body = rule1Requests[0].getBodyAsString();
+            assertTrue(rule1Body.indexOf("\"visitorId\":\"user_1\"") < rule1Body.indexOf("\"visitorId\":\"user_3\""));
+            assertEquals(1, mockServer.retrieveRecordedRequests(request().withPath("/predict/rule_2")).length);
+        } finally {
+            mockServer.stop();
+        }
+    }
+
+    @Test
+    public void fetchDecisionsFailsOnlyTheRuleWhoseEndpointFailed() throws Exception {
+        int port = 9996;
+        ClientAndServer mockServer = ClientAndServer.startClientAndServer(port);
+        try {
+            mockServer
+                .when(request().withMethod("POST").withPath("/predict/rule_1"))
+                .respond(response().withStatusCode(500));
+            mockServer
+                .when(request().withMethod("POST").withPath("/predict/rule_2"))
+                .respond(response().withStatusCode(200)
+                    .withBody("{\"predictions\":[{\"variation_id\":\"var_c\"},{\"variation_id\":\"var_d\"}]}"));
+
+            DefaultCmabClient client = new DefaultCmabClient(
+                new CmabClientConfig(null, "http://localhost:" + port + "/predict/%s"));
+            List<CompletableFuture<String>> variationIds = client.fetchDecisions(Arrays.asList(
+                new CmabPredictionRequest("rule_1", "user_1", Collections.emptyMap(), "uuid_1"),
+                new CmabPredictionRequest("rule_2", "user_2", Collections.emptyMap(), "uuid_2"),
+                new CmabPredictionRequest("rule_2", "user_3", Collections.emptyMap(), "uuid_3")));
+
+            try {
+                variationIds.get(0).join();
+                fail("Expected CmabFetchException");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof CmabFetchException);
+            }
+            assertEquals("var_c", variationIds.get(1).join());
+            assertEquals("var_d", variationIds.get(2).join());
+        } finally {
+            mockServer.stop();
+        }
+    }
+
+    @Test
+    public void fetchDecisionsFailsWhenPredictionCountDoesNotMatch() throws Exception {
+        setupHttpClient(200);
+        cmabClient = new DefaultCmabClient(mockHttpClient);
+
+        List<CompletableFuture<String>> variationIds = cmabClient.fetchDecisions(Arrays.asList(
+            new CmabPredictionRequest("rule_1", "user_1", Collections.emptyMap(), "uuid_1"),
+            new CmabPredictionRequest("rule_1", "user_2", Collections.emptyMap(), "uuid_2")));
+        for (CompletableFuture<String> variationId : variationIds) {
+            try {
+                variationId.join();
+                fail("Expected CmabInvalidResponseException");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof CmabInvalidResponseException);
+                assertEquals("Invalid CMAB fetch response", e.getCause().getMessage());
+            }
+        }
+    }
+}
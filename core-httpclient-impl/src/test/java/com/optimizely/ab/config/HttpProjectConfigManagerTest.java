@@ -25,7 +25,9 @@ import org.apache.http.StatusLine;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicHttpResponse;
 import org.junit.After;
 import org.junit.Before;
@@ -35,8 +37,11 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 import java.util.concurrent.TimeUnit;
 
 import static com.optimizely.ab.config.HttpProjectConfigManager.*;
@@ -209,6 +214,21 @@ public class HttpProjectConfigManagerTest {
         assertEquals("sdk-key", projectConfigManager.getSDKKey());
     }
 
+    @Test
+    public void testBuildWithOptimizelyConfigDisabled() throws Exception {
+        assertEquals("1480511547", projectConfigManager.getOptimizelyConfig().getRevision());
+        projectConfigManager.close();
+
+        projectConfigManager = builder()
+            .withOptimizelyHttpClient(mockHttpClient)
+            .withSdkKey("sdk-key")
+            .withOptimizelyConfigEnabled(false)
+            .build();
+
+        assertEquals("1480511547", projectConfigManager.getConfig().getRevision());
+        assertNull(projectConfigManager.getOptimizelyConfig());
+    }
+
     @Test
     public void testInvalidPollingInterval() {
         Builder builder = builder();
@@ -302,6 +322,48 @@ public class HttpProjectConfigManagerTest {
         assertNull(datafile);
     }
 
+    @Test
+    public void testGetDatafileGzipResponseWithETag() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(datafileString.getBytes(StandardCharsets.UTF_8));
+        }
+        ByteArrayEntity entity = new ByteArrayEntity(compressed.toByteArray());
+        entity.setContentEncoding("gzip");
+
+        CloseableHttpResponse getResponse = mock(CloseableHttpResponse.class);
+        StatusLine statusLine = mock(StatusLine.class);
+        when(statusLine.getStatusCode()).thenReturn(200);
+        when(getResponse.getStatusLine()).thenReturn(statusLine);
+        when(getResponse.getEntity()).thenReturn(entity);
+        when(getResponse.getFirstHeader(HttpHeaders.ETAG)).thenReturn(new BasicHeader(HttpHeaders.ETAG, "\"etag-1\""));
+
+        DatafileFetchStats statsBefore = projectConfigManager.getFetchStats();
+        assertEquals(datafileString, projectConfigManager.getDatafileFromResponse(getResponse));
+        assertEquals("\"etag-1\"", projectConfigManager.getETag());
+
+        DatafileFetchStats stats = projectConfigManager.getFetchStats();
+        assertEquals(statsBefore.getResponseCount() + 1, stats.getResponseCount());
+        assertEquals(statsBefore.getBytesReceived() + compressed.size(), stats.getBytesReceived());
+
+        HttpGet request = projectConfigManager.createHttpRequest();
+        assertEquals("\"etag-1\"", request.getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+        assertEquals("gzip", request.getFirstHeader(HttpHeaders.ACCEPT_ENCODING).getValue());
+    }
+
+    @Test
+    public void testFetchStatsCountNotModified() throws Exception {
+        DatafileFetchStats statsBefore = projectConfigManager.getFetchStats();
+        CloseableHttpResponse getResponse = new MyResponse(new ProtocolVersion("TEST", 0, 0), 304, "TEST");
+        projectConfigManager.getDatafileFromResponse(getResponse);
+
+        DatafileFetchStats stats = projectConfigManager.getFetchStats();
+        assertEquals(statsBefore.getResponseCount() + 1, stats.getResponseCount());
+        assertEquals(statsBefore.getNotModifiedCount() + 1, stats.getNotModifiedCount());
+        assertEquals(statsBefore.getBytesReceived(), stats.getBytesReceived());
+        assertTrue(stats.getNotModifiedRate() > 0.0);
+    }
+
     @Test(expected = ClientProtocolException.class)
     public void testGetDatafileHttpResponse4XX() throws Exception {
         CloseableHttpResponse getResponse = new MyResponse(new ProtocolVersion("TEST", 0, 0), 400, "TEST");
@@ -20,14 +20,22 @@ import com.google.common.util.concurrent.MoreExecutors;
 
 import com.optimizely.ab.OptimizelyHttpClient;
 import com.optimizely.ab.event.internal.payload.EventBatch;
+import com.optimizely.ab.event.internal.payload.Visitor;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
@@ -37,10 +45,14 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import static com.optimizely.ab.event.AsyncEventHandler.builder;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -154,6 +166,117 @@ public class AsyncEventHandlerTest {
         assert(eventHandler.httpClient != null);
     }
 
+    @Test
+    public void testBatchDispatchMergesQueuedEvents() throws Exception {
+        AsyncEventHandler eventHandler = new AsyncEventHandler(mockHttpClient, mockExecutorService, 10, 1, 10);
+        eventHandler.dispatchEvent(createPostLogEvent("user1"));
+        eventHandler.dispatchEvent(createPostLogEvent("user2"));
+        eventHandler.dispatchEvent(createLogEvent());
+        eventHandler.dispatchEvent(createPostLogEvent("user3"));
+
+        // a single dispatcher drains all the queued events
+        ArgumentCaptor<Runnable> dispatcher = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockExecutorService).execute(dispatcher.capture());
+        dispatcher.getValue().run();
+
+        // the POST events are merged into the first request, the GET event is sent on its own
+        ArgumentCaptor<HttpUriRequest> requests = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(mockHttpClient, times(2)).execute(requests.capture(), any(ResponseHandler.class));
+        assertTrue(requests.getAllValues().get(0) instanceof HttpPost);
+        assertTrue(requests.getAllValues().get(1) instanceof HttpGet);
+        String body = EntityUtils.toString(((HttpPost) requests.getAllValues().get(0)).getEntity());
+        assertTrue(body.contains("user1"));
+        assertTrue(body.contains("user2"));
+        assertTrue(body.contains("user3"));
+    }
+
+    @Test
+    public void testBatchDispatchRejectsEventsWhenQueueIsFull() throws Exception {
+        AsyncEventHandler eventHandler = new AsyncEventHandler(mockHttpClient, mockExecutorService, 2, 1, 10);
+        eventHandler.dispatchEvent(createPostLogEvent("user1"));
+        eventHandler.dispatchEvent(createPostLogEvent("user2"));
+        eventHandler.dispatchEvent(createPostLogEvent("user3"));
+
+        ArgumentCaptor<Runnable> dispatcher = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockExecutorService).execute(dispatcher.capture());
+        dispatcher.getValue().run();
+
+        ArgumentCaptor<HttpPost> request = ArgumentCaptor.forClass(HttpPost.class);
+        verify(mockHttpClient).execute(request.capture(), any(ResponseHandler.class));
+        String body = EntityUtils.toString(request.getValue().getEntity());
+        assertTrue(body.contains("user1"));
+        assertTrue(body.contains("user2"));
+        assertFalse(body.contains("user3"));
+    }
+
+    @Test
+    public void testBatchDispatcherIsRescheduledWhenRejected() throws Exception {
+        AsyncEventHandler eventHandler = new AsyncEventHandler(mockHttpClient, mockExecutorService, 10, 1, 10);
+        doThrow(RejectedExecutionException.class).when(mockExecutorService).execute(any(Runnable.class));
+        eventHandler.dispatchEvent(createPostLogEvent("user1"));
+        eventHandler.dispatchEvent(createPostLogEvent("user2"));
+
+        // the rejected dispatcher frees its slot, so each event tries to start one
+        verify(mockExecutorService, times(2)).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void testBatchDispatchDoesNotQueueRejectedEvents() throws Exception {
+        AsyncEventHandler eventHandler = new AsyncEventHandler(mockHttpClient, mockExecutorService, 10, 1, 10);
+        doThrow(RejectedExecutionException.class).when(mockExecutorService).execute(any(Runnable.class));
+        when(mockExecutorService.awaitTermination(anyLong(), any(TimeUnit.class))).thenReturn(true);
+        eventHandler.dispatchEvent(createPostLogEvent("user1"));
+
+        // the rejected event is not dispatched later on
+        eventHandler.shutdownAndAwaitTermination(1, TimeUnit.SECONDS);
+        verify(mockHttpClient, never()).execute(any(HttpUriRequest.class), any(ResponseHandler.class));
+    }
+
+    @Test
+    public void testShutdownDispatchesQueuedEvents() throws Exception {
+        AsyncEventHandler eventHandler = new AsyncEventHandler(mockHttpClient, mockExecutorService, 10, 1, 10);
+        when(mockExecutorService.awaitTermination(anyLong(), any(TimeUnit.class))).thenReturn(true);
+        // the dispatcher scheduled on the mock executor never runs, leaving the events queued
+        eventHandler.dispatchEvent(createPostLogEvent("user1"));
+        eventHandler.dispatchEvent(createPostLogEvent("user2"));
+
+        eventHandler.shutdownAndAwaitTermination(1, TimeUnit.SECONDS);
+
+        ArgumentCaptor<HttpPost> request = ArgumentCaptor.forClass(HttpPost.class);
+        verify(mockHttpClient).execute(request.capture(), any(ResponseHandler.class));
+        String body = EntityUtils.toString(request.getValue().getEntity());
+        assertTrue(body.contains("user1"));
+        assertTrue(body.contains("user2"));
+    }
+
+    @Test
+    public void testMergeLogEvents() {
+        LogEvent first = createPostLogEvent("user1");
+        LogEvent get = createLogEvent();
+        LogEvent second = createPostLogEvent("user2");
+        LogEvent otherRevision = createPostLogEvent("user3");
+        otherRevision.getEventBatch().setRevision("2");
+
+        List<LogEvent> merged = AsyncEventHandler.mergeLogEvents(Arrays.asList(first, get, second, otherRevision));
+
+        assertEquals(3, merged.size());
+        EventBatch mergedBatch = merged.get(0).getEventBatch();
+        assertEquals(Arrays.asList(first.getEventBatch().getVisitors().get(0), second.getEventBatch().getVisitors().get(0)),
+            mergedBatch.getVisitors());
+        assertEquals("1", mergedBatch.getRevision());
+        assertEquals("test_url", merged.get(0).getEndpointUrl());
+        assertSame(get, merged.get(1));
+        assertSame(otherRevision, merged.get(2));
+    }
+
+    @Test
+    public void testInvalidMaxBatchSize() {
+        AsyncEventHandler.Builder builder = builder();
+        int expected = builder.maxBatchSize;
+        builder.withMaxBatchSize(0);
+        assertEquals(expected, builder.maxBatchSize);
+    }
+
     @Test
     public void testInvalidQueueCapacity() {
         AsyncEventHandler.Builder builder = builder();
@@ -177,4 +300,14 @@ public class AsyncEventHandlerTest {
         testParams.put("test", "params");
         return new LogEvent(LogEvent.RequestMethod.GET, "test_url", testParams, new EventBatch());
     }
+
+    private LogEvent createPostLogEvent(String visitorId) {
+        EventBatch eventBatch = new EventBatch.Builder()
+            .setAccountId("accountId")
+            .setProjectId("projectId")
+            .setRevision("1")
+            .setVisitors(Collections.singletonList(new Visitor.Builder().setVisitorId(visitorId).build()))
+            .build();
+        return new LogEvent(LogEvent.RequestMethod.POST, "test_url", Collections.<String, String>emptyMap(), eventBatch);
+    }
 }